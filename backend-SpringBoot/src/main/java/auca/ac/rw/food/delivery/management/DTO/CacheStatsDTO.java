@@ -0,0 +1,36 @@
+package auca.ac.rw.food.delivery.management.DTO;
+
+// Counters of one in-memory cache region since startup
+public class CacheStatsDTO {
+    private String region;
+    private int size;
+    private int maxSize;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    public CacheStatsDTO(String region, int size, int maxSize, long hits, long misses,
+                         long evictions, long invalidations) {
+        this.region = region;
+        this.size = size;
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.invalidations = invalidations;
+    }
+
+    public String getRegion() { return region; }
+    public int getSize() { return size; }
+    public int getMaxSize() { return maxSize; }
+    public long getHits() { return hits; }
+    public long getMisses() { return misses; }
+    public long getEvictions() { return evictions; }
+    public long getInvalidations() { return invalidations; }
+
+    public double getHitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+}
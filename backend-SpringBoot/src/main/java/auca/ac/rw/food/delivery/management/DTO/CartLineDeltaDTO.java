@@ -0,0 +1,14 @@
+package auca.ac.rw.food.delivery.management.DTO;
+import java.util.UUID;
+
+// One operation of a bulk cart update: a positive delta adds, a negative one removes
+public class CartLineDeltaDTO {
+    private UUID itemId;
+    private int quantityDelta;
+
+    public UUID getItemId() { return itemId; }
+    public void setItemId(UUID itemId) { this.itemId = itemId; }
+
+    public int getQuantityDelta() { return quantityDelta; }
+    public void setQuantityDelta(int quantityDelta) { this.quantityDelta = quantityDelta; }
+}
@@ -0,0 +1,29 @@
+package auca.ac.rw.food.delivery.management.DTO;
+
+import java.util.UUID;
+
+// Price breakdown of a cart: subtotal at list prices, item discounts, delivery fee and what the customer pays
+public class CartQuoteDTO {
+    private UUID cartId;
+    private int itemCount;
+    private double subtotal;
+    private double discount;
+    private double deliveryFee;
+    private double total;
+
+    public CartQuoteDTO(UUID cartId, int itemCount, double subtotal, double discount, double deliveryFee) {
+        this.cartId = cartId;
+        this.itemCount = itemCount;
+        this.subtotal = subtotal;
+        this.discount = discount;
+        this.deliveryFee = deliveryFee;
+        this.total = subtotal - discount + deliveryFee;
+    }
+
+    public UUID getCartId() { return cartId; }
+    public int getItemCount() { return itemCount; }
+    public double getSubtotal() { return subtotal; }
+    public double getDiscount() { return discount; }
+    public double getDeliveryFee() { return deliveryFee; }
+    public double getTotal() { return total; }
+}
@@ -0,0 +1,43 @@
+package auca.ac.rw.food.delivery.management.DTO;
+
+import java.time.LocalDateTime;
+
+// Abandoned-cart sweeper: figures of the last run and running totals since startup
+public class CartSweepStatsDTO {
+    private boolean running;
+    private LocalDateTime lastStartedAt;
+    private long lastDurationMs;
+    private long lastCartsScanned;
+    private long lastCartsSwept;
+    private long lastLinesArchived;
+    private long lastLinesDeleted;
+    private long totalRuns;
+    private long totalCartsSwept;
+    private long totalLinesDeleted;
+
+    public CartSweepStatsDTO(boolean running, LocalDateTime lastStartedAt, long lastDurationMs,
+                             long lastCartsScanned, long lastCartsSwept, long lastLinesArchived,
+                             long lastLinesDeleted, long totalRuns, long totalCartsSwept, long totalLinesDeleted) {
+        this.running = running;
+        this.lastStartedAt = lastStartedAt;
+        this.lastDurationMs = lastDurationMs;
+        this.lastCartsScanned = lastCartsScanned;
+        this.lastCartsSwept = lastCartsSwept;
+        this.lastLinesArchived = lastLinesArchived;
+        this.lastLinesDeleted = lastLinesDeleted;
+        this.totalRuns = totalRuns;
+        this.totalCartsSwept = totalCartsSwept;
+        this.totalLinesDeleted = totalLinesDeleted;
+    }
+
+    public boolean isRunning() { return running; }
+    public LocalDateTime getLastStartedAt() { return lastStartedAt; }
+    public long getLastDurationMs() { return lastDurationMs; }
+    public long getLastCartsScanned() { return lastCartsScanned; }
+    public long getLastCartsSwept() { return lastCartsSwept; }
+    public long getLastLinesArchived() { return lastLinesArchived; }
+    public long getLastLinesDeleted() { return lastLinesDeleted; }
+    public long getTotalRuns() { return totalRuns; }
+    public long getTotalCartsSwept() { return totalCartsSwept; }
+    public long getTotalLinesDeleted() { return totalLinesDeleted; }
+}
@@ -0,0 +1,63 @@
+package auca.ac.rw.food.delivery.management.DTO;
+
+import java.util.List;
+import java.util.UUID;
+
+// Read model of a cart as served from the in-memory cart engine; keeps the JSON shape of the Cart entity
+public class CartViewDTO {
+    private UUID id;
+    private UUID customerId;
+    private List<CartLineDTO> cartItems;
+
+    public CartViewDTO(UUID id, UUID customerId, List<CartLineDTO> cartItems) {
+        this.id = id;
+        this.customerId = customerId;
+        this.cartItems = cartItems;
+    }
+
+    public UUID getId() { return id; }
+    public UUID getCustomerId() { return customerId; }
+    public List<CartLineDTO> getCartItems() { return cartItems; }
+
+    public static class CartLineDTO {
+        private CartItemRefDTO item;
+        private int quantity;
+        private double totalPrice;
+
+        public CartLineDTO(CartItemRefDTO item, int quantity, double totalPrice) {
+            this.item = item;
+            this.quantity = quantity;
+            this.totalPrice = totalPrice;
+        }
+
+        public CartItemRefDTO getItem() { return item; }
+        public int getQuantity() { return quantity; }
+        public double getTotalPrice() { return totalPrice; }
+    }
+
+    public static class CartItemRefDTO {
+        private UUID id;
+        private String name;
+        private String description;
+        private String imageUrl;
+        private double price;
+        private double discountPercentage;
+
+        public CartItemRefDTO(UUID id, String name, String description, String imageUrl,
+                              double price, double discountPercentage) {
+            this.id = id;
+            this.name = name;
+            this.description = description;
+            this.imageUrl = imageUrl;
+            this.price = price;
+            this.discountPercentage = discountPercentage;
+        }
+
+        public UUID getId() { return id; }
+        public String getName() { return name; }
+        public String getDescription() { return description; }
+        public String getImageUrl() { return imageUrl; }
+        public double getPrice() { return price; }
+        public double getDiscountPercentage() { return discountPercentage; }
+    }
+}
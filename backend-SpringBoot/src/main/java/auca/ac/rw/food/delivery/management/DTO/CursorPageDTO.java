@@ -0,0 +1,32 @@
+package auca.ac.rw.food.delivery.management.DTO;
+
+import auca.ac.rw.food.delivery.management.util.KeysetCursor;
+
+import java.util.List;
+import java.util.function.Function;
+
+// One keyset page; pass "next" back as the cursor to continue, null means there is nothing after this page
+public class CursorPageDTO<T> {
+    private List<T> content;
+    private String next;
+    private int size;
+
+    public CursorPageDTO(List<T> content, String next) {
+        this.content = content;
+        this.next = next;
+        this.size = content.size();
+    }
+
+    // Rows are fetched with one extra row to learn whether another page exists
+    public static <T> CursorPageDTO<T> fromOverfetch(List<T> rows, int pageSize, Function<T, KeysetCursor> position) {
+        if (rows.size() <= pageSize) {
+            return new CursorPageDTO<>(rows, null);
+        }
+        List<T> content = rows.subList(0, pageSize);
+        return new CursorPageDTO<>(content, position.apply(content.get(pageSize - 1)).encode());
+    }
+
+    public List<T> getContent() { return content; }
+    public String getNext() { return next; }
+    public int getSize() { return size; }
+}
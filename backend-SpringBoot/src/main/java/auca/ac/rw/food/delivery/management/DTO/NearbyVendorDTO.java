@@ -0,0 +1,41 @@
+package auca.ac.rw.food.delivery.management.DTO;
+
+import auca.ac.rw.food.delivery.management.model.enums.VendorStatus;
+
+import java.util.UUID;
+
+// A vendor found by a nearby search, with its distance from the searched point
+public class NearbyVendorDTO {
+    private UUID id;
+    private String name;
+    private String location;
+    private String imageUrl;
+    private VendorStatus status;
+    private double averageRating;
+    private double latitude;
+    private double longitude;
+    private double distanceKm;
+
+    public NearbyVendorDTO(UUID id, String name, String location, String imageUrl, VendorStatus status,
+                           double averageRating, double latitude, double longitude, double distanceKm) {
+        this.id = id;
+        this.name = name;
+        this.location = location;
+        this.imageUrl = imageUrl;
+        this.status = status;
+        this.averageRating = averageRating;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.distanceKm = distanceKm;
+    }
+
+    public UUID getId() { return id; }
+    public String getName() { return name; }
+    public String getLocation() { return location; }
+    public String getImageUrl() { return imageUrl; }
+    public VendorStatus getStatus() { return status; }
+    public double getAverageRating() { return averageRating; }
+    public double getLatitude() { return latitude; }
+    public double getLongitude() { return longitude; }
+    public double getDistanceKm() { return distanceKm; }
+}
@@ -0,0 +1,25 @@
+package auca.ac.rw.food.delivery.management.DTO;
+
+import auca.ac.rw.food.delivery.management.model.enums.OrderStatus;
+
+import java.util.List;
+import java.util.UUID;
+
+public class OrderStatusBatchDTO {
+    private List<StatusUpdateDTO> updates;
+
+    // Inner class for one order's requested transition
+    public static class StatusUpdateDTO {
+        private UUID orderId;
+        private OrderStatus status;
+
+        public UUID getOrderId() { return orderId; }
+        public void setOrderId(UUID orderId) { this.orderId = orderId; }
+        public OrderStatus getStatus() { return status; }
+        public void setStatus(OrderStatus status) { this.status = status; }
+    }
+
+    // Getters and Setters
+    public List<StatusUpdateDTO> getUpdates() { return updates; }
+    public void setUpdates(List<StatusUpdateDTO> updates) { this.updates = updates; }
+}
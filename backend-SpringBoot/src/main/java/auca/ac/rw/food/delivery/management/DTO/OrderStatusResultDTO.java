@@ -0,0 +1,38 @@
+package auca.ac.rw.food.delivery.management.DTO;
+
+import auca.ac.rw.food.delivery.management.model.enums.OrderStatus;
+
+import java.util.UUID;
+
+// Outcome of one entry in a batch status update; error is set when applied is false
+public class OrderStatusResultDTO {
+    private UUID orderId;
+    private OrderStatus previousStatus;
+    private OrderStatus status;
+    private boolean applied;
+    private String error;
+
+    public OrderStatusResultDTO(UUID orderId, OrderStatus previousStatus, OrderStatus status,
+                                boolean applied, String error) {
+        this.orderId = orderId;
+        this.previousStatus = previousStatus;
+        this.status = status;
+        this.applied = applied;
+        this.error = error;
+    }
+
+    public static OrderStatusResultDTO applied(UUID orderId, OrderStatus previousStatus, OrderStatus status) {
+        return new OrderStatusResultDTO(orderId, previousStatus, status, true, null);
+    }
+
+    public static OrderStatusResultDTO rejected(UUID orderId, OrderStatus currentStatus, String error) {
+        return new OrderStatusResultDTO(orderId, currentStatus, currentStatus, false, error);
+    }
+
+    // Getters
+    public UUID getOrderId() { return orderId; }
+    public OrderStatus getPreviousStatus() { return previousStatus; }
+    public OrderStatus getStatus() { return status; }
+    public boolean isApplied() { return applied; }
+    public String getError() { return error; }
+}
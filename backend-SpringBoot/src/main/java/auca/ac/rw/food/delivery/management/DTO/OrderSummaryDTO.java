@@ -0,0 +1,40 @@
+package auca.ac.rw.food.delivery.management.DTO;
+
+import auca.ac.rw.food.delivery.management.model.enums.OrderStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Flat order row for list views, filled straight from a JPQL constructor expression
+public class OrderSummaryDTO {
+    private UUID id;
+    private UUID customerId;
+    private String customerName;
+    private UUID driverId;
+    private Double total;
+    private OrderStatus status;
+    private LocalDateTime orderDate;
+    private String deliveryAddress;
+
+    public OrderSummaryDTO(UUID id, UUID customerId, String customerName, UUID driverId,
+                           Double total, OrderStatus status, LocalDateTime orderDate, String deliveryAddress) {
+        this.id = id;
+        this.customerId = customerId;
+        this.customerName = customerName;
+        this.driverId = driverId;
+        this.total = total;
+        this.status = status;
+        this.orderDate = orderDate;
+        this.deliveryAddress = deliveryAddress;
+    }
+
+    // Getters
+    public UUID getId() { return id; }
+    public UUID getCustomerId() { return customerId; }
+    public String getCustomerName() { return customerName; }
+    public UUID getDriverId() { return driverId; }
+    public Double getTotal() { return total; }
+    public OrderStatus getStatus() { return status; }
+    public LocalDateTime getOrderDate() { return orderDate; }
+    public String getDeliveryAddress() { return deliveryAddress; }
+}
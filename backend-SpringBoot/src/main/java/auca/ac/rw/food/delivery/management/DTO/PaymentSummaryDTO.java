@@ -0,0 +1,35 @@
+package auca.ac.rw.food.delivery.management.DTO;
+
+import auca.ac.rw.food.delivery.management.model.enums.PaymentMethod;
+import auca.ac.rw.food.delivery.management.model.enums.PaymentStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Flat payment row for list views, filled straight from a JPQL constructor expression
+public class PaymentSummaryDTO {
+    private UUID id;
+    private UUID orderId;
+    private double amount;
+    private PaymentMethod paymentMethod;
+    private PaymentStatus status;
+    private LocalDateTime paymentDate;
+
+    public PaymentSummaryDTO(UUID id, UUID orderId, double amount, PaymentMethod paymentMethod,
+                             PaymentStatus status, LocalDateTime paymentDate) {
+        this.id = id;
+        this.orderId = orderId;
+        this.amount = amount;
+        this.paymentMethod = paymentMethod;
+        this.status = status;
+        this.paymentDate = paymentDate;
+    }
+
+    // Getters
+    public UUID getId() { return id; }
+    public UUID getOrderId() { return orderId; }
+    public double getAmount() { return amount; }
+    public PaymentMethod getPaymentMethod() { return paymentMethod; }
+    public PaymentStatus getStatus() { return status; }
+    public LocalDateTime getPaymentDate() { return paymentDate; }
+}
@@ -0,0 +1,24 @@
+package auca.ac.rw.food.delivery.management.DTO;
+
+import java.util.Map;
+import java.util.UUID;
+
+// Ratings of one vendor or item by star value, with the total and average they add up to
+public class RatingHistogramDTO {
+    private UUID id;
+    private long totalRatings;
+    private double averageRating;
+    private Map<Integer, Long> counts;
+
+    public RatingHistogramDTO(UUID id, long totalRatings, double averageRating, Map<Integer, Long> counts) {
+        this.id = id;
+        this.totalRatings = totalRatings;
+        this.averageRating = averageRating;
+        this.counts = counts;
+    }
+
+    public UUID getId() { return id; }
+    public long getTotalRatings() { return totalRatings; }
+    public double getAverageRating() { return averageRating; }
+    public Map<Integer, Long> getCounts() { return counts; }
+}
@@ -5,6 +5,7 @@ import java.util.List;
 public class RevenueStatsDTO {
     private List<String> labels;
     private List<Double> data;
+    private List<Long> orderCounts;
 
     public List<String> getLabels() {
         return labels;
@@ -21,4 +22,12 @@ public class RevenueStatsDTO {
     public void setData(List<Double> data) {
         this.data = data;
     }
+
+    public List<Long> getOrderCounts() {
+        return orderCounts;
+    }
+
+    public void setOrderCounts(List<Long> orderCounts) {
+        this.orderCounts = orderCounts;
+    }
 } 
\ No newline at end of file
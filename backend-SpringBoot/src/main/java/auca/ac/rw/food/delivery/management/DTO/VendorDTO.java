@@ -17,6 +17,8 @@ public class VendorDTO {
     private String password;
     private String vendorId;
     private List<String> categoryNames;
+    private Double latitude;
+    private Double longitude;
 
     // Constructors
     public VendorDTO() {}
@@ -67,4 +69,10 @@ public class VendorDTO {
 
     public List<String> getCategoryNames() { return categoryNames; }
     public void setCategoryNames(List<String> categoryNames) { this.categoryNames = categoryNames; }
+
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
 }
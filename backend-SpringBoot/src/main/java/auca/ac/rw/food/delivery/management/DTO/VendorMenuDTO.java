@@ -0,0 +1,65 @@
+package auca.ac.rw.food.delivery.management.DTO;
+
+import auca.ac.rw.food.delivery.management.model.enums.ItemCategory;
+import auca.ac.rw.food.delivery.management.model.enums.VendorStatus;
+import auca.ac.rw.food.delivery.management.model.enums.VendorType;
+
+import java.util.List;
+import java.util.UUID;
+
+// Everything a vendor page shows: the vendor header and its items grouped by category
+public class VendorMenuDTO {
+    private UUID id;
+    private String name;
+    private String description;
+    private String imageUrl;
+    private String location;
+    private String phone;
+    private VendorStatus status;
+    private VendorType vendorType;
+    private double averageRating;
+    private int totalRatings;
+    private List<MenuSectionDTO> sections;
+
+    public VendorMenuDTO(UUID id, String name, String description, String imageUrl, String location, String phone,
+                         VendorStatus status, VendorType vendorType, double averageRating, int totalRatings,
+                         List<MenuSectionDTO> sections) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.imageUrl = imageUrl;
+        this.location = location;
+        this.phone = phone;
+        this.status = status;
+        this.vendorType = vendorType;
+        this.averageRating = averageRating;
+        this.totalRatings = totalRatings;
+        this.sections = sections;
+    }
+
+    public UUID getId() { return id; }
+    public String getName() { return name; }
+    public String getDescription() { return description; }
+    public String getImageUrl() { return imageUrl; }
+    public String getLocation() { return location; }
+    public String getPhone() { return phone; }
+    public VendorStatus getStatus() { return status; }
+    public VendorType getVendorType() { return vendorType; }
+    public double getAverageRating() { return averageRating; }
+    public int getTotalRatings() { return totalRatings; }
+    public List<MenuSectionDTO> getSections() { return sections; }
+
+    // An item listed under each of its categories; items without one come last with a null category
+    public static class MenuSectionDTO {
+        private ItemCategory category;
+        private List<ItemResponseDTO> items;
+
+        public MenuSectionDTO(ItemCategory category, List<ItemResponseDTO> items) {
+            this.category = category;
+            this.items = items;
+        }
+
+        public ItemCategory getCategory() { return category; }
+        public List<ItemResponseDTO> getItems() { return items; }
+    }
+}
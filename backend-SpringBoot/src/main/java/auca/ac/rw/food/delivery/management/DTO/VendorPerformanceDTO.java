@@ -7,6 +7,7 @@ public class VendorPerformanceDTO {
     private String name;
     private double totalSales;
     private int totalOrders;
+    private double averageBasket;
     private double rating;
 
     public UUID getId() {
@@ -41,6 +42,14 @@ public class VendorPerformanceDTO {
         this.totalOrders = totalOrders;
     }
 
+    public double getAverageBasket() {
+        return averageBasket;
+    }
+
+    public void setAverageBasket(double averageBasket) {
+        this.averageBasket = averageBasket;
+    }
+
     public double getRating() {
         return rating;
     }
@@ -3,9 +3,11 @@ package auca.ac.rw.food.delivery.management;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @ComponentScan(basePackages = "auca.ac.rw.food.delivery.management")
+@EnableScheduling
 public class FoodDeliveryManagementApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,131 @@
+package auca.ac.rw.food.delivery.management.config;
+
+import auca.ac.rw.food.delivery.management.service.IdempotencyStore;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Makes POST and PATCH requests that carry an Idempotency-Key header safe to retry.
+ * The first request for a key runs normally and its response is stored; a retry with the same
+ * key, method and path gets that response back without reaching the controller. A duplicate that
+ * arrives while the first is still running waits for it and shares its response.
+ * Only successes and client errors the same request would always get again (malformed or
+ * invalid input) are stored. Anything else, e.g. a 409 conflict, a 404 for something not created
+ * yet or a server error, releases the key so the client can retry for real.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 200;
+
+    // Client errors that depend only on the request itself, not on state that may change before a retry
+    private static final Set<Integer> STORED_CLIENT_ERRORS = Set.of(
+            HttpServletResponse.SC_BAD_REQUEST, HttpStatus.UNPROCESSABLE_ENTITY.value());
+
+    private final IdempotencyStore store;
+    private final long waitMillis;
+    private final int maxBodyBytes;
+
+    public IdempotencyFilter(IdempotencyStore store,
+                             @Value("${app.idempotency.wait-ms:30000}") long waitMillis,
+                             @Value("${app.idempotency.max-body-bytes:1048576}") int maxBodyBytes) {
+        this.store = store;
+        this.waitMillis = waitMillis;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String method = request.getMethod();
+        return request.getHeader(HEADER) == null || !("POST".equals(method) || "PATCH".equals(method));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getHeader(HEADER).trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid " + HEADER + " header");
+            return;
+        }
+        String requestKey = request.getMethod() + " " + request.getRequestURI()
+                + (request.getQueryString() != null ? "?" + request.getQueryString() : "") + " " + key;
+
+        while (true) {
+            IdempotencyStore.Claim claim = store.claim(requestKey);
+            if (claim.replay() != null) {
+                replay(response, claim.replay());
+                return;
+            }
+            if (claim.isOwner()) {
+                execute(request, response, chain, requestKey);
+                return;
+            }
+
+            // 🎯 Same key already running: wait for it rather than run the request twice
+            IdempotencyStore.StoredResponse shared;
+            try {
+                shared = claim.running().get(waitMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                response.sendError(HttpServletResponse.SC_CONFLICT, "A request with this " + HEADER + " is still in progress");
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                return;
+            } catch (ExecutionException e) {
+                shared = null;
+            }
+            if (shared != null) {
+                replay(response, shared);
+                return;
+            }
+            // The first attempt failed without a response to share; go round and claim the key ourselves
+        }
+    }
+
+    private void execute(HttpServletRequest request, HttpServletResponse response, FilterChain chain,
+                         String requestKey) throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        byte[] body = null;
+        try {
+            chain.doFilter(request, wrapper);
+            byte[] content = wrapper.getContentAsByteArray();
+            if (isStored(wrapper.getStatus()) && content.length <= maxBodyBytes) {
+                body = content;
+            }
+        } finally {
+            store.complete(requestKey, wrapper.getStatus(), wrapper.getContentType(), body);
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private static boolean isStored(int status) {
+        return (status >= 200 && status < 300) || STORED_CLIENT_ERRORS.contains(status);
+    }
+
+    private void replay(HttpServletResponse response, IdempotencyStore.StoredResponse stored) throws IOException {
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+}
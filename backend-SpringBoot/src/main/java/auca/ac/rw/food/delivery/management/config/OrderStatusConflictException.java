@@ -0,0 +1,12 @@
+package auca.ac.rw.food.delivery.management.config;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// Another writer kept moving the order while this transition was being applied
+@ResponseStatus(HttpStatus.CONFLICT)
+public class OrderStatusConflictException extends RuntimeException {
+    public OrderStatusConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package auca.ac.rw.food.delivery.management.config;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// The payment engine has no room for another charge of this method right now; the request may be retried
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class PaymentCapacityException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public PaymentCapacityException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -1,13 +1,18 @@
 package auca.ac.rw.food.delivery.management.controller;
 
+import auca.ac.rw.food.delivery.management.DTO.CacheStatsDTO;
+import auca.ac.rw.food.delivery.management.DTO.CartSweepStatsDTO;
 import auca.ac.rw.food.delivery.management.DTO.LoginDTO;
 import auca.ac.rw.food.delivery.management.DTO.DashboardStatsDTO;
+import auca.ac.rw.food.delivery.management.DTO.OrderSummaryDTO;
 import auca.ac.rw.food.delivery.management.DTO.RevenueStatsDTO;
 import auca.ac.rw.food.delivery.management.DTO.VendorPerformanceDTO;
 import auca.ac.rw.food.delivery.management.model.Admin;
-import auca.ac.rw.food.delivery.management.model.Order;
+import auca.ac.rw.food.delivery.management.service.AbandonedCartSweeper;
 import auca.ac.rw.food.delivery.management.service.AdminService;
 import auca.ac.rw.food.delivery.management.service.AdminDashboardService;
+import auca.ac.rw.food.delivery.management.service.CatalogCache;
+import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -19,10 +24,15 @@ import java.util.List;
 public class AdminController {
     private final AdminService adminService;
     private final AdminDashboardService dashboardService;
+    private final AbandonedCartSweeper cartSweeper;
+    private final CatalogCache catalogCache;
 
-    public AdminController(AdminService adminService, AdminDashboardService dashboardService) {
+    public AdminController(AdminService adminService, AdminDashboardService dashboardService,
+                           AbandonedCartSweeper cartSweeper, CatalogCache catalogCache) {
         this.adminService = adminService;
         this.dashboardService = dashboardService;
+        this.cartSweeper = cartSweeper;
+        this.catalogCache = catalogCache;
     }
 
     @PostMapping("/login")
@@ -37,7 +47,7 @@ public class AdminController {
     }
 
     @GetMapping("/orders/recent")
-    public ResponseEntity<List<Order>> getRecentOrders(@RequestParam(defaultValue = "5") int limit) {
+    public ResponseEntity<List<OrderSummaryDTO>> getRecentOrders(@RequestParam(defaultValue = "5") int limit) {
         return ResponseEntity.ok(dashboardService.getRecentOrders(limit));
     }
 
@@ -47,7 +57,24 @@ public class AdminController {
     }
 
     @GetMapping("/vendors/performance")
-    public ResponseEntity<List<VendorPerformanceDTO>> getVendorPerformance() {
-        return ResponseEntity.ok(dashboardService.getVendorPerformance());
+    public ResponseEntity<List<VendorPerformanceDTO>> getVendorPerformance(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "totalSales") String sort,
+            @RequestParam(defaultValue = "desc") String direction) {
+        Page<VendorPerformanceDTO> performance = dashboardService.getVendorPerformance(page, size, sort, direction);
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(performance.getTotalElements()))
+                .body(performance.getContent());
     }
-} 
\ No newline at end of file
+
+    @GetMapping("/carts/sweep-stats")
+    public ResponseEntity<CartSweepStatsDTO> getCartSweepStats() {
+        return ResponseEntity.ok(cartSweeper.stats());
+    }
+
+    @GetMapping("/catalog/cache-stats")
+    public ResponseEntity<List<CacheStatsDTO>> getCatalogCacheStats() {
+        return ResponseEntity.ok(catalogCache.stats());
+    }
+}
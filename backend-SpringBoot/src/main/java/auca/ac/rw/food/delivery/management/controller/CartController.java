@@ -1,14 +1,16 @@
 package auca.ac.rw.food.delivery.management.controller;
 
 import auca.ac.rw.food.delivery.management.DTO.CartDTO;
+import auca.ac.rw.food.delivery.management.DTO.CartLineDeltaDTO;
+import auca.ac.rw.food.delivery.management.DTO.CartQuoteDTO;
+import auca.ac.rw.food.delivery.management.DTO.CartViewDTO;
 import auca.ac.rw.food.delivery.management.model.Cart;
-import auca.ac.rw.food.delivery.management.model.Customer;
-import auca.ac.rw.food.delivery.management.model.Item;
 import auca.ac.rw.food.delivery.management.service.CartService;
 import auca.ac.rw.food.delivery.management.service.CustomerService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -25,9 +27,16 @@ public class CartController {
 
     // ✅ Get Cart by Customer ID
     @GetMapping("/customer/{customerId}")
-    public ResponseEntity<Cart> getCartByCustomer(@PathVariable UUID customerId) {
-         return customerService.getCustomerById(customerId)
-                .flatMap(cartService::getCartByCustomer)
+    public ResponseEntity<CartViewDTO> getCartByCustomer(@PathVariable UUID customerId) {
+         return cartService.getCartView(customerId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // ✅ Price breakdown of the customer's cart (subtotal, discounts, delivery fee)
+    @GetMapping("/customer/{customerId}/quote")
+    public ResponseEntity<CartQuoteDTO> getCartQuote(@PathVariable UUID customerId) {
+        return cartService.getQuote(customerId)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -44,39 +53,46 @@ public class CartController {
         
     
 
-    // ✅ Add Item to Cart
+    // ✅ Add Item to Cart (creates the cart on first use)
     @PostMapping("/customer/{customerId}/add-item")
-    public ResponseEntity<Cart> addItemToCustomerCart(
+    public ResponseEntity<CartViewDTO> addItemToCustomerCart(
             @PathVariable UUID customerId,
             @RequestBody CartDTO request
     ) {
-        return customerService.getCustomerById(customerId)
-                .map(customer -> {
-                    Cart cart = cartService.getCartByCustomer(customer)
-                            .orElseGet(() -> cartService.createCart(customer));
+        try {
+            return ResponseEntity.ok(cartService.addItemToCart(customerId, request.getItemId(), request.getQuantity()));
+        } catch (IllegalArgumentException e) {
+            // Unknown customer or item
+            return ResponseEntity.notFound().build();
+        }
+    }
 
-                    Cart updated = cartService.addItemToCart(cart, request.getItemId(), request.getQuantity());
-                    return ResponseEntity.ok(updated);
-                })
-                .orElse(ResponseEntity.notFound().build());
+
+
+    // ✅ Apply several quantity changes at once ([{itemId, quantityDelta}]) and return the cart
+    @PatchMapping("/customer/{customerId}")
+    public ResponseEntity<CartViewDTO> updateCustomerCart(
+            @PathVariable UUID customerId,
+            @RequestBody List<CartLineDeltaDTO> changes
+    ) {
+        try {
+            return ResponseEntity.ok(cartService.applyCartChanges(customerId, changes));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
 
 
     // ✅ Remove Item from Cart
     @PostMapping("/customer/{customerId}/remove-item")
-    public ResponseEntity<Cart> removeItemFromCart(
+    public ResponseEntity<CartViewDTO> removeItemFromCart(
             @PathVariable UUID customerId,
             @RequestBody CartDTO request
     ) {
-        Optional<Customer> customerOpt = customerService.getCustomerById(customerId);
-        if (customerOpt.isEmpty()) return ResponseEntity.notFound().build();
-
-        Optional<Cart> cartOpt = cartService.getCartByCustomer(customerOpt.get());
-        if (cartOpt.isEmpty()) return ResponseEntity.notFound().build();
-
-        Cart updated = cartService.removeItemFromCart(cartOpt.get(), request.getItemId(), request.getQuantity());
-        return ResponseEntity.ok(updated);
+        return cartService.removeItemFromCart(customerId, request.getItemId(), request.getQuantity())
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
 
@@ -84,12 +100,8 @@ public class CartController {
     // ✅ Clear Cart after Checkout
     @PostMapping("/customer/{customerId}/checkout")
 public ResponseEntity<String> checkoutCustomerCart(@PathVariable UUID customerId) {
-    return customerService.getCustomerById(customerId)
-            .flatMap(customer -> cartService.getCartByCustomer(customer))
-            .map(cart -> {
-                cartService.clearCart(cart);
-                return ResponseEntity.ok("Cart cleared successfully");
-            })
+    return cartService.clearCart(customerId)
+            .map(cart -> ResponseEntity.ok("Cart cleared successfully"))
             .orElse(ResponseEntity.notFound().build());
 }
 
@@ -106,17 +118,12 @@ public ResponseEntity<String> checkoutCustomerCart(@PathVariable UUID customerId
 
     // ✅ Delete Cart Item completely
     @DeleteMapping("/customer/{customerId}/items/{itemId}")
-    public ResponseEntity<Cart> deleteCartItem(
+    public ResponseEntity<CartViewDTO> deleteCartItem(
             @PathVariable UUID customerId,
             @PathVariable UUID itemId
     ) {
-        Optional<Customer> customerOpt = customerService.getCustomerById(customerId);
-        if (customerOpt.isEmpty()) return ResponseEntity.notFound().build();
-
-        Optional<Cart> cartOpt = cartService.getCartByCustomer(customerOpt.get());
-        if (cartOpt.isEmpty()) return ResponseEntity.notFound().build();
-
-        Cart updated = cartService.deleteCartItem(cartOpt.get(), itemId);
-        return ResponseEntity.ok(updated);
+        return cartService.deleteCartItem(customerId, itemId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
-}
+}
\ No newline at end of file
@@ -2,6 +2,8 @@ package auca.ac.rw.food.delivery.management.controller;
 
 import auca.ac.rw.food.delivery.management.model.Category;
 import auca.ac.rw.food.delivery.management.service.CategoryService;
+import auca.ac.rw.food.delivery.management.service.JsonSnapshotStore;
+import jakarta.servlet.http.HttpServletRequest;
 import auca.ac.rw.food.delivery.management.model.Item;
 import auca.ac.rw.food.delivery.management.model.Vendor;
 
@@ -11,6 +13,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import auca.ac.rw.food.delivery.management.model.enums.ItemCategory;
 import auca.ac.rw.food.delivery.management.model.enums.CategoryType;
+import auca.ac.rw.food.delivery.management.model.enums.VendorStatus;
+import auca.ac.rw.food.delivery.management.DTO.CursorPageDTO;
+import auca.ac.rw.food.delivery.management.DTO.ItemResponseDTO;
 
 import java.util.Optional;
 import java.util.UUID;
@@ -24,16 +29,18 @@ public class CategoryController {
 
     @Autowired
     private CategoryService categoryService;
+
+    @Autowired
+    private JsonSnapshotStore snapshots;
    
 
     // Get category by name
 
+    // Served from a serialized snapshot; still 404 while there are no categories
     @GetMapping()
-    public ResponseEntity<List<Category>> getAllCategories() {
-        List<Category> categories = categoryService.getAllCategories();
-return categories.isEmpty()
-        ? ResponseEntity.status(HttpStatus.NOT_FOUND).build()
-        : ResponseEntity.ok(categories);
+    public ResponseEntity<byte[]> getAllCategories(HttpServletRequest request) {
+        return snapshots.respondIfPresent(JsonSnapshotStore.CATEGORIES, request,
+                () -> Optional.of(categoryService.getAllCategories()).filter(categories -> !categories.isEmpty()));
      }
 
    @GetMapping("/{name}")
@@ -48,25 +55,33 @@ public ResponseEntity<Category> getCategoryByName(@PathVariable String name) {
     }
 }
 
-    // Get items by category
+    // Get items by category (paged by name, optionally filtered by availability and price)
     @GetMapping("/{name}/items")
-    public ResponseEntity<Set<Item>> getItemsByCategory(@PathVariable String name) {
+    public ResponseEntity<CursorPageDTO<ItemResponseDTO>> getItemsByCategory(
+            @PathVariable String name,
+            @RequestParam(required = false) Boolean available,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
         try {
             ItemCategory categoryEnum = ItemCategory.valueOf(name.toUpperCase());
-            Set<Item> items = categoryService.getItemsByCategory(categoryEnum);
-            return ResponseEntity.ok(items);
+            return ResponseEntity.ok(categoryService.getItemsByCategory(categoryEnum, available, minPrice, maxPrice, cursor, size));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
         }
     }
 
-    // Get vendors by category
+    // Get vendors by category (paged by name, optionally only those with a given status)
     @GetMapping("/{name}/vendors")
-    public ResponseEntity<List<Vendor>> getVendorsByCategory(@PathVariable String name) {
+    public ResponseEntity<CursorPageDTO<Vendor>> getVendorsByCategory(
+            @PathVariable String name,
+            @RequestParam(required = false) VendorStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
         try {
             ItemCategory categoryEnum = ItemCategory.valueOf(name.toUpperCase());
-            List<Vendor> vendors = categoryService.getVendorsByCategory(categoryEnum);
-            return  ResponseEntity.ok(vendors);
+            return ResponseEntity.ok(categoryService.getVendorsByCategory(categoryEnum, status, cursor, size));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
         }
@@ -2,8 +2,11 @@ package auca.ac.rw.food.delivery.management.controller;
 
 import auca.ac.rw.food.delivery.management.model.Category;
 import auca.ac.rw.food.delivery.management.model.Item;
+import auca.ac.rw.food.delivery.management.service.CatalogSearchIndex;
 import auca.ac.rw.food.delivery.management.service.CategoryService;
 import auca.ac.rw.food.delivery.management.service.ItemService;
+import auca.ac.rw.food.delivery.management.service.JsonSnapshotStore;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -11,6 +14,7 @@ import org.springframework.web.bind.annotation.*;
 import auca.ac.rw.food.delivery.management.model.enums.ItemCategory;
 import auca.ac.rw.food.delivery.management.DTO.ItemCreationDTO;
 import auca.ac.rw.food.delivery.management.DTO.ItemResponseDTO;
+import auca.ac.rw.food.delivery.management.DTO.RatingHistogramDTO;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -21,30 +25,24 @@ public class ItemController {
 
     private ItemService itemService;
     private CategoryService categoryService;
+    private JsonSnapshotStore snapshots;
 
     @Autowired
-    public ItemController(ItemService itemService, CategoryService categoryService) {
+    public ItemController(ItemService itemService, CategoryService categoryService, JsonSnapshotStore snapshots) {
         this.itemService = itemService;
         this.categoryService = categoryService;
+        this.snapshots = snapshots;
     }
 
-    // Get all items
+    // Get all items (served from a serialized snapshot, 304 when the client's ETag is current)
     @GetMapping
-    public ResponseEntity<List<ItemResponseDTO>> getAllItems() {
-        List<Item> items = itemService.getAllItems();
-        List<ItemResponseDTO> itemDTOs = items.stream()
-                .map(ItemResponseDTO::new)
-                .toList();
-        return ResponseEntity.ok(itemDTOs);
+    public ResponseEntity<byte[]> getAllItems(HttpServletRequest request) {
+        return snapshots.respond(JsonSnapshotStore.ITEMS, request, itemService::getAllItemViews);
     }
 
     @GetMapping("/vendor/{vendorId}")
     public ResponseEntity<List<ItemResponseDTO>> getItemsByVendor(@PathVariable UUID vendorId) {
-        List<Item> items = itemService.getItemsByVendorId(vendorId);
-        List<ItemResponseDTO> itemDTOs = items.stream()
-                .map(ItemResponseDTO::new)
-                .toList();
-        return ResponseEntity.ok(itemDTOs);
+        return ResponseEntity.ok(itemService.getItemViewsByVendorId(vendorId));
     }
 
     // Get an item by ID
@@ -65,11 +63,7 @@ public class ItemController {
     // Get items by category
     @GetMapping("/category/{name}")
     public ResponseEntity<List<ItemResponseDTO>> getItemsByCategory(@PathVariable String name) {
-        List<Item> items = itemService.getItemsByCategoryName(name);
-        List<ItemResponseDTO> itemDTOs = items.stream()
-                .map(ItemResponseDTO::new)
-                .toList();
-        return ResponseEntity.ok(itemDTOs);
+        return ResponseEntity.ok(itemService.getItemViewsByCategoryName(name));
     }
 
     // Get items cheaper than a given price
@@ -92,14 +86,20 @@ public class ItemController {
         return ResponseEntity.ok(items);
     }
 
-    // Search items by keyword in description
+    // Search items by name, description, category and vendor; typo tolerant, best matches first
 @GetMapping("/search")
-public ResponseEntity<List<ItemResponseDTO>> searchItems(@RequestParam(defaultValue = "") String keyword) {
-    List<ItemResponseDTO> items = itemService.searchItemsByKeyword(keyword)
-            .stream()
-            .map(ItemResponseDTO::new)
-            .toList();
-    return ResponseEntity.ok(items);
+public ResponseEntity<List<ItemResponseDTO>> searchItems(@RequestParam(defaultValue = "") String keyword,
+                                                         @RequestParam(required = false) Boolean available,
+                                                         @RequestParam(required = false) Double minPrice,
+                                                         @RequestParam(required = false) Double maxPrice,
+                                                         @RequestParam(required = false) ItemCategory category,
+                                                         @RequestParam(defaultValue = "50") int limit) {
+    try {
+        CatalogSearchIndex.ItemFilter filter = new CatalogSearchIndex.ItemFilter(available, minPrice, maxPrice, category);
+        return ResponseEntity.ok(itemService.searchItems(keyword, filter, limit));
+    } catch (IllegalArgumentException e) {
+        return ResponseEntity.badRequest().build();
+    }
 }
 
 
@@ -117,6 +117,29 @@ public ResponseEntity<List<ItemResponseDTO>> searchItems(@RequestParam(defaultVa
         return ResponseEntity.ok(item);
     }
 
+    // Rate an item from 1 to 5
+    @PostMapping("/{id}/rating")
+    public ResponseEntity<Void> addRatingToItem(@PathVariable UUID id, @RequestParam int rating) {
+        try {
+            itemService.addRatingToItem(id, rating);
+            return ResponseEntity.ok().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    // Ratings by star value; includes ratings not yet flushed to the item row
+    @GetMapping("/{id}/ratings")
+    public ResponseEntity<RatingHistogramDTO> getItemRatings(@PathVariable UUID id) {
+        try {
+            return ResponseEntity.ok(itemService.getRatingHistogram(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     // Delete an item by ID
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteItem(@PathVariable UUID id) {
@@ -4,8 +4,15 @@ import auca.ac.rw.food.delivery.management.model.Order;
 import auca.ac.rw.food.delivery.management.model.enums.OrderStatus;
 import auca.ac.rw.food.delivery.management.model.enums.PaymentMethod;
 import auca.ac.rw.food.delivery.management.service.OrderService;
+import auca.ac.rw.food.delivery.management.DTO.CursorPageDTO;
 import auca.ac.rw.food.delivery.management.DTO.OrderDTO;
+import auca.ac.rw.food.delivery.management.DTO.OrderStatusBatchDTO;
+import auca.ac.rw.food.delivery.management.DTO.OrderStatusResultDTO;
+import auca.ac.rw.food.delivery.management.DTO.OrderSummaryDTO;
+import auca.ac.rw.food.delivery.management.config.OrderStatusConflictException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -28,6 +35,7 @@ public class OrderController {
     public ResponseEntity<Order> createOrder(
             @PathVariable UUID customerId,
             @PathVariable UUID driverId,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @RequestBody(required = false) OrderDTO orderDTO) {
         try {
             if (orderDTO == null) {
@@ -36,14 +44,18 @@ public class OrderController {
             orderDTO.setCustomerId(customerId);
             orderDTO.setDriverId(driverId);
             
-            Order order = orderService.createOrder(customerId, driverId);
-            
-            // If delivery address is provided, update it
-            if (orderDTO.getDeliveryAddress() != null && !orderDTO.getDeliveryAddress().trim().isEmpty()) {
-                order.setDeliveryAddress(orderDTO.getDeliveryAddress().trim());
-            }
+            // Delivery address is stored with the order insert
+            Order order = orderService.createOrder(customerId, driverId, orderDTO.getDeliveryAddress(), idempotencyKey);
             
             return ResponseEntity.ok(order);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent retry with the same key got there first; answer with its order
+            if (idempotencyKey != null) {
+                return orderService.getOrderByIdempotencyKey(customerId, idempotencyKey)
+                        .map(ResponseEntity::ok)
+                        .orElse(ResponseEntity.badRequest().build());
+            }
+            return ResponseEntity.badRequest().build();
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -57,6 +69,18 @@ public class OrderController {
         try {
             Order order = orderService.updateOrderStatus(orderId, status);
             return ResponseEntity.ok(order);
+        } catch (OrderStatusConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Update the status of many orders in one call; each entry reports whether it was applied
+    @PostMapping("/status:batch")
+    public ResponseEntity<List<OrderStatusResultDTO>> updateOrderStatuses(@RequestBody OrderStatusBatchDTO batch) {
+        try {
+            return ResponseEntity.ok(orderService.updateOrderStatuses(batch.getUpdates()));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -70,6 +94,8 @@ public class OrderController {
         try {
             Order order = orderService.processOrderPayment(orderId, paymentMethod);
             return ResponseEntity.ok(order);
+        } catch (OrderStatusConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -86,6 +112,8 @@ public class OrderController {
             }
             Order order = orderService.updateOrderStatus(orderId, cancellationType);
             return ResponseEntity.ok(order);
+        } catch (OrderStatusConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -99,6 +127,8 @@ public class OrderController {
         try {
             Order order = orderService.assignDriver(orderId, driverId);
             return ResponseEntity.ok(order);
+        } catch (OrderStatusConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -110,6 +140,8 @@ public class OrderController {
         try {
             Order order = orderService.markOrderPickedUp(orderId);
             return ResponseEntity.ok(order);
+        } catch (OrderStatusConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -121,6 +153,8 @@ public class OrderController {
         try {
             Order order = orderService.markOrderOutForDelivery(orderId);
             return ResponseEntity.ok(order);
+        } catch (OrderStatusConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -132,6 +166,8 @@ public class OrderController {
         try {
             Order order = orderService.markOrderDelivered(orderId);
             return ResponseEntity.ok(order);
+        } catch (OrderStatusConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -145,30 +181,55 @@ public class OrderController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
-    // Get all orders
+    // Get all orders (keyset paginated, newest first)
     @GetMapping
-    public List<Order> getAllOrders() {
-        return orderService.getAllOrders();
+    public ResponseEntity<CursorPageDTO<OrderSummaryDTO>> getAllOrders(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(orderService.getOrders(cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     // Get orders by status
     @GetMapping("/status/{status}")
-    public List<Order> getOrdersByStatus(@PathVariable OrderStatus status) {
-        return orderService.getOrdersByStatus(status);
+    public ResponseEntity<CursorPageDTO<OrderSummaryDTO>> getOrdersByStatus(
+            @PathVariable OrderStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(orderService.getOrdersByStatus(status, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     // Get orders in date range
     @GetMapping("/date-range")
-    public List<Order> getOrdersInDateRange(
+    public ResponseEntity<CursorPageDTO<OrderSummaryDTO>> getOrdersInDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
-        return orderService.getOrdersInDateRange(start, end);
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(orderService.getOrdersInDateRange(start, end, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     // Get unassigned orders
     @GetMapping("/unassigned")
-    public List<Order> getUnassignedOrders() {
-        return orderService.getUnassignedOrders();
+    public ResponseEntity<CursorPageDTO<OrderSummaryDTO>> getUnassignedOrders(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(orderService.getUnassignedOrders(cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     // Get order statistics
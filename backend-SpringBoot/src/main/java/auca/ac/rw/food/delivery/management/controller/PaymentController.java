@@ -1,10 +1,16 @@
 package auca.ac.rw.food.delivery.management.controller;
 
+import auca.ac.rw.food.delivery.management.config.OrderStatusConflictException;
+import auca.ac.rw.food.delivery.management.config.PaymentCapacityException;
+import auca.ac.rw.food.delivery.management.DTO.CursorPageDTO;
+import auca.ac.rw.food.delivery.management.DTO.PaymentSummaryDTO;
 import auca.ac.rw.food.delivery.management.model.Payment;
 import auca.ac.rw.food.delivery.management.model.enums.PaymentMethod;
 import auca.ac.rw.food.delivery.management.model.enums.PaymentStatus;
 import auca.ac.rw.food.delivery.management.service.PaymentService;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -36,12 +42,19 @@ public class PaymentController {
         }
     }
 
-    // Process a payment
+    // Process a payment; answers 202 straight away, poll GET /{paymentId} for the outcome
     @PostMapping("/{paymentId}/process")
     public ResponseEntity<Payment> processPayment(@PathVariable UUID paymentId) {
         try {
             Payment payment = paymentService.processPayment(paymentId);
-            return ResponseEntity.ok(payment);
+            return ResponseEntity.accepted().body(payment);
+        } catch (OrderStatusConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (PaymentCapacityException e) {
+            // Nothing was changed; the same request can be sent again after the pause
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .build();
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -55,36 +68,69 @@ public class PaymentController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
-    // Get all payments
+    // Get all payments (keyset paginated, newest first)
     @GetMapping
-    public List<Payment> getAllPayments() {
-        return paymentService.getAllPayments();
+    public ResponseEntity<CursorPageDTO<PaymentSummaryDTO>> getAllPayments(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(paymentService.getPayments(cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     // Get payments by status
     @GetMapping("/status/{status}")
-    public List<Payment> getPaymentsByStatus(@PathVariable PaymentStatus status) {
-        return paymentService.getPaymentsByStatus(status);
+    public ResponseEntity<CursorPageDTO<PaymentSummaryDTO>> getPaymentsByStatus(
+            @PathVariable PaymentStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(paymentService.getPaymentsByStatus(status, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     // Get payments by method
     @GetMapping("/method/{paymentMethod}")
-    public List<Payment> getPaymentsByMethod(@PathVariable PaymentMethod paymentMethod) {
-        return paymentService.getPaymentsByMethod(paymentMethod);
+    public ResponseEntity<CursorPageDTO<PaymentSummaryDTO>> getPaymentsByMethod(
+            @PathVariable PaymentMethod paymentMethod,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(paymentService.getPaymentsByMethod(paymentMethod, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     // Get payments in date range
     @GetMapping("/date-range")
-    public List<Payment> getPaymentsInDateRange(
+    public ResponseEntity<CursorPageDTO<PaymentSummaryDTO>> getPaymentsInDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
-        return paymentService.getPaymentsInDateRange(start, end);
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(paymentService.getPaymentsInDateRange(start, end, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     // Get payments above amount
     @GetMapping("/amount/{amount}")
-    public List<Payment> getPaymentsAboveAmount(@PathVariable double amount) {
-        return paymentService.getPaymentsAboveAmount(amount);
+    public ResponseEntity<CursorPageDTO<PaymentSummaryDTO>> getPaymentsAboveAmount(
+            @PathVariable double amount,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(paymentService.getPaymentsAboveAmount(amount, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     // Refund a payment
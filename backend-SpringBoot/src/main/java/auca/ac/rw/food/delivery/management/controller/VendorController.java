@@ -1,11 +1,16 @@
 package auca.ac.rw.food.delivery.management.controller;
 
 import auca.ac.rw.food.delivery.management.DTO.LoginDTO;
+import auca.ac.rw.food.delivery.management.DTO.NearbyVendorDTO;
+import auca.ac.rw.food.delivery.management.DTO.RatingHistogramDTO;
 import auca.ac.rw.food.delivery.management.DTO.VendorDTO;
 import auca.ac.rw.food.delivery.management.model.Vendor;
+import auca.ac.rw.food.delivery.management.model.enums.ItemCategory;
 import auca.ac.rw.food.delivery.management.model.enums.VendorStatus;
+import auca.ac.rw.food.delivery.management.service.JsonSnapshotStore;
 import auca.ac.rw.food.delivery.management.service.VendorService;
 import auca.ac.rw.food.delivery.management.config.InvalidCredentialsException;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -18,38 +23,65 @@ import java.util.UUID;
 public class VendorController {
 
     private final VendorService vendorService;
+    private final JsonSnapshotStore snapshots;
 
-    public VendorController(VendorService vendorService) {
+    public VendorController(VendorService vendorService, JsonSnapshotStore snapshots) {
         this.vendorService = vendorService;
+        this.snapshots = snapshots;
     }
 
+    // GETs below are served from serialized snapshots, 304 when the client's ETag is current
     @GetMapping
-    public List<Vendor> getAllVendors() {
-        return vendorService.getAllVendors();
+    public ResponseEntity<byte[]> getAllVendors(HttpServletRequest request) {
+        return snapshots.respond(JsonSnapshotStore.VENDORS, request, vendorService::getAllVendors);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Vendor> getVendorById(@PathVariable UUID id) {
-        return vendorService.getVendorById(id)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<byte[]> getVendorById(@PathVariable UUID id, HttpServletRequest request) {
+        return snapshots.respondIfPresent(JsonSnapshotStore.vendorKey(id), request,
+                () -> vendorService.getVendorById(id));
+    }
+
+    // A vendor page in one call: the vendor and its items grouped by category
+    @GetMapping("/{id}/menu")
+    public ResponseEntity<byte[]> getVendorMenu(@PathVariable UUID id, HttpServletRequest request) {
+        return snapshots.respondIfPresent(JsonSnapshotStore.menuKey(id), request,
+                () -> vendorService.getVendorMenu(id));
+    }
+
+    // Nearest vendors within radius km of a point, optionally only open ones or those of a category
+    @GetMapping("/nearby")
+    public ResponseEntity<List<NearbyVendorDTO>> getNearbyVendors(@RequestParam double lat,
+                                                                  @RequestParam double lng,
+                                                                  @RequestParam(defaultValue = "5") double radius,
+                                                                  @RequestParam(required = false) VendorStatus status,
+                                                                  @RequestParam(required = false) ItemCategory category,
+                                                                  @RequestParam(defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(vendorService.findNearbyVendors(lat, lng, radius, status, category, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/search")
-public ResponseEntity<List<Vendor>> searchVendorsByName(@RequestParam(defaultValue = "") String keyword) {
-    List<Vendor> vendors = vendorService.searchVendorsByName(keyword);
-    return ResponseEntity.ok(vendors);
+public ResponseEntity<byte[]> searchVendorsByName(@RequestParam(defaultValue = "") String keyword,
+                                                  HttpServletRequest request) {
+    return snapshots.respond(JsonSnapshotStore.vendorListKey("search", keyword), request,
+            () -> vendorService.searchVendorsByName(keyword));
 }
 
 
     @GetMapping("/status/{status}")
-    public List<Vendor> getVendorsByStatus(@PathVariable VendorStatus status) {
-        return vendorService.getVendorsByStatus(status);
+    public ResponseEntity<byte[]> getVendorsByStatus(@PathVariable VendorStatus status, HttpServletRequest request) {
+        return snapshots.respond(JsonSnapshotStore.vendorListKey("status", status), request,
+                () -> vendorService.getVendorsByStatus(status));
     }
 
     @GetMapping("/location/{location}")
-    public List<Vendor> getVendorsByLocation(@PathVariable String location) {
-        return vendorService.getVendorsByLocation(location);
+    public ResponseEntity<byte[]> getVendorsByLocation(@PathVariable String location, HttpServletRequest request) {
+        return snapshots.respond(JsonSnapshotStore.vendorListKey("location", location), request,
+                () -> vendorService.getVendorsByLocation(location));
     }
 
     @PostMapping
@@ -64,8 +96,24 @@ public ResponseEntity<List<Vendor>> searchVendorsByName(@RequestParam(defaultVal
 
     @PostMapping("/{id}/rating")
     public ResponseEntity<Void> addRatingToVendor(@PathVariable UUID id, @RequestParam int rating) {
-        vendorService.addRatingToVendor(id, rating);
-        return ResponseEntity.ok().build();
+        try {
+            vendorService.addRatingToVendor(id, rating);
+            return ResponseEntity.ok().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    // Ratings by star value; includes ratings not yet flushed to the vendor row
+    @GetMapping("/{id}/ratings")
+    public ResponseEntity<RatingHistogramDTO> getVendorRatings(@PathVariable UUID id) {
+        try {
+            return ResponseEntity.ok(vendorService.getRatingHistogram(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
     }
 
     @DeleteMapping("/{id}")
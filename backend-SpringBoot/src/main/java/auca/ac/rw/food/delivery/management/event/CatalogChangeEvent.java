@@ -0,0 +1,89 @@
+package auca.ac.rw.food.delivery.management.event;
+
+import auca.ac.rw.food.delivery.management.model.enums.ItemCategory;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Raised by item, vendor and category writes so read-side catalog caches can drop exactly what
+ * changed. Listeners run after commit. Item changes name the vendors and categories the items
+ * belonged to before and after the write; a vendor change means the vendor's own details moved,
+ * which shows up in every one of its items; a category change is a category row itself.
+ * Rating flushes raise their own kinds: rated items count as item changes that leave prices
+ * alone, and a vendor's rating shows in vendor views only, never in its items.
+ */
+public class CatalogChangeEvent extends ApplicationEvent {
+
+    private enum Kind { ITEMS, VENDOR, CATEGORY, ITEM_RATINGS, VENDOR_RATINGS }
+
+    private final Kind kind;
+    private final Set<UUID> itemIds;
+    private final Set<UUID> vendorIds;
+    private final Set<ItemCategory> categories;
+
+    private CatalogChangeEvent(Object source, Kind kind, Set<UUID> itemIds, Set<UUID> vendorIds,
+                               Set<ItemCategory> categories) {
+        super(source);
+        this.kind = kind;
+        this.itemIds = itemIds;
+        this.vendorIds = vendorIds;
+        this.categories = categories;
+    }
+
+    public static CatalogChangeEvent items(Object source, Set<UUID> itemIds, Set<UUID> vendorIds,
+                                           Set<ItemCategory> categories) {
+        return new CatalogChangeEvent(source, Kind.ITEMS, Set.copyOf(itemIds), Set.copyOf(vendorIds), Set.copyOf(categories));
+    }
+
+    public static CatalogChangeEvent vendor(Object source, UUID vendorId) {
+        return new CatalogChangeEvent(source, Kind.VENDOR, Set.of(), Set.of(vendorId), Set.of());
+    }
+
+    public static CatalogChangeEvent itemRatings(Object source, Set<UUID> itemIds, Set<UUID> vendorIds,
+                                                 Set<ItemCategory> categories) {
+        return new CatalogChangeEvent(source, Kind.ITEM_RATINGS, Set.copyOf(itemIds), Set.copyOf(vendorIds), Set.copyOf(categories));
+    }
+
+    public static CatalogChangeEvent vendorRatings(Object source, Set<UUID> vendorIds) {
+        return new CatalogChangeEvent(source, Kind.VENDOR_RATINGS, Set.of(), Set.copyOf(vendorIds), Set.of());
+    }
+
+    public static CatalogChangeEvent category(Object source, ItemCategory category) {
+        return new CatalogChangeEvent(source, Kind.CATEGORY, Set.of(), Set.of(),
+                category != null ? Set.of(category) : Set.of());
+    }
+
+    public Set<UUID> getItemIds() {
+        return itemIds;
+    }
+
+    public Set<UUID> getVendorIds() {
+        return vendorIds;
+    }
+
+    public Set<ItemCategory> getCategories() {
+        return categories;
+    }
+
+    public boolean isItemChange() {
+        return kind == Kind.ITEMS || kind == Kind.ITEM_RATINGS;
+    }
+
+    public boolean isVendorDetailsChanged() {
+        return kind == Kind.VENDOR;
+    }
+
+    public boolean isCategoryDetailsChanged() {
+        return kind == Kind.CATEGORY;
+    }
+
+    public boolean isVendorRatingChange() {
+        return kind == Kind.VENDOR_RATINGS;
+    }
+
+    public boolean isRatingChange() {
+        return kind == Kind.ITEM_RATINGS || kind == Kind.VENDOR_RATINGS;
+    }
+}
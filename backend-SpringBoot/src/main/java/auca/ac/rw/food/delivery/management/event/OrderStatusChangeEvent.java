@@ -4,16 +4,29 @@ import auca.ac.rw.food.delivery.management.model.Order;
 import auca.ac.rw.food.delivery.management.model.enums.OrderStatus;
 import org.springframework.context.ApplicationEvent;
 
+// Published from the order event outbox once the change has committed; may be delivered more than once
 public class OrderStatusChangeEvent extends ApplicationEvent {
+    // Outbox row id; the same change always carries the same id, so listeners can skip repeats
+    private final Long eventId;
     private final Order order;
     private final OrderStatus oldStatus;
     private final OrderStatus newStatus;
+    // Some publishers only announce a transition without persisting it on the order,
+    // so remember whether the order actually carried the new status when this was raised
+    private final boolean statusApplied;
 
-    public OrderStatusChangeEvent(Object source, Order order, OrderStatus oldStatus, OrderStatus newStatus) {
+    public OrderStatusChangeEvent(Object source, Long eventId, Order order,
+                                  OrderStatus oldStatus, OrderStatus newStatus, boolean statusApplied) {
         super(source);
+        this.eventId = eventId;
         this.order = order;
         this.oldStatus = oldStatus;
         this.newStatus = newStatus;
+        this.statusApplied = statusApplied;
+    }
+
+    public Long getEventId() {
+        return eventId;
     }
 
     public Order getOrder() {
@@ -27,4 +40,8 @@ public class OrderStatusChangeEvent extends ApplicationEvent {
     public OrderStatus getNewStatus() {
         return newStatus;
     }
-} 
\ No newline at end of file
+
+    public boolean isStatusApplied() {
+        return statusApplied;
+    }
+} 
@@ -3,6 +3,7 @@ package auca.ac.rw.food.delivery.management.model;
 import jakarta.persistence.*;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -10,6 +11,7 @@ import java.util.UUID;
 
 
 @Entity
+@Table(indexes = @Index(name = "idx_cart_last_active_at", columnList = "last_active_at"))
 public class Cart {
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
@@ -27,6 +29,10 @@ public class Cart {
     @JsonIgnore
     private Order order;
 
+    // Set when the cart engine writes the cart; the abandoned-cart sweeper goes by it
+    @Column(name = "last_active_at", nullable = false, columnDefinition = "timestamp default current_timestamp")
+    private LocalDateTime lastActiveAt = LocalDateTime.now();
+
     public Cart() {}
 
     public Cart(Customer customer) {
@@ -38,9 +44,11 @@ public class Cart {
     public UUID getId() { return id; }
     public Customer getCustomer() { return customer; }
     public List<CartItem> getCartItems() { return cartItems; }
+    public LocalDateTime getLastActiveAt() { return lastActiveAt; }
 
     public void setCustomer(Customer customer) { this.customer = customer; }
     public void setCartItems(List<CartItem> cartItems) { this.cartItems = cartItems; }
+    public void setLastActiveAt(LocalDateTime lastActiveAt) { this.lastActiveAt = lastActiveAt; }
 
     @PreRemove
     private void preRemove() {
@@ -6,6 +6,10 @@ import java.util.UUID;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 @Entity
+@Table(uniqueConstraints = {
+        // One line per item and cart; the cart flush upserts against it
+        @UniqueConstraint(name = "uk_cart_item_cart_item", columnNames = {"cart_id", "item_id"})
+})
 public class CartItem {
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
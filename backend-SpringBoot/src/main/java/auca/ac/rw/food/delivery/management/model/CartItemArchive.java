@@ -0,0 +1,47 @@
+package auca.ac.rw.food.delivery.management.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Line of an abandoned cart, moved here by the sweeper; plain ids only, nothing joins back to live rows
+@Entity
+@Table(name = "cart_item_archive", indexes = {
+        @Index(name = "idx_cart_item_archive_archived_at", columnList = "archived_at")
+})
+public class CartItemArchive {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "cart_id", nullable = false)
+    private UUID cartId;
+
+    @Column(name = "customer_id")
+    private UUID customerId;
+
+    @Column(name = "item_id")
+    private UUID itemId;
+
+    private int quantity;
+
+    @Column(name = "total_price")
+    private double totalPrice;
+
+    @Column(name = "last_active_at")
+    private LocalDateTime lastActiveAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    public CartItemArchive() {}
+
+    public Long getId() { return id; }
+    public UUID getCartId() { return cartId; }
+    public UUID getCustomerId() { return customerId; }
+    public UUID getItemId() { return itemId; }
+    public int getQuantity() { return quantity; }
+    public double getTotalPrice() { return totalPrice; }
+    public LocalDateTime getLastActiveAt() { return lastActiveAt; }
+    public LocalDateTime getArchivedAt() { return archivedAt; }
+}
@@ -0,0 +1,65 @@
+package auca.ac.rw.food.delivery.management.model;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+// Stored response of a request sent with an Idempotency-Key, replayed when the same request is retried
+@Entity
+@Table(name = "idempotency_record", indexes = {
+        @Index(name = "idx_idempotency_expires_at", columnList = "expires_at")
+})
+public class IdempotencyRecord implements Persistable<String> {
+    // Method, path and client key together, so one key cannot replay a different endpoint's response
+    @Id
+    @Column(name = "request_key", length = 500)
+    private String requestKey;
+
+    private int status;
+
+    private String contentType;
+
+    @Column(columnDefinition = "TEXT")
+    private String body;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    // Records are only ever inserted, so save() persists without the SELECT a merge would need and a
+    // key another instance already stored fails on the primary key instead of being overwritten
+    @Transient
+    private boolean isNew = true;
+
+    public IdempotencyRecord() {}
+
+    public IdempotencyRecord(String requestKey, int status, String contentType, String body,
+                             LocalDateTime createdAt, LocalDateTime expiresAt) {
+        this.requestKey = requestKey;
+        this.status = status;
+        this.contentType = contentType;
+        this.body = body;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getRequestKey() { return requestKey; }
+    public int getStatus() { return status; }
+    public String getContentType() { return contentType; }
+    public String getBody() { return body; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+
+    @Override
+    public String getId() { return requestKey; }
+
+    @Override
+    public boolean isNew() { return isNew; }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() { this.isNew = false; }
+}
@@ -1,6 +1,7 @@
 package auca.ac.rw.food.delivery.management.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 
 import java.util.List;
 import java.util.UUID;
@@ -32,8 +33,11 @@ public class Item {
 
     private String imageUrl;
 
+    // Written only by the rating flush, which adds to them in SQL; an item save must not put back values it read earlier
+    @Column(updatable = false)
     private double averageRating = 0.0;
 
+    @Column(updatable = false)
     private int totalRatings = 0;
 
     private int reviewCount = 0;
@@ -51,6 +55,7 @@ public class Item {
     private Vendor vendor;
     
     @ManyToMany(fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
     @JoinTable(
         name = "item_category",
         joinColumns = @JoinColumn(name = "item_id"),
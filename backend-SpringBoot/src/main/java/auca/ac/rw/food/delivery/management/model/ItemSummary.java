@@ -34,4 +34,6 @@ public class ItemSummary {
     public int getQuantity() { return quantity; }
     public UUID getVendorId() { return vendorId; }
     public String getVendorName() { return vendorName; }
+
+    public double getLineTotal() { return price * quantity; }
 }
@@ -4,6 +4,7 @@ import auca.ac.rw.food.delivery.management.model.enums.OrderStatus;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -11,23 +12,40 @@ import java.util.ArrayList;
 import java.util.UUID;
 
 @Entity
-@Table(name = "orders")
+@Table(
+    name = "orders",
+    indexes = {
+        // status + date lead for the dashboard range scans; total is carried so the scan stays index-only
+        @Index(name = "idx_orders_status_order_date", columnList = "status, order_date, total"),
+        // keyset pagination walks (order_date, id) newest first
+        @Index(name = "idx_orders_order_date_id", columnList = "order_date, id")
+    },
+    uniqueConstraints = {
+        // A retried checkout carrying the same key cannot create a second order
+        @UniqueConstraint(name = "uk_orders_customer_idempotency_key", columnNames = {"customer_id", "idempotency_key"})
+    }
+)
 public class Order {
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
     private UUID id;
 
-    @ManyToOne
+    // Bumped by every write, including the compare-and-set status updates in OrderRepository
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "customer_id", referencedColumnName = "id")
     @JsonIgnore // To avoid circular reference when serializing Customer -> Orders -> Customer...
     private Customer customer;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "cart_id")
     @JsonIgnore // Cart may reference Order or Customer again
     private Cart cart;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "driver_id")
     @JsonIgnore // ✅ DeliveryDriver might have a list of Orders
     private DeliveryDriver deliveryDriver;
@@ -39,6 +57,10 @@ public class Order {
     @Column(columnDefinition = "TEXT")
     private String deliveryAddress;
 
+    @Column(name = "idempotency_key", length = 100)
+    @JsonIgnore
+    private String idempotencyKey;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private OrderStatus status;
@@ -47,11 +69,13 @@ public class Order {
     @JsonIgnore
     private Payment payment;
 
-    @ElementCollection(fetch = FetchType.EAGER)           // snapshot list
+    @ElementCollection                                     // snapshot list, loaded on demand
     @CollectionTable(name = "order_vendor_summaries", joinColumns = @JoinColumn(name = "order_id"))
+    @BatchSize(size = 50)
     private List<VendorSummary> vendors = new ArrayList<>();
 
-    @ElementCollection(fetch = FetchType.EAGER)
+    @ElementCollection
+    @BatchSize(size = 50)
     @CollectionTable(name = "order_item_summaries", joinColumns = @JoinColumn(name = "order_id"))
     private List<ItemSummary> items = new ArrayList<>();
 
@@ -73,6 +97,7 @@ public class Order {
 
     // Getters and Setters
     public UUID getId() { return id; }
+    public long getVersion() { return version; }
     public Customer getCustomer() { return customer; }
     public Cart getCart() { return cart; }
     public OrderStatus getStatus() { return status; }
@@ -81,7 +106,10 @@ public class Order {
     public LocalDateTime getReceivedDate() { return receivedDate; }
     public DeliveryDriver getDeliveryDriver() { return deliveryDriver; }
     public String getDeliveryAddress() { return deliveryAddress; }
+    public String getIdempotencyKey() { return idempotencyKey; }
     public Payment getPayment() { return payment; }
+    public List<VendorSummary> getVendors() { return vendors; }
+    public List<ItemSummary> getItems() { return items; }
 
     public void setCustomer(Customer customer) { this.customer = customer; }
     public void setCart(Cart cart) { this.cart = cart; }
@@ -91,7 +119,10 @@ public class Order {
     public void setReceivedDate(LocalDateTime receivedDate) { this.receivedDate = receivedDate; }
     public void setDeliveryDriver(DeliveryDriver deliveryDriver) { this.deliveryDriver = deliveryDriver; }
     public void setDeliveryAddress(String deliveryAddress) { this.deliveryAddress = deliveryAddress; }
+    public void setIdempotencyKey(String idempotencyKey) { this.idempotencyKey = idempotencyKey; }
     public void setPayment(Payment payment) { this.payment = payment; }
+    public void setVendors(List<VendorSummary> vendors) { this.vendors = vendors; }
+    public void setItems(List<ItemSummary> items) { this.items = items; }
 
     @Override
     public String toString() {
@@ -0,0 +1,70 @@
+package auca.ac.rw.food.delivery.management.model;
+
+import auca.ac.rw.food.delivery.management.model.enums.OrderStatus;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// One pending order status change, written in the same transaction as the change itself
+@Entity
+@Table(name = "order_event_outbox", indexes = {
+        @Index(name = "idx_outbox_pending", columnList = "dispatched_at, id"),
+        @Index(name = "idx_outbox_order_id", columnList = "order_id, id")
+})
+public class OrderEventOutbox {
+    // Sequential id doubles as the publish order and as the idempotency key handed to listeners
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private UUID orderId;
+
+    @Enumerated(EnumType.STRING)
+    private OrderStatus oldStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderStatus newStatus;
+
+    private boolean statusApplied;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime leaseUntil;
+
+    @Column(name = "dispatched_at")
+    private LocalDateTime dispatchedAt;
+
+    private int attempts;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    public OrderEventOutbox() {
+    }
+
+    public OrderEventOutbox(UUID orderId, OrderStatus oldStatus, OrderStatus newStatus, boolean statusApplied) {
+        this.orderId = orderId;
+        this.oldStatus = oldStatus;
+        this.newStatus = newStatus;
+        this.statusApplied = statusApplied;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters
+    public Long getId() { return id; }
+    public UUID getOrderId() { return orderId; }
+    public OrderStatus getOldStatus() { return oldStatus; }
+    public OrderStatus getNewStatus() { return newStatus; }
+    public boolean isStatusApplied() { return statusApplied; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getLeaseUntil() { return leaseUntil; }
+    public LocalDateTime getDispatchedAt() { return dispatchedAt; }
+    public int getAttempts() { return attempts; }
+    public String getLastError() { return lastError; }
+
+    // Setters
+    public void setLeaseUntil(LocalDateTime leaseUntil) { this.leaseUntil = leaseUntil; }
+}
@@ -7,11 +7,19 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_payment_payment_date_id", columnList = "payment_date, id"),
+        @Index(name = "idx_payment_status_payment_date", columnList = "status, payment_date, id")
+})
 public class Payment {
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
     private UUID id;
 
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
     private double amount;
 
     @Enumerated(EnumType.STRING)
@@ -44,6 +52,7 @@ public class Payment {
 
     // Getters and Setters
     public UUID getId() { return id; }
+    public long getVersion() { return version; }
     public double getAmount() { return amount; }
     public PaymentMethod getPaymentMethod() { return paymentMethod; }
     public Order getOrder() { return order; }
@@ -0,0 +1,37 @@
+package auca.ac.rw.food.delivery.management.model;
+
+import auca.ac.rw.food.delivery.management.model.enums.RatingSubject;
+import jakarta.persistence.*;
+import java.util.UUID;
+
+// How many ratings of one star value a vendor or item has received; written only by the rating flush
+@Entity
+@Table(name = "rating_bucket", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_rating_bucket_subject_stars", columnNames = {"subject_type", "subject_id", "stars"})
+})
+public class RatingBucket {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "subject_type", nullable = false)
+    private RatingSubject subjectType;
+
+    @Column(name = "subject_id", nullable = false)
+    private UUID subjectId;
+
+    @Column(nullable = false)
+    private int stars;
+
+    @Column(name = "rating_count", nullable = false)
+    private long ratingCount;
+
+    public RatingBucket() {}
+
+    public Long getId() { return id; }
+    public RatingSubject getSubjectType() { return subjectType; }
+    public UUID getSubjectId() { return subjectId; }
+    public int getStars() { return stars; }
+    public long getRatingCount() { return ratingCount; }
+}
@@ -2,6 +2,7 @@ package auca.ac.rw.food.delivery.management.model;
 
 import auca.ac.rw.food.delivery.management.model.enums.*;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -12,9 +13,11 @@ import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 @Entity
+@BatchSize(size = 50)                                     // lazy vendor proxies of many items load together
 @Table(
     name = "vendor",
-    uniqueConstraints = @UniqueConstraint(columnNames = {"name", "location"})
+    uniqueConstraints = @UniqueConstraint(columnNames = {"name", "location"}),
+    indexes = @Index(name = "idx_vendor_lat_lng", columnList = "latitude, longitude")
 )
 
 public class Vendor {
@@ -40,9 +43,16 @@ public class Vendor {
 
     private String description; 
     private String imageUrl;
+    // Written only by the rating flush, which adds to them in SQL; a vendor save must not put back values it read earlier
+    @Column(updatable = false)
     private double averageRating = 0.0;
+    @Column(updatable = false)
     private int totalRatings = 0;
 
+    // Position in degrees (WGS84); vendors without one are left out of nearby searches
+    private Double latitude;
+    private Double longitude;
+
     @Enumerated(EnumType.STRING) 
     private VendorType vendorType;
 
@@ -59,6 +69,7 @@ public class Vendor {
     private VendorStatus status = VendorStatus.OPEN; // or ACTIVE, whatever fits your logic
 
     @OneToMany(mappedBy = "vendor", cascade = CascadeType.ALL)
+    @BatchSize(size = 50)
     private List<Item> items = new ArrayList<>();
 
     // Constructors
@@ -108,6 +119,10 @@ public class Vendor {
     public void setVendorId(String vendorId) { this.vendorId = vendorId; }
     public void setPassword(String password) { this.password = password; }
     public void setCategories(Set<Category> categories) { this.categories = categories; }
+    public Double getLatitude() { return latitude; }
+    public Double getLongitude() { return longitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
 
     // Helper method to link menu items
     
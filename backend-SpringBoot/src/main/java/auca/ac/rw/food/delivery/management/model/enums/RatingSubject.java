@@ -0,0 +1,5 @@
+package auca.ac.rw.food.delivery.management.model.enums;
+
+public enum RatingSubject {
+    VENDOR, ITEM
+}
@@ -0,0 +1,79 @@
+package auca.ac.rw.food.delivery.management.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Writes cart lines flushed from the in-memory cart engine. A flush covers many carts at once,
+ * so each kind of change goes out as one JDBC batch instead of an entity load and save per line.
+ * Checkout writes its cart's lines inside the order transaction, so they and the order commit
+ * or roll back together.
+ */
+@Repository
+public class CartBatchWriter {
+
+    private static final String DELETE_SQL =
+            "DELETE FROM cart_item WHERE cart_id = ? AND item_id = ?";
+
+    // Relies on the (cart_id, item_id) unique constraint on cart_item
+    private static final String UPSERT_SQL =
+            "INSERT INTO cart_item (id, cart_id, item_id, quantity, total_price) VALUES (?, ?, ?, ?, ?) " +
+            "ON CONFLICT (cart_id, item_id) DO UPDATE SET quantity = EXCLUDED.quantity, total_price = EXCLUDED.total_price";
+
+    private static final String TOUCH_SQL =
+            "UPDATE cart SET last_active_at = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CartBatchWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public record LineKey(UUID cartId, UUID itemId) {
+    }
+
+    public record LineRow(UUID cartId, UUID itemId, int quantity, double totalPrice) {
+    }
+
+    // ✅ Removed lines, one batched round trip
+    public void deleteLines(List<LineKey> lines) {
+        if (lines.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(DELETE_SQL, lines, lines.size(), (ps, line) -> {
+            ps.setObject(1, line.cartId());
+            ps.setObject(2, line.itemId());
+        });
+    }
+
+    // ✅ One upsert per line, all in one batched round trip, whether or not the line has a row yet
+    public void writeLines(List<LineRow> lines) {
+        if (lines.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, lines, lines.size(), (ps, line) -> {
+            ps.setObject(1, UUID.randomUUID());
+            ps.setObject(2, line.cartId());
+            ps.setObject(3, line.itemId());
+            ps.setInt(4, line.quantity());
+            ps.setDouble(5, line.totalPrice());
+        });
+    }
+
+    // ✅ Mark flushed carts as active, one batched round trip; keeps them away from the abandoned-cart sweeper
+    public void touchCarts(List<UUID> cartIds, LocalDateTime at) {
+        if (cartIds.isEmpty()) {
+            return;
+        }
+        Timestamp timestamp = Timestamp.valueOf(at);
+        jdbcTemplate.batchUpdate(TOUCH_SQL, cartIds, cartIds.size(), (ps, cartId) -> {
+            ps.setTimestamp(1, timestamp);
+            ps.setObject(2, cartId);
+        });
+    }
+}
@@ -2,12 +2,23 @@ package auca.ac.rw.food.delivery.management.repository;
 
 import auca.ac.rw.food.delivery.management.model.CartItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface CartItemRepository extends JpaRepository<CartItem, UUID> {
-    // You can add custom query methods here if needed, e.g.,
-    // List<CartItem> findByCartId(UUID cartId);
+
+    // Lines and their items in one query, for loading a cart into the cart engine
+    @Query("SELECT ci FROM CartItem ci JOIN FETCH ci.item WHERE ci.cart.id = :cartId")
+    List<CartItem> findWithItemByCartId(@Param("cartId") UUID cartId);
+
+    // All lines of a cart in one statement; pending inserts (e.g. the order at checkout) are flushed first
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM CartItem ci WHERE ci.cart.id = :cartId")
+    int deleteByCartId(@Param("cartId") UUID cartId);
 }
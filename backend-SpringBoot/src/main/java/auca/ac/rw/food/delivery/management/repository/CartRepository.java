@@ -3,6 +3,8 @@ package auca.ac.rw.food.delivery.management.repository;
 import auca.ac.rw.food.delivery.management.model.Cart;
 import auca.ac.rw.food.delivery.management.model.Customer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -16,5 +18,13 @@ public interface CartRepository extends JpaRepository<Cart, UUID> {
 
     // Optionally, if you ever need to check if a customer has an active cart
     boolean existsByCustomer(Customer customer);
+
+    // Checkout reads the cart, its customer, lines, items and their vendors in one statement
+    @Query("SELECT c FROM Cart c JOIN FETCH c.customer LEFT JOIN FETCH c.cartItems ci " +
+           "LEFT JOIN FETCH ci.item i LEFT JOIN FETCH i.vendor WHERE c.customer.id = :customerId")
+    Optional<Cart> findForCheckoutByCustomerId(@Param("customerId") UUID customerId);
+
+    // Cart engine loads by id so a cache miss does not need the Customer entity first
+    Optional<Cart> findByCustomerId(UUID customerId);
     
 }
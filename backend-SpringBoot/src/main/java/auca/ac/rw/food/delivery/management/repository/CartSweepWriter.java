@@ -0,0 +1,83 @@
+package auca.ac.rw.food.delivery.management.repository;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Statements of the abandoned-cart sweeper. Each chunk of carts is archived, emptied and
+ * detached from its orders with one set-based statement apiece, so a chunk costs four round
+ * trips whatever its size. The sweeper issues all four in one transaction per chunk, which
+ * keeps the rows locked by findIdle until the chunk is gone.
+ */
+@Repository
+public class CartSweepWriter {
+
+    // Keyset over (last_active_at, id) so carts the sweeper skips are not read again on the next chunk.
+    // SKIP LOCKED leaves carts being flushed right now to a later run instead of waiting on them.
+    private static final String IDLE_SQL =
+            "SELECT c.id, c.customer_id, c.last_active_at FROM cart c " +
+            "WHERE c.last_active_at < :cutoff " +
+            "AND EXISTS (SELECT 1 FROM cart_item ci WHERE ci.cart_id = c.id) ";
+    private static final String IDLE_AFTER_SQL =
+            "AND (c.last_active_at > :afterAt OR (c.last_active_at = :afterAt AND c.id > :afterId)) ";
+    private static final String IDLE_PAGE_SQL =
+            "ORDER BY c.last_active_at, c.id LIMIT :limit FOR UPDATE SKIP LOCKED";
+
+    private static final String ARCHIVE_SQL =
+            "INSERT INTO cart_item_archive (cart_id, customer_id, item_id, quantity, total_price, last_active_at, archived_at) " +
+            "SELECT ci.cart_id, c.customer_id, ci.item_id, ci.quantity, ci.total_price, c.last_active_at, :archivedAt " +
+            "FROM cart_item ci JOIN cart c ON c.id = ci.cart_id WHERE ci.cart_id IN (:cartIds)";
+
+    private static final String DELETE_SQL =
+            "DELETE FROM cart_item WHERE cart_id IN (:cartIds)";
+
+    private static final String DETACH_ORDERS_SQL =
+            "UPDATE orders SET cart_id = NULL WHERE cart_id IN (:cartIds)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public CartSweepWriter(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public record IdleCart(UUID cartId, UUID customerId, LocalDateTime lastActiveAt) {
+    }
+
+    // ✅ Next chunk of carts with lines and no activity since the cutoff, oldest first, locked until commit
+    public List<IdleCart> findIdle(LocalDateTime cutoff, IdleCart after, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("cutoff", Timestamp.valueOf(cutoff))
+                .addValue("limit", limit);
+        String sql = IDLE_SQL;
+        if (after != null) {
+            sql += IDLE_AFTER_SQL;
+            params.addValue("afterAt", Timestamp.valueOf(after.lastActiveAt()))
+                    .addValue("afterId", after.cartId());
+        }
+        return jdbcTemplate.query(sql + IDLE_PAGE_SQL, params, (rs, rowNum) -> new IdleCart(
+                rs.getObject("id", UUID.class),
+                rs.getObject("customer_id", UUID.class),
+                rs.getTimestamp("last_active_at").toLocalDateTime()));
+    }
+
+    public int archiveLines(List<UUID> cartIds, LocalDateTime archivedAt) {
+        return jdbcTemplate.update(ARCHIVE_SQL, new MapSqlParameterSource()
+                .addValue("cartIds", cartIds)
+                .addValue("archivedAt", Timestamp.valueOf(archivedAt)));
+    }
+
+    public int deleteLines(List<UUID> cartIds) {
+        return jdbcTemplate.update(DELETE_SQL, new MapSqlParameterSource("cartIds", cartIds));
+    }
+
+    // Orders keep their own item and vendor summaries; the cart link is only stale state
+    public int detachOrders(List<UUID> cartIds) {
+        return jdbcTemplate.update(DETACH_ORDERS_SQL, new MapSqlParameterSource("cartIds", cartIds));
+    }
+}
@@ -0,0 +1,32 @@
+package auca.ac.rw.food.delivery.management.repository;
+
+import auca.ac.rw.food.delivery.management.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // ✅ A stored response that is still within its replay window
+    @Query("SELECT r FROM IdempotencyRecord r WHERE r.requestKey = :requestKey AND r.expiresAt > :now")
+    Optional<IdempotencyRecord> findLive(@Param("requestKey") String requestKey, @Param("now") LocalDateTime now);
+
+    // ✅ Takes over a key whose row has expired but not been purged yet; a live row is left alone
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = :status, r.contentType = :contentType, r.body = :body, " +
+            "r.createdAt = :now, r.expiresAt = :expiresAt WHERE r.requestKey = :requestKey AND r.expiresAt < :now")
+    int replaceExpired(@Param("requestKey") String requestKey, @Param("status") int status,
+                       @Param("contentType") String contentType, @Param("body") String body,
+                       @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+
+    // ✅ Housekeeping for expired keys
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :before")
+    int deleteExpiredBefore(@Param("before") LocalDateTime before);
+}
@@ -3,11 +3,14 @@ package auca.ac.rw.food.delivery.management.repository;
 import auca.ac.rw.food.delivery.management.model.Category;
 import auca.ac.rw.food.delivery.management.model.Item;
 import auca.ac.rw.food.delivery.management.model.Vendor;
+import auca.ac.rw.food.delivery.management.model.enums.ItemCategory;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -29,6 +32,42 @@ public interface ItemRepository extends JpaRepository<Item, UUID> {
     @Query("SELECT i FROM Item i WHERE i.vendor.id = :vendorId")
     List<Item> findByVendorId(@Param("vendorId") UUID vendorId);
 
+    // ✅ Items with vendor and categories in one query, for the search index
+    @Query("SELECT DISTINCT i FROM Item i LEFT JOIN FETCH i.vendor LEFT JOIN FETCH i.categories")
+    List<Item> findAllWithVendorAndCategories();
+
+    @Query("SELECT DISTINCT i FROM Item i LEFT JOIN FETCH i.vendor LEFT JOIN FETCH i.categories WHERE i.id IN :ids")
+    List<Item> findWithVendorAndCategoriesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT DISTINCT i FROM Item i JOIN FETCH i.vendor v LEFT JOIN FETCH i.categories WHERE v.id IN :vendorIds")
+    List<Item> findWithVendorAndCategoriesByVendorIdIn(@Param("vendorIds") Collection<UUID> vendorIds);
+
+    // ✅ Same lookups as below with vendor and categories fetched in the one select, for ItemResponseDTO
+    @EntityGraph(attributePaths = {"vendor", "categories"})
+    Optional<Item> findWithVendorAndCategoriesById(UUID id);
+
+    @EntityGraph(attributePaths = {"vendor", "categories"})
+    Optional<Item> findWithVendorAndCategoriesByName(String name);
+
+    // Matched through a subquery so the fetched categories are all of the item's, not just the matching one
+    @EntityGraph(attributePaths = {"vendor", "categories"})
+    @Query("SELECT i FROM Item i WHERE i.id IN " +
+           "(SELECT ci.id FROM Item ci JOIN ci.categories c WHERE c.name = :categoryName)")
+    List<Item> findWithVendorAndCategoriesByCategoryName(@Param("categoryName") ItemCategory categoryName);
+
+    @EntityGraph(attributePaths = {"vendor", "categories"})
+    List<Item> findWithVendorAndCategoriesByPriceLessThan(double price);
+
+    @EntityGraph(attributePaths = {"vendor", "categories"})
+    List<Item> findWithVendorAndCategoriesByPriceGreaterThan(double price);
+
+    @EntityGraph(attributePaths = {"vendor", "categories"})
+    List<Item> findWithVendorAndCategoriesByDescriptionContainingIgnoreCase(String keyword);
+
+    // ✅ Distinct categories a vendor's items are listed under
+    @Query("SELECT DISTINCT c.name FROM Item i JOIN i.categories c WHERE i.vendor.id = :vendorId")
+    List<ItemCategory> findCategoryNamesByVendorId(@Param("vendorId") UUID vendorId);
+
     // ✅ Find items cheaper than a certain price
     List<Item> findByPriceLessThan(double price);
 
@@ -42,6 +81,19 @@ public interface ItemRepository extends JpaRepository<Item, UUID> {
 
     Optional<Item> findByVendorAndName(Vendor vendor, String name);
 
+    // ✅ Pricing inputs of many items in one query, for the cart price cache
+    @Query("SELECT i.id AS id, i.price AS price, i.discountPercentage AS discountPercentage, " +
+           "v.id AS vendorId, v.location AS zone FROM Item i LEFT JOIN i.vendor v WHERE i.id IN :ids")
+    List<ItemPriceView> findPricesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    interface ItemPriceView {
+        UUID getId();
+        double getPrice();
+        double getDiscountPercentage();
+        UUID getVendorId();
+        String getZone();
+    }
+
     // ✅ Custom delete method by name
     void deleteByName(String name);
 
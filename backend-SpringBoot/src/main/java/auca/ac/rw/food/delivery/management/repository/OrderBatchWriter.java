@@ -0,0 +1,64 @@
+package auca.ac.rw.food.delivery.management.repository;
+
+import auca.ac.rw.food.delivery.management.model.OrderEventOutbox;
+import auca.ac.rw.food.delivery.management.model.enums.OrderStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Multi-row writes that need one JDBC batch and a per-row outcome, which bulk JPQL cannot give:
+ * a JPQL "UPDATE ... WHERE id IN" reports one total, not which orders moved.
+ * Runs on the connection of the surrounding JPA transaction.
+ */
+@Repository
+public class OrderBatchWriter {
+
+    // Same compare-and-set as OrderRepository.transitionStatus*, with the per-status side effects inlined
+    private static final String TRANSITION_SQL =
+            "UPDATE orders SET status = ?, version = version + 1, " +
+            "received_date = CASE WHEN ? THEN ? ELSE received_date END, " +
+            "driver_id = CASE WHEN ? THEN NULL ELSE driver_id END " +
+            "WHERE id = ? AND status = ?";
+
+    private static final String OUTBOX_SQL =
+            "INSERT INTO order_event_outbox (order_id, old_status, new_status, status_applied, created_at, attempts) " +
+            "VALUES (?, ?, ?, ?, ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OrderBatchWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public record Transition(UUID orderId, OrderStatus expected, OrderStatus newStatus) {
+    }
+
+    // ✅ One batched round trip; element i is the row count for transitions.get(i), 0 when the order had moved on
+    public int[] compareAndSetStatuses(List<Transition> transitions) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        return jdbcTemplate.batchUpdate(TRANSITION_SQL, transitions, transitions.size(), (ps, t) -> {
+            ps.setString(1, t.newStatus().name());
+            ps.setBoolean(2, t.newStatus() == OrderStatus.DELIVERED);
+            ps.setTimestamp(3, now);
+            ps.setBoolean(4, t.newStatus().isCancellationState() && t.newStatus() != OrderStatus.REFUNDED);
+            ps.setObject(5, t.orderId());
+            ps.setString(6, t.expected().name());
+        })[0];
+    }
+
+    // ✅ Outbox rows for a whole batch in one round trip (the IDENTITY id keeps Hibernate from batching these)
+    public void insertOutboxEvents(List<OrderEventOutbox> events) {
+        jdbcTemplate.batchUpdate(OUTBOX_SQL, events, events.size(), (ps, e) -> {
+            ps.setObject(1, e.getOrderId());
+            ps.setString(2, e.getOldStatus() != null ? e.getOldStatus().name() : null);
+            ps.setString(3, e.getNewStatus().name());
+            ps.setBoolean(4, e.isStatusApplied());
+            ps.setTimestamp(5, Timestamp.valueOf(e.getCreatedAt()));
+        });
+    }
+}
@@ -0,0 +1,57 @@
+package auca.ac.rw.food.delivery.management.repository;
+
+import auca.ac.rw.food.delivery.management.model.OrderEventOutbox;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OrderEventOutboxRepository extends JpaRepository<OrderEventOutbox, Long> {
+
+    // ✅ Claimable rows, oldest first, skipping rows another dispatcher holds (FOR UPDATE SKIP LOCKED).
+    // A row waits while an earlier live row for the same order is still undelivered, so each order's events stay in order.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OrderEventOutbox e " +
+           "WHERE e.dispatchedAt IS NULL AND e.attempts < :maxAttempts " +
+           "AND (e.leaseUntil IS NULL OR e.leaseUntil < :now) " +
+           "AND NOT EXISTS (SELECT 1 FROM OrderEventOutbox p WHERE p.orderId = e.orderId AND p.id < e.id " +
+           "                AND p.dispatchedAt IS NULL AND p.attempts < :maxAttempts) " +
+           "ORDER BY e.id")
+    List<OrderEventOutbox> findClaimable(@Param("now") LocalDateTime now,
+                                         @Param("maxAttempts") int maxAttempts,
+                                         Pageable limit);
+
+    // ✅ Delivery bookkeeping, one statement each so workers never hold the row locked while listeners run
+    @Modifying
+    @Query("UPDATE OrderEventOutbox e SET e.dispatchedAt = :at, e.leaseUntil = NULL WHERE e.id = :id")
+    int markDispatched(@Param("id") Long id, @Param("at") LocalDateTime at);
+
+    @Modifying
+    @Query("UPDATE OrderEventOutbox e SET e.attempts = e.attempts + 1, e.lastError = :error, " +
+           "e.leaseUntil = :retryAt WHERE e.id = :id")
+    int markFailed(@Param("id") Long id, @Param("error") String error, @Param("retryAt") LocalDateTime retryAt);
+
+    @Modifying
+    @Query("UPDATE OrderEventOutbox e SET e.leaseUntil = NULL WHERE e.id IN :ids")
+    int releaseLease(@Param("ids") List<Long> ids);
+
+    // ✅ Changes already committed but not yet delivered, read alongside a dashboard rebuild
+    @Query("SELECT e.id FROM OrderEventOutbox e WHERE e.dispatchedAt IS NULL")
+    List<Long> findUndispatchedIds();
+
+    // ✅ Housekeeping for delivered rows
+    @Modifying
+    @Query("DELETE FROM OrderEventOutbox e WHERE e.dispatchedAt < :before")
+    int deleteDispatchedBefore(@Param("before") LocalDateTime before);
+}
@@ -1,13 +1,21 @@
 package auca.ac.rw.food.delivery.management.repository;
 
+import auca.ac.rw.food.delivery.management.DTO.OrderSummaryDTO;
 import auca.ac.rw.food.delivery.management.model.Customer;
 import auca.ac.rw.food.delivery.management.model.DeliveryDriver;
 import auca.ac.rw.food.delivery.management.model.Order;
 import auca.ac.rw.food.delivery.management.model.enums.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -15,6 +23,12 @@ import java.util.UUID;
 @Repository
 public interface OrderRepository extends JpaRepository<Order, UUID> {
 
+    String SUMMARY_SELECT = "SELECT new auca.ac.rw.food.delivery.management.DTO.OrderSummaryDTO(" +
+            "o.id, c.id, c.name, d.id, o.total, o.status, o.orderDate, o.deliveryAddress) " +
+            "FROM Order o LEFT JOIN o.customer c LEFT JOIN o.deliveryDriver d ";
+    String AFTER_CURSOR = "(o.orderDate < :cursorDate OR (o.orderDate = :cursorDate AND o.id < :cursorId))";
+    String NEWEST_FIRST = " ORDER BY o.orderDate DESC, o.id DESC";
+
     // ✅ Find orders by status
     List<Order> findByStatus(OrderStatus status);
 
@@ -55,4 +69,139 @@ public interface OrderRepository extends JpaRepository<Order, UUID> {
     void deleteById(UUID id);
 
     List<Order> findTop5ByOrderByOrderDateDesc();
+
+    // ✅ The order a checkout with this key already created, if any
+    Optional<Order> findByCustomerIdAndIdempotencyKey(UUID customerId, String idempotencyKey);
+
+    // ✅ Current status only, without loading the order
+    @Query("SELECT o.status FROM Order o WHERE o.id = :id")
+    Optional<OrderStatus> findStatusById(@Param("id") UUID id);
+
+    // ✅ Current status of many orders in one query
+    @Query("SELECT o.id AS id, o.status AS status FROM Order o WHERE o.id IN :ids")
+    List<OrderStatusView> findStatusesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    interface OrderStatusView {
+        UUID getId();
+        OrderStatus getStatus();
+    }
+
+    // ✅ Compare-and-set transitions: one UPDATE each, applied only if the order is still in the expected status.
+    // They return the number of rows changed, so 0 means another writer got there first.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :newStatus, o.version = o.version + 1 " +
+           "WHERE o.id = :id AND o.status = :expected")
+    int transitionStatus(@Param("id") UUID id,
+                         @Param("expected") OrderStatus expected,
+                         @Param("newStatus") OrderStatus newStatus);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :newStatus, o.receivedDate = :receivedDate, o.version = o.version + 1 " +
+           "WHERE o.id = :id AND o.status = :expected")
+    int transitionStatusReceived(@Param("id") UUID id,
+                                 @Param("expected") OrderStatus expected,
+                                 @Param("newStatus") OrderStatus newStatus,
+                                 @Param("receivedDate") LocalDateTime receivedDate);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :newStatus, o.deliveryDriver = :driver, o.version = o.version + 1 " +
+           "WHERE o.id = :id AND o.status = :expected")
+    int transitionStatusWithDriver(@Param("id") UUID id,
+                                   @Param("expected") OrderStatus expected,
+                                   @Param("newStatus") OrderStatus newStatus,
+                                   @Param("driver") DeliveryDriver driver);
+
+    // ✅ Order detail with its line snapshot in one select; vendors follow in a batched select
+    @EntityGraph(attributePaths = "items")
+    @Query("SELECT o FROM Order o WHERE o.id = :id")
+    Optional<Order> findDetailById(@Param("id") UUID id);
+
+    // ✅ Keyset-paginated summary rows, newest first; the Pageable only carries the row limit
+    @Query(SUMMARY_SELECT + NEWEST_FIRST)
+    List<OrderSummaryDTO> findSummaries(Pageable limit);
+
+    @Query(SUMMARY_SELECT + "WHERE " + AFTER_CURSOR + NEWEST_FIRST)
+    List<OrderSummaryDTO> findSummariesAfter(@Param("cursorDate") LocalDateTime cursorDate,
+                                             @Param("cursorId") UUID cursorId,
+                                             Pageable limit);
+
+    @Query(SUMMARY_SELECT + "WHERE o.status = :status" + NEWEST_FIRST)
+    List<OrderSummaryDTO> findSummariesByStatus(@Param("status") OrderStatus status, Pageable limit);
+
+    @Query(SUMMARY_SELECT + "WHERE o.status = :status AND " + AFTER_CURSOR + NEWEST_FIRST)
+    List<OrderSummaryDTO> findSummariesByStatusAfter(@Param("status") OrderStatus status,
+                                                     @Param("cursorDate") LocalDateTime cursorDate,
+                                                     @Param("cursorId") UUID cursorId,
+                                                     Pageable limit);
+
+    @Query(SUMMARY_SELECT + "WHERE o.orderDate BETWEEN :start AND :end" + NEWEST_FIRST)
+    List<OrderSummaryDTO> findSummariesInRange(@Param("start") LocalDateTime start,
+                                               @Param("end") LocalDateTime end,
+                                               Pageable limit);
+
+    @Query(SUMMARY_SELECT + "WHERE o.orderDate BETWEEN :start AND :end AND " + AFTER_CURSOR + NEWEST_FIRST)
+    List<OrderSummaryDTO> findSummariesInRangeAfter(@Param("start") LocalDateTime start,
+                                                    @Param("end") LocalDateTime end,
+                                                    @Param("cursorDate") LocalDateTime cursorDate,
+                                                    @Param("cursorId") UUID cursorId,
+                                                    Pageable limit);
+
+    @Query(SUMMARY_SELECT + "WHERE d IS NULL" + NEWEST_FIRST)
+    List<OrderSummaryDTO> findUnassignedSummaries(Pageable limit);
+
+    @Query(SUMMARY_SELECT + "WHERE d IS NULL AND " + AFTER_CURSOR + NEWEST_FIRST)
+    List<OrderSummaryDTO> findUnassignedSummariesAfter(@Param("cursorDate") LocalDateTime cursorDate,
+                                                       @Param("cursorId") UUID cursorId,
+                                                       Pageable limit);
+
+    // ✅ Aggregate rows used to (re)build the dashboard revenue store
+    @Query("SELECT o.status AS status, COUNT(o) AS orderCount, COALESCE(SUM(o.total), 0.0) AS revenue " +
+           "FROM Order o GROUP BY o.status")
+    List<StatusTotals> sumTotalsByStatus();
+
+    interface StatusTotals {
+        OrderStatus getStatus();
+        Long getOrderCount();
+        Double getRevenue();
+    }
+
+    // ✅ Revenue and order count per date_trunc bucket, computed in one grouped query
+    @Query(value = "SELECT date_trunc(:unit, o.order_date) AS bucket, COUNT(*) AS orderCount, " +
+                   "COALESCE(SUM(o.total), 0) AS revenue " +
+                   "FROM orders o WHERE o.status = :status AND o.order_date >= :from AND o.order_date < :to " +
+                   "GROUP BY 1 ORDER BY 1",
+           nativeQuery = true)
+    List<RevenueBucket> sumRevenueByBucket(@Param("unit") String unit,
+                                           @Param("status") String status,
+                                           @Param("from") LocalDateTime from,
+                                           @Param("to") LocalDateTime to);
+
+    interface RevenueBucket {
+        LocalDateTime getBucket();
+        Long getOrderCount();
+        Double getRevenue();
+    }
+
+    // ✅ Per-vendor sales from the order line snapshots, one grouped pass, every vendor listed
+    @Query(value = "SELECT v.id AS id, v.name AS name, v.average_rating AS rating, " +
+                   "COALESCE(s.total_sales, 0) AS totalSales, COALESCE(s.total_orders, 0) AS totalOrders, " +
+                   "COALESCE(s.total_sales / NULLIF(s.total_orders, 0), 0) AS averageBasket " +
+                   "FROM vendor v LEFT JOIN (" +
+                   "  SELECT ois.vendor_id AS vendor_id, SUM(ois.price * ois.quantity) AS total_sales, " +
+                   "         COUNT(DISTINCT ois.order_id) AS total_orders " +
+                   "  FROM order_item_summaries ois JOIN orders o ON o.id = ois.order_id " +
+                   "  WHERE o.status = :status GROUP BY ois.vendor_id" +
+                   ") s ON s.vendor_id = v.id",
+           countQuery = "SELECT COUNT(*) FROM vendor",
+           nativeQuery = true)
+    Page<VendorPerformanceRow> findVendorPerformance(@Param("status") String status, Pageable pageable);
+
+    interface VendorPerformanceRow {
+        UUID getId();
+        String getName();
+        Double getRating();
+        Double getTotalSales();
+        Long getTotalOrders();
+        Double getAverageBasket();
+    }
 }
@@ -1,13 +1,19 @@
 package auca.ac.rw.food.delivery.management.repository;
 
+import auca.ac.rw.food.delivery.management.DTO.PaymentSummaryDTO;
 import auca.ac.rw.food.delivery.management.model.Order;
 import auca.ac.rw.food.delivery.management.model.Payment;
+import auca.ac.rw.food.delivery.management.model.enums.OrderStatus;
 import auca.ac.rw.food.delivery.management.model.enums.PaymentMethod;
 import auca.ac.rw.food.delivery.management.model.enums.PaymentStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -15,6 +21,11 @@ import java.util.UUID;
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, UUID> {
 
+    String SUMMARY_SELECT = "SELECT new auca.ac.rw.food.delivery.management.DTO.PaymentSummaryDTO(" +
+            "p.id, p.order.id, p.amount, p.paymentMethod, p.status, p.paymentDate) FROM Payment p ";
+    String AFTER_CURSOR = "(p.paymentDate < :cursorDate OR (p.paymentDate = :cursorDate AND p.id < :cursorId))";
+    String NEWEST_FIRST = " ORDER BY p.paymentDate DESC, p.id DESC";
+
     // ✅ Find a payment by order
     Optional<Payment> findByOrder(Order order);
 
@@ -27,6 +38,11 @@ public interface PaymentRepository extends JpaRepository<Payment, UUID> {
     // ✅ Get payments by status
     List<Payment> findByStatus(PaymentStatus status);
 
+    // ✅ Payments in a status whose order is still in one of the given statuses
+    @Query("SELECT p.id FROM Payment p JOIN p.order o WHERE p.status = :status AND o.status IN :orderStatuses")
+    List<UUID> findIdsByStatusAndOrderStatusIn(@Param("status") PaymentStatus status,
+                                               @Param("orderStatuses") Collection<OrderStatus> orderStatuses);
+
     // ✅ Get payments made between two dates
     List<Payment> findByPaymentDateBetween(LocalDateTime start, LocalDateTime end);
 
@@ -36,6 +52,54 @@ public interface PaymentRepository extends JpaRepository<Payment, UUID> {
     // ✅ Count payments by status
     Long countByStatus(PaymentStatus status);
 
+    // ✅ Keyset-paginated summary rows, newest first; the Pageable only carries the row limit
+    @Query(SUMMARY_SELECT + NEWEST_FIRST)
+    List<PaymentSummaryDTO> findSummaries(Pageable limit);
+
+    @Query(SUMMARY_SELECT + "WHERE " + AFTER_CURSOR + NEWEST_FIRST)
+    List<PaymentSummaryDTO> findSummariesAfter(@Param("cursorDate") LocalDateTime cursorDate,
+                                               @Param("cursorId") UUID cursorId,
+                                               Pageable limit);
+
+    @Query(SUMMARY_SELECT + "WHERE p.status = :status" + NEWEST_FIRST)
+    List<PaymentSummaryDTO> findSummariesByStatus(@Param("status") PaymentStatus status, Pageable limit);
+
+    @Query(SUMMARY_SELECT + "WHERE p.status = :status AND " + AFTER_CURSOR + NEWEST_FIRST)
+    List<PaymentSummaryDTO> findSummariesByStatusAfter(@Param("status") PaymentStatus status,
+                                                       @Param("cursorDate") LocalDateTime cursorDate,
+                                                       @Param("cursorId") UUID cursorId,
+                                                       Pageable limit);
+
+    @Query(SUMMARY_SELECT + "WHERE p.paymentMethod = :method" + NEWEST_FIRST)
+    List<PaymentSummaryDTO> findSummariesByMethod(@Param("method") PaymentMethod method, Pageable limit);
+
+    @Query(SUMMARY_SELECT + "WHERE p.paymentMethod = :method AND " + AFTER_CURSOR + NEWEST_FIRST)
+    List<PaymentSummaryDTO> findSummariesByMethodAfter(@Param("method") PaymentMethod method,
+                                                       @Param("cursorDate") LocalDateTime cursorDate,
+                                                       @Param("cursorId") UUID cursorId,
+                                                       Pageable limit);
+
+    @Query(SUMMARY_SELECT + "WHERE p.paymentDate BETWEEN :start AND :end" + NEWEST_FIRST)
+    List<PaymentSummaryDTO> findSummariesInRange(@Param("start") LocalDateTime start,
+                                                 @Param("end") LocalDateTime end,
+                                                 Pageable limit);
+
+    @Query(SUMMARY_SELECT + "WHERE p.paymentDate BETWEEN :start AND :end AND " + AFTER_CURSOR + NEWEST_FIRST)
+    List<PaymentSummaryDTO> findSummariesInRangeAfter(@Param("start") LocalDateTime start,
+                                                      @Param("end") LocalDateTime end,
+                                                      @Param("cursorDate") LocalDateTime cursorDate,
+                                                      @Param("cursorId") UUID cursorId,
+                                                      Pageable limit);
+
+    @Query(SUMMARY_SELECT + "WHERE p.amount > :amount" + NEWEST_FIRST)
+    List<PaymentSummaryDTO> findSummariesAboveAmount(@Param("amount") double amount, Pageable limit);
+
+    @Query(SUMMARY_SELECT + "WHERE p.amount > :amount AND " + AFTER_CURSOR + NEWEST_FIRST)
+    List<PaymentSummaryDTO> findSummariesAboveAmountAfter(@Param("amount") double amount,
+                                                          @Param("cursorDate") LocalDateTime cursorDate,
+                                                          @Param("cursorId") UUID cursorId,
+                                                          Pageable limit);
+
     void deleteById(UUID id);
 
     Payment save(Payment payment);
@@ -0,0 +1,80 @@
+package auca.ac.rw.food.delivery.management.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Adds rating deltas gathered in memory by the rating aggregator. Every statement adds to what
+ * the row holds rather than writing a value read earlier, so nothing is lost however many
+ * flushes or other writers touch the same vendor or item. Because the deltas are additive, a
+ * flush must apply all of them or none: the aggregator puts back a failed flush's counts and
+ * sends them again.
+ */
+@Repository
+public class RatingBatchWriter {
+
+    // SET expressions all see the row as it was, so the average folds in the new ratings against the old count
+    private static final String VENDOR_SQL =
+            "UPDATE vendor SET average_rating = (average_rating * total_ratings + ?) / (total_ratings + ?), " +
+            "total_ratings = total_ratings + ? WHERE id = ?";
+
+    private static final String ITEM_SQL =
+            "UPDATE item SET average_rating = (average_rating * total_ratings + ?) / (total_ratings + ?), " +
+            "total_ratings = total_ratings + ? WHERE id = ?";
+
+    // Relies on the (subject_type, subject_id, stars) unique constraint on rating_bucket
+    private static final String BUCKET_SQL =
+            "INSERT INTO rating_bucket (subject_type, subject_id, stars, rating_count) VALUES (?, ?, ?, ?) " +
+            "ON CONFLICT (subject_type, subject_id, stars) DO UPDATE SET rating_count = rating_bucket.rating_count + EXCLUDED.rating_count";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RatingBatchWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public record TotalDelta(UUID subjectId, long sum, long count) {
+    }
+
+    public record BucketDelta(String subjectType, UUID subjectId, int stars, long count) {
+    }
+
+    // ✅ One batched round trip; the result holds the rows updated per delta, 0 when the vendor is gone
+    public int[] addToVendors(List<TotalDelta> deltas) {
+        return addTotals(VENDOR_SQL, deltas);
+    }
+
+    public int[] addToItems(List<TotalDelta> deltas) {
+        return addTotals(ITEM_SQL, deltas);
+    }
+
+    // ✅ Per-star counts, created on a subject's first rating of that value
+    public void addToBuckets(List<BucketDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(BUCKET_SQL, deltas, deltas.size(), (ps, delta) -> {
+            ps.setString(1, delta.subjectType());
+            ps.setObject(2, delta.subjectId());
+            ps.setInt(3, delta.stars());
+            ps.setLong(4, delta.count());
+        });
+    }
+
+    private int[] addTotals(String sql, List<TotalDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return new int[0];
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(sql, deltas, deltas.size(), (ps, delta) -> {
+            // Sent as a double so the average is not computed in integer arithmetic
+            ps.setDouble(1, delta.sum());
+            ps.setLong(2, delta.count());
+            ps.setLong(3, delta.count());
+            ps.setObject(4, delta.subjectId());
+        });
+        return counts.length == 0 ? new int[0] : counts[0];
+    }
+}
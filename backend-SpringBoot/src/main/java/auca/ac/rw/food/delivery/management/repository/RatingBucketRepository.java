@@ -0,0 +1,15 @@
+package auca.ac.rw.food.delivery.management.repository;
+
+import auca.ac.rw.food.delivery.management.model.RatingBucket;
+import auca.ac.rw.food.delivery.management.model.enums.RatingSubject;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface RatingBucketRepository extends JpaRepository<RatingBucket, Long> {
+
+    List<RatingBucket> findBySubjectTypeAndSubjectId(RatingSubject subjectType, UUID subjectId);
+}
@@ -1,11 +1,15 @@
 package auca.ac.rw.food.delivery.management.repository;
 
 import auca.ac.rw.food.delivery.management.model.Vendor;
+import auca.ac.rw.food.delivery.management.model.enums.ItemCategory;
 import auca.ac.rw.food.delivery.management.model.enums.VendorStatus;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -18,6 +22,22 @@ public interface VendorRepository extends JpaRepository<Vendor, UUID> {
 
     Optional<Vendor> findById(UUID id);
 
+    // ✅ Vendors with the categories they list themselves under, for the in-memory category index
+    @Query("SELECT DISTINCT v FROM Vendor v LEFT JOIN FETCH v.categories")
+    List<Vendor> findAllWithCategories();
+
+    @Query("SELECT DISTINCT v FROM Vendor v LEFT JOIN FETCH v.categories WHERE v.id IN :ids")
+    List<Vendor> findWithCategoriesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // ✅ Vendors positioned inside a latitude/longitude box, served by idx_vendor_lat_lng
+    @Query("SELECT DISTINCT v FROM Vendor v LEFT JOIN FETCH v.categories " +
+           "WHERE v.latitude BETWEEN :minLat AND :maxLat AND v.longitude BETWEEN :minLng AND :maxLng")
+    List<Vendor> findWithCategoriesInBox(@Param("minLat") double minLat, @Param("maxLat") double maxLat,
+                                         @Param("minLng") double minLng, @Param("maxLng") double maxLng);
+
+    @Query("SELECT v FROM Vendor v JOIN v.categories c WHERE c.name = :category")
+    List<Vendor> findByCategoryName(@Param("category") ItemCategory category);
+
     void deleteById(UUID id);
     // ✅ Get restaurants located in a specific place
     List<Vendor> findByLocation(String location);
@@ -31,6 +51,9 @@ public interface VendorRepository extends JpaRepository<Vendor, UUID> {
     Vendor save(Vendor vendor);
 
     Optional<Vendor> findByNameAndLocation(String name, String location);
+    // ✅ Vendors sharing an exact name (names are only unique per location)
+    List<Vendor> findByName(String name);
+
     // ✅ Custom delete method by name
     void deleteByName(String name);
 
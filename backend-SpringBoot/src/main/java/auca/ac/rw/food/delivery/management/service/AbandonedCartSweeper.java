@@ -0,0 +1,169 @@
+package auca.ac.rw.food.delivery.management.service;
+
+import auca.ac.rw.food.delivery.management.DTO.CartSweepStatsDTO;
+import auca.ac.rw.food.delivery.management.repository.CartSweepWriter;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves the lines of carts nobody has touched for a while into cart_item_archive, so cart_item
+ * only holds carts in use. Carts are taken in chunks, oldest first, one transaction per chunk,
+ * with a pause between chunks so checkouts and flushes are never queued behind a long delete.
+ * Runs on a thread of its own, so a long sweep never holds up the other scheduled jobs.
+ * The cart rows themselves stay: every customer keeps exactly one cart.
+ */
+@Component
+public class AbandonedCartSweeper {
+
+    private final CartSweepWriter sweepWriter;
+    private final CartEngine cartEngine;
+    private final TransactionTemplate transactionTemplate;
+
+    private final long ttlDays;
+    private final int batchSize;
+    private final long pauseMs;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong totalRuns = new AtomicLong();
+    private final AtomicLong totalCartsSwept = new AtomicLong();
+    private final AtomicLong totalLinesDeleted = new AtomicLong();
+    private volatile RunStats lastRun;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cart-sweeper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public AbandonedCartSweeper(CartSweepWriter sweepWriter, CartEngine cartEngine,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${app.cart.sweep.ttl-days:30}") long ttlDays,
+                                @Value("${app.cart.sweep.batch-size:500}") int batchSize,
+                                @Value("${app.cart.sweep.pause-ms:200}") long pauseMs) {
+        this.sweepWriter = sweepWriter;
+        this.cartEngine = cartEngine;
+        this.transactionTemplate = transactionTemplate;
+        this.ttlDays = ttlDays;
+        this.batchSize = batchSize;
+        this.pauseMs = pauseMs;
+    }
+
+    private record RunStats(LocalDateTime startedAt, long durationMs, long scanned, long swept,
+                            long archived, long deleted) {
+    }
+
+    // Counters of the run in progress; only the sweeper thread touches them once the run has started
+    private final class Run {
+        private final LocalDateTime startedAt;
+        private final LocalDateTime cutoff;
+        private final long startNanos = System.nanoTime();
+        private long scanned, swept, archived, deleted;
+
+        private Run(LocalDateTime startedAt) {
+            this.startedAt = startedAt;
+            this.cutoff = startedAt.minusDays(ttlDays);
+        }
+    }
+
+    private record Chunk(List<CartSweepWriter.IdleCart> scanned, List<UUID> sweptCustomers,
+                         int archived, int deleted) {
+    }
+
+    // 🎯 Off-peak by default; a run still going when the next one is due makes the next one a no-op.
+    // The scheduler thread only starts the run; chunks run on the sweeper's own thread.
+    @Scheduled(cron = "${app.cart.sweep.cron:0 0 4 * * *}")
+    public void sweep() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        Run run = new Run(LocalDateTime.now());
+        executor.execute(() -> sweepNext(run, null));
+    }
+
+    // One chunk per task; the pause before the next chunk is a delayed task, so no thread sleeps through it
+    private void sweepNext(Run run, CartSweepWriter.IdleCart after) {
+        boolean more = false;
+        try {
+            Chunk chunk = transactionTemplate.execute(status -> sweepChunk(run.cutoff, after));
+            run.scanned += chunk.scanned().size();
+            run.swept += chunk.sweptCustomers().size();
+            run.archived += chunk.archived();
+            run.deleted += chunk.deleted();
+            totalCartsSwept.addAndGet(chunk.sweptCustomers().size());
+            totalLinesDeleted.addAndGet(chunk.deleted());
+            // Committed; a customer who came back meanwhile gets their lines written back
+            cartEngine.rewriteIfLoaded(chunk.sweptCustomers());
+
+            if (chunk.scanned().size() == batchSize) {
+                CartSweepWriter.IdleCart next = chunk.scanned().get(chunk.scanned().size() - 1);
+                executor.schedule(() -> sweepNext(run, next), pauseMs, TimeUnit.MILLISECONDS);
+                more = true;
+            }
+        } catch (RuntimeException e) {
+            // Chunks already committed stay swept; the next run picks up the rest
+            System.out.println("Abandoned-cart sweep stopped: " + e.getMessage());
+        } finally {
+            if (!more) {
+                finish(run);
+            }
+        }
+    }
+
+    private void finish(Run run) {
+        long durationMs = (System.nanoTime() - run.startNanos) / 1_000_000;
+        lastRun = new RunStats(run.startedAt, durationMs, run.scanned, run.swept, run.archived, run.deleted);
+        totalRuns.incrementAndGet();
+        running.set(false);
+        System.out.println("Abandoned-cart sweep: scanned " + run.scanned + " carts, swept " + run.swept
+                + ", archived " + run.archived + " lines, deleted " + run.deleted + " in " + durationMs + " ms");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public CartSweepStatsDTO stats() {
+        RunStats run = lastRun;
+        if (run == null) {
+            return new CartSweepStatsDTO(running.get(), null, 0, 0, 0, 0, 0,
+                    totalRuns.get(), totalCartsSwept.get(), totalLinesDeleted.get());
+        }
+        return new CartSweepStatsDTO(running.get(), run.startedAt(), run.durationMs(), run.scanned(),
+                run.swept(), run.archived(), run.deleted(),
+                totalRuns.get(), totalCartsSwept.get(), totalLinesDeleted.get());
+    }
+
+    private Chunk sweepChunk(LocalDateTime cutoff, CartSweepWriter.IdleCart after) {
+        List<CartSweepWriter.IdleCart> idle = sweepWriter.findIdle(cutoff, after, batchSize);
+        List<UUID> cartIds = new ArrayList<>(idle.size());
+        List<UUID> customerIds = new ArrayList<>(idle.size());
+        for (CartSweepWriter.IdleCart cart : idle) {
+            // Held in memory means in use, whatever the table says
+            if (!cartEngine.isLoaded(cart.customerId())) {
+                cartIds.add(cart.cartId());
+                customerIds.add(cart.customerId());
+            }
+        }
+        if (cartIds.isEmpty()) {
+            return new Chunk(idle, customerIds, 0, 0);
+        }
+        int archived = sweepWriter.archiveLines(cartIds, LocalDateTime.now());
+        int deleted = sweepWriter.deleteLines(cartIds);
+        sweepWriter.detachOrders(cartIds);
+        return new Chunk(idle, customerIds, archived, deleted);
+    }
+}
@@ -1,49 +1,56 @@
 package auca.ac.rw.food.delivery.management.service;
 
 import auca.ac.rw.food.delivery.management.DTO.DashboardStatsDTO;
+import auca.ac.rw.food.delivery.management.DTO.OrderSummaryDTO;
 import auca.ac.rw.food.delivery.management.DTO.RevenueStatsDTO;
 import auca.ac.rw.food.delivery.management.DTO.VendorPerformanceDTO;
-import auca.ac.rw.food.delivery.management.model.Order;
-import auca.ac.rw.food.delivery.management.model.Vendor;
 import auca.ac.rw.food.delivery.management.model.enums.OrderStatus;
 import auca.ac.rw.food.delivery.management.repository.*;
+import auca.ac.rw.food.delivery.management.util.KeysetCursor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class AdminDashboardService {
+    private static final int MAX_VENDOR_PERFORMANCE_PAGE_SIZE = 100;
+    private static final Set<String> VENDOR_PERFORMANCE_SORTS =
+            Set.of("totalSales", "totalOrders", "averageBasket", "rating", "name");
+
     private final OrderRepository orderRepository;
     private final CustomerRepository customerRepository;
     private final VendorRepository vendorRepository;
     private final ItemRepository itemRepository;
+    private final RevenueAggregateStore revenueAggregateStore;
 
     public AdminDashboardService(OrderRepository orderRepository,
                                CustomerRepository customerRepository,
                                VendorRepository vendorRepository,
-                               ItemRepository itemRepository) {
+                               ItemRepository itemRepository,
+                               RevenueAggregateStore revenueAggregateStore) {
         this.orderRepository = orderRepository;
         this.customerRepository = customerRepository;
         this.vendorRepository = vendorRepository;
         this.itemRepository = itemRepository;
+        this.revenueAggregateStore = revenueAggregateStore;
     }
 
     public DashboardStatsDTO getDashboardStats() {
         DashboardStatsDTO stats = new DashboardStatsDTO();
         
-        // Set total revenue from completed orders
-        List<Order> completedOrders = orderRepository.findByStatus(OrderStatus.COMPLETED);
-        double totalRevenue = completedOrders != null ? 
-            completedOrders.stream()
-                .filter(order -> order.getTotal() != null)
-                .mapToDouble(Order::getTotal)
-                .sum() : 0.0;
-        
-        stats.setTotalRevenue(totalRevenue);
+        // Total revenue from completed orders comes from the maintained aggregates
+        stats.setTotalRevenue(revenueAggregateStore.getCompletedRevenue());
         stats.setTotalOrders((int) orderRepository.count());
         stats.setActiveCustomers((int) customerRepository.count());
         stats.setActiveVendors((int) vendorRepository.count());
@@ -52,76 +59,100 @@ public class AdminDashboardService {
         return stats;
     }
 
-    public List<Order> getRecentOrders(int limit) {
-        List<Order> orders = orderRepository.findTop5ByOrderByOrderDateDesc();
-        return orders != null ? orders : new ArrayList<>();
+    public List<OrderSummaryDTO> getRecentOrders(int limit) {
+        return orderRepository.findSummaries(PageRequest.of(0, KeysetCursor.clampPageSize(limit)));
     }
 
     public RevenueStatsDTO getRevenueStats(String period) {
-        RevenueStatsDTO stats = new RevenueStatsDTO();
+        RevenuePeriod revenuePeriod = RevenuePeriod.from(period);
+
+        LocalDateTime currentBucket = revenuePeriod.truncate(LocalDateTime.now());
+        LocalDateTime from = currentBucket.minus(revenuePeriod.buckets - 1, revenuePeriod.step);
+        LocalDateTime to = currentBucket.plus(1, revenuePeriod.step);
+
+        // One grouped query; buckets without completed orders are filled with zeros below
+        Map<LocalDateTime, OrderRepository.RevenueBucket> rows = new HashMap<>();
+        orderRepository.sumRevenueByBucket(revenuePeriod.truncUnit, OrderStatus.COMPLETED.name(), from, to)
+                .forEach(row -> rows.put(row.getBucket(), row));
+
         List<String> labels = new ArrayList<>();
         List<Double> data = new ArrayList<>();
-        
-        LocalDateTime now = LocalDateTime.now();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd");
-        
-        List<Order> completedOrders = orderRepository.findByStatus(OrderStatus.COMPLETED);
-        if (completedOrders == null) {
-            completedOrders = new ArrayList<>();
-        }
-        
-        // Last 7 days revenue
-        for (int i = 6; i >= 0; i--) {
-            LocalDateTime date = now.minusDays(i);
-            labels.add(date.format(formatter));
-            
-            final LocalDateTime currentDate = date;
-            double dailyRevenue = completedOrders.stream()
-                    .filter(order -> order.getOrderDate() != null && 
-                            order.getTotal() != null &&
-                            order.getOrderDate().toLocalDate().equals(currentDate.toLocalDate()))
-                    .mapToDouble(Order::getTotal)
-                    .sum();
-            
-            data.add(dailyRevenue);
+        List<Long> orderCounts = new ArrayList<>();
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(revenuePeriod.labelPattern);
+
+        for (LocalDateTime bucket = from; bucket.isBefore(to); bucket = bucket.plus(1, revenuePeriod.step)) {
+            OrderRepository.RevenueBucket row = rows.get(bucket);
+            labels.add(bucket.format(formatter));
+            data.add(row != null ? row.getRevenue() : 0.0);
+            orderCounts.add(row != null ? row.getOrderCount() : 0L);
         }
-        
+
+        RevenueStatsDTO stats = new RevenueStatsDTO();
         stats.setLabels(labels);
         stats.setData(data);
-        
+        stats.setOrderCounts(orderCounts);
+
         return stats;
     }
 
-    public List<VendorPerformanceDTO> getVendorPerformance() {
-        List<Vendor> vendors = vendorRepository.findAll();
-        if (vendors == null) {
-            return new ArrayList<>();
-        }
+    public Page<VendorPerformanceDTO> getVendorPerformance(int page, int size, String sortBy, String direction) {
+        // Only aggregate columns of the performance query may be sorted on; id keeps page boundaries stable
+        String sortColumn = VENDOR_PERFORMANCE_SORTS.contains(sortBy) ? sortBy : "totalSales";
+        Sort.Direction sortDirection = "asc".equalsIgnoreCase(direction) ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Sort sort = Sort.by(sortDirection, sortColumn).and(Sort.by(Sort.Direction.ASC, "id"));
 
-        List<Order> completedOrders = orderRepository.findByStatus(OrderStatus.COMPLETED);
-        if (completedOrders == null) {
-            completedOrders = new ArrayList<>();
-        }
+        Pageable pageable = PageRequest.of(Math.max(page, 0),
+                Math.min(Math.max(size, 1), MAX_VENDOR_PERFORMANCE_PAGE_SIZE), sort);
 
-        final List<Order> finalCompletedOrders = completedOrders;
-
-        return vendors.stream()
-                .map(vendor -> {
+        return orderRepository.findVendorPerformance(OrderStatus.COMPLETED.name(), pageable)
+                .map(row -> {
                     VendorPerformanceDTO dto = new VendorPerformanceDTO();
-                    dto.setId(vendor.getId());
-                    dto.setName(vendor.getName());
-                    
-                    double totalSales = finalCompletedOrders.stream()
-                            .filter(order -> order.getTotal() != null)
-                            .mapToDouble(Order::getTotal)
-                            .sum();
-                    
-                    dto.setTotalSales(totalSales);
-                    dto.setTotalOrders(finalCompletedOrders.size());
-                    dto.setRating(4.5); // Placeholder - implement based on your rating system
-                    
+                    dto.setId(row.getId());
+                    dto.setName(row.getName());
+                    dto.setTotalSales(row.getTotalSales() != null ? row.getTotalSales() : 0.0);
+                    dto.setTotalOrders(row.getTotalOrders() != null ? row.getTotalOrders().intValue() : 0);
+                    dto.setAverageBasket(row.getAverageBasket() != null ? row.getAverageBasket() : 0.0);
+                    dto.setRating(row.getRating() != null ? row.getRating() : 0.0);
                     return dto;
-                })
-                .collect(Collectors.toList());
+                });
+    }
+
+    // Window and bucket size for each supported revenue period
+    private enum RevenuePeriod {
+        DAY("hour", 24, ChronoUnit.HOURS, "HH:mm"),
+        WEEK("day", 7, ChronoUnit.DAYS, "MMM dd"),
+        MONTH("day", 30, ChronoUnit.DAYS, "MMM dd"),
+        YEAR("month", 12, ChronoUnit.MONTHS, "MMM yyyy");
+
+        private final String truncUnit;
+        private final int buckets;
+        private final ChronoUnit step;
+        private final String labelPattern;
+
+        RevenuePeriod(String truncUnit, int buckets, ChronoUnit step, String labelPattern) {
+            this.truncUnit = truncUnit;
+            this.buckets = buckets;
+            this.step = step;
+            this.labelPattern = labelPattern;
+        }
+
+        LocalDateTime truncate(LocalDateTime time) {
+            if (step == ChronoUnit.MONTHS) {
+                return time.withDayOfMonth(1).truncatedTo(ChronoUnit.DAYS);
+            }
+            return time.truncatedTo(step);
+        }
+
+        // Unknown or missing periods fall back to the 7-day chart
+        static RevenuePeriod from(String period) {
+            if (period != null) {
+                for (RevenuePeriod value : values()) {
+                    if (value.name().equalsIgnoreCase(period.trim())) {
+                        return value;
+                    }
+                }
+            }
+            return WEEK;
+        }
     }
-} 
\ No newline at end of file
+}
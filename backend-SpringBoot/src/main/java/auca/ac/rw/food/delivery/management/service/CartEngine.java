@@ -0,0 +1,655 @@
+package auca.ac.rw.food.delivery.management.service;
+
+import auca.ac.rw.food.delivery.management.DTO.CartLineDeltaDTO;
+import auca.ac.rw.food.delivery.management.DTO.CartQuoteDTO;
+import auca.ac.rw.food.delivery.management.DTO.CartViewDTO;
+import auca.ac.rw.food.delivery.management.model.Cart;
+import auca.ac.rw.food.delivery.management.model.CartItem;
+import auca.ac.rw.food.delivery.management.model.Customer;
+import auca.ac.rw.food.delivery.management.model.Item;
+import auca.ac.rw.food.delivery.management.repository.CartBatchWriter;
+import auca.ac.rw.food.delivery.management.repository.CartItemRepository;
+import auca.ac.rw.food.delivery.management.repository.CartRepository;
+import auca.ac.rw.food.delivery.management.repository.CustomerRepository;
+import auca.ac.rw.food.delivery.management.repository.ItemRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Keeps active carts in memory, keyed by customer, so adding and removing items never touches
+ * the database on the request path. Changed lines are written behind: a timer flushes every
+ * dirty cart in one set of JDBC batches, and checkout flushes its cart synchronously inside the
+ * order transaction. Carts left idle are flushed and dropped to keep memory bounded.
+ * The map is local to this instance; running more than one instance needs sticky routing per customer.
+ */
+@Component
+public class CartEngine {
+
+    private final CartRepository cartRepository;
+    private final CartItemRepository cartItemRepository;
+    private final CustomerRepository customerRepository;
+    private final ItemRepository itemRepository;
+    private final CartBatchWriter cartBatchWriter;
+    private final CartPricing cartPricing;
+    private final TransactionTemplate transactionTemplate;
+
+    private final long idleMillis;
+
+    private final ConcurrentHashMap<UUID, ActiveCart> carts = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, CompletableFuture<ActiveCart>> loading = new ConcurrentHashMap<>();
+
+    // Held by a timed flush until it commits, so a checkout never reads the cart under a flush still in flight
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public CartEngine(CartRepository cartRepository, CartItemRepository cartItemRepository,
+                      CustomerRepository customerRepository, ItemRepository itemRepository,
+                      CartBatchWriter cartBatchWriter, CartPricing cartPricing,
+                      TransactionTemplate transactionTemplate,
+                      @Value("${app.cart.idle-evict-minutes:30}") long idleEvictMinutes) {
+        this.cartRepository = cartRepository;
+        this.cartItemRepository = cartItemRepository;
+        this.customerRepository = customerRepository;
+        this.itemRepository = itemRepository;
+        this.cartBatchWriter = cartBatchWriter;
+        this.cartPricing = cartPricing;
+        this.transactionTemplate = transactionTemplate;
+        this.idleMillis = idleEvictMinutes * 60_000;
+    }
+
+    // 🎯 Current cart, without creating one when the customer has none
+    public Optional<CartViewDTO> find(UUID customerId) {
+        return Optional.ofNullable(withCart(customerId, false, ActiveCart::toView));
+    }
+
+    // 🎯 Current cart, created for the customer on first use
+    public CartViewDTO view(UUID customerId) {
+        return withCart(customerId, true, ActiveCart::toView);
+    }
+
+    // 🎯 Add to a line, creating it from the item when the cart does not have it yet
+    public CartViewDTO addQuantity(UUID customerId, UUID itemId, int quantity) {
+        CartViewDTO view = withCart(customerId, true,
+                cart -> cart.lines.containsKey(itemId) ? cart.setQuantity(itemId, q -> q + quantity).toView() : null);
+        if (view != null) {
+            return view;
+        }
+
+        // Item lookup happens outside the cart lock; a line added meanwhile by another request wins
+        Item item = itemRepository.findById(itemId)
+                .orElseThrow(() -> new IllegalArgumentException("Item not found"));
+        CartLine line = CartLine.of(item, cartPricing.price(itemId), 0);
+        return withCart(customerId, true, cart -> {
+            cart.lines.putIfAbsent(itemId, line);
+            return cart.setQuantity(itemId, q -> q + quantity).toView();
+        });
+    }
+
+    /**
+     * Apply several quantity changes under one cart lock, so other requests see all of them or none.
+     * Lines are resolved and changed in the same critical section. Items the cart does not hold are
+     * loaded outside the lock with one findAllById, then the cart is checked again; an unknown item
+     * fails the whole call before anything changes. The lines are written by the next flush, in one batch.
+     */
+    public CartViewDTO applyChanges(UUID customerId, List<CartLineDeltaDTO> changes) {
+        Set<UUID> added = new HashSet<>();
+        for (CartLineDeltaDTO change : changes) {
+            if (change.getQuantityDelta() > 0) {
+                added.add(change.getItemId());
+            }
+        }
+
+        Map<UUID, CartLine> loaded = new HashMap<>();
+        Set<UUID> missing = new HashSet<>();
+        while (true) {
+            CartViewDTO view = withCart(customerId, true, cart -> {
+                missing.clear();
+                for (UUID itemId : added) {
+                    if (!cart.lines.containsKey(itemId) && !loaded.containsKey(itemId)) {
+                        missing.add(itemId);
+                    }
+                }
+                if (!missing.isEmpty()) {
+                    return null;
+                }
+                for (UUID itemId : added) {
+                    CartLine line = loaded.get(itemId);
+                    if (line != null) {
+                        cart.lines.putIfAbsent(itemId, line);
+                    }
+                }
+                for (CartLineDeltaDTO change : changes) {
+                    cart.setQuantity(change.getItemId(), q -> q + change.getQuantityDelta());
+                }
+                return cart.toView();
+            });
+            if (view != null) {
+                return view;
+            }
+            // Load what the cart lacked and look again; a line another request removed meanwhile is loaded next round
+            loaded.putAll(newLines(missing));
+        }
+    }
+
+    private Map<UUID, CartLine> newLines(Set<UUID> itemIds) {
+        Map<UUID, CartPricing.ItemPrice> prices = cartPricing.prices(itemIds);
+        Map<UUID, CartLine> lines = new HashMap<>();
+        for (Item item : itemRepository.findAllById(itemIds)) {
+            lines.put(item.getId(), CartLine.of(item, prices.get(item.getId()), 0));
+        }
+        for (UUID itemId : itemIds) {
+            if (!lines.containsKey(itemId)) {
+                throw new IllegalArgumentException("Item not found: " + itemId);
+            }
+        }
+        return lines;
+    }
+
+    // 🎯 Price breakdown from the running totals; no cart lines are read from the database
+    public Optional<CartQuoteDTO> quote(UUID customerId) {
+        return Optional.ofNullable(withCart(customerId, false, cart -> cart.toQuote(cartPricing)));
+    }
+
+    // 🎯 Change an existing line; a result of zero or less removes it. Missing lines are left alone.
+    public Optional<CartViewDTO> updateQuantity(UUID customerId, UUID itemId, IntUnaryOperator newQuantity) {
+        return Optional.ofNullable(withCart(customerId, false, cart -> cart.setQuantity(itemId, newQuantity).toView()));
+    }
+
+    public Optional<CartViewDTO> removeLine(UUID customerId, UUID itemId) {
+        return Optional.ofNullable(withCart(customerId, false, cart -> cart.setQuantity(itemId, q -> 0).toView()));
+    }
+
+    public Optional<CartViewDTO> clear(UUID customerId) {
+        return Optional.ofNullable(withCart(customerId, false, cart -> {
+            for (UUID itemId : new ArrayList<>(cart.lines.keySet())) {
+                cart.setQuantity(itemId, q -> 0);
+            }
+            return cart.toView();
+        }));
+    }
+
+    /**
+     * Write the customer's pending changes now, on the caller's transaction when there is one.
+     * If that transaction rolls back, the changes are marked dirty again for the next flush.
+     * Checkout calls this before reading the cart rows, so the quantities written here are the
+     * ones the order takes; evict keeps only what was added on top of them.
+     */
+    public void flush(UUID customerId) {
+        ActiveCart cart = carts.get(customerId);
+        if (cart == null) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            PendingWrite pending;
+            synchronized (cart) {
+                pending = cart.takePending();
+                cart.flushedQuantities = cart.quantities();
+            }
+            if (pending == null) {
+                return;
+            }
+
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                transactionTemplate.executeWithoutResult(status -> write(List.of(pending)));
+                return;
+            }
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        pending.restore();
+                    }
+                }
+            });
+            write(List.of(pending));
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Checkout emptied the customer's cart in the database. Inside a transaction this waits for
+     * the commit; on rollback the cart stays, with anything flushed in that transaction marked
+     * dirty again. Quantity added after checkout's flush was not part of the order: it stays in
+     * memory, dirty, for the next flush; everything the order took is dropped.
+     */
+    public void evict(UUID customerId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            keepUnflushed(customerId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                keepUnflushed(customerId);
+            }
+        });
+    }
+
+    // Admin deletes go by cart id; a linear scan is fine for that path
+    public void evictCart(UUID cartId) {
+        carts.forEach((customerId, cart) -> {
+            if (cart.cartId.equals(cartId)) {
+                drop(customerId);
+            }
+        });
+    }
+
+    // 🎯 Write-behind: every dirty cart goes out in one transaction, one batch per statement
+    @Scheduled(fixedDelayString = "${app.cart.flush-interval-ms:2000}")
+    public void flushDirty() {
+        flushLock.lock();
+        try {
+            flushAll();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushAll() {
+        List<PendingWrite> pending = new ArrayList<>();
+        for (ActiveCart cart : carts.values()) {
+            synchronized (cart) {
+                PendingWrite write = cart.takePending();
+                if (write != null) {
+                    pending.add(write);
+                }
+            }
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(pending));
+        } catch (RuntimeException e) {
+            // Keep the changes; the next flush tries again
+            pending.forEach(PendingWrite::restore);
+            System.out.println("Cart flush failed for " + pending.size() + " carts: " + e.getMessage());
+        }
+    }
+
+    // 🎯 Bound memory: flush, then drop carts nobody has touched for a while
+    @Scheduled(fixedDelayString = "${app.cart.evict-interval-ms:60000}")
+    public void evictIdle() {
+        flushDirty();
+        long cutoff = System.currentTimeMillis() - idleMillis;
+        carts.forEach((customerId, cart) -> {
+            synchronized (cart) {
+                // A cart whose flush failed stays until its changes are written
+                if (cart.lastAccess < cutoff && !cart.isDirty()) {
+                    cart.evicted = true;
+                    carts.remove(customerId, cart);
+                }
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushDirty();
+    }
+
+    public int activeCarts() {
+        return carts.size();
+    }
+
+    public boolean isLoaded(UUID customerId) {
+        return carts.containsKey(customerId);
+    }
+
+    /**
+     * The abandoned-cart sweeper deleted these customers' lines in the database. A cart loaded
+     * here meanwhile is in use again, so all of its lines are marked dirty and the next flush
+     * writes them back.
+     */
+    public void rewriteIfLoaded(Collection<UUID> customerIds) {
+        for (UUID customerId : customerIds) {
+            ActiveCart cart = carts.get(customerId);
+            if (cart != null) {
+                synchronized (cart) {
+                    cart.changed.addAll(cart.lines.keySet());
+                }
+            }
+        }
+    }
+
+    private void write(List<PendingWrite> pending) {
+        List<CartBatchWriter.LineKey> deletes = new ArrayList<>();
+        List<CartBatchWriter.LineRow> writes = new ArrayList<>();
+        List<UUID> cartIds = new ArrayList<>(pending.size());
+        for (PendingWrite write : pending) {
+            deletes.addAll(write.deletes);
+            writes.addAll(write.writes);
+            cartIds.add(write.cart.cartId);
+        }
+        cartBatchWriter.deleteLines(deletes);
+        cartBatchWriter.writeLines(writes);
+        cartBatchWriter.touchCarts(cartIds, LocalDateTime.now());
+    }
+
+    private void keepUnflushed(UUID customerId) {
+        ActiveCart cart = carts.get(customerId);
+        if (cart == null) {
+            return;
+        }
+        synchronized (cart) {
+            Map<UUID, Integer> ordered = cart.flushedQuantities;
+            cart.flushedQuantities = null;
+            if (ordered != null) {
+                // The order took each line at its flushed quantity and the database rows are gone;
+                // what is left is only the quantity added since, written back as a new line
+                for (UUID itemId : new ArrayList<>(cart.lines.keySet())) {
+                    CartLine line = cart.lines.get(itemId);
+                    int remaining = line.quantity - ordered.getOrDefault(itemId, 0);
+                    if (remaining > 0) {
+                        line.quantity = remaining;
+                        cart.changed.add(itemId);
+                    } else {
+                        cart.lines.remove(itemId);
+                        cart.changed.remove(itemId);
+                    }
+                }
+                // Lines removed after the flush have no row left to delete
+                cart.changed.retainAll(cart.lines.keySet());
+            }
+            if (ordered == null || cart.lines.isEmpty()) {
+                cart.evicted = true;
+                carts.remove(customerId, cart);
+                return;
+            }
+            cart.sumTotals();
+        }
+    }
+
+    private void drop(UUID customerId) {
+        ActiveCart cart = carts.get(customerId);
+        if (cart == null) {
+            return;
+        }
+        synchronized (cart) {
+            cart.evicted = true;
+            carts.remove(customerId, cart);
+        }
+    }
+
+    private <T> T withCart(UUID customerId, boolean create, Function<ActiveCart, T> action) {
+        while (true) {
+            ActiveCart cart = carts.get(customerId);
+            if (cart == null) {
+                cart = loadOnce(customerId, create);
+                if (cart == null) {
+                    return null;
+                }
+            }
+            synchronized (cart) {
+                if (cart.evicted) {
+                    // Dropped between lookup and lock; load it again
+                    continue;
+                }
+                cart.lastAccess = System.currentTimeMillis();
+                long priceVersion = cartPricing.version();
+                if (cart.priceVersion != priceVersion) {
+                    // An item or vendor changed since this cart was priced
+                    cart.reprice(cartPricing.prices(cart.lines.keySet()), priceVersion);
+                }
+                return action.apply(cart);
+            }
+        }
+    }
+
+    /**
+     * Load the customer's cart into the map, with one loader per customer so two first requests
+     * never read, or create, the same cart twice. The database work runs outside any map lock;
+     * other requests for the same customer wait for the loader's result.
+     */
+    private ActiveCart loadOnce(UUID customerId, boolean create) {
+        while (true) {
+            CompletableFuture<ActiveCart> mine = new CompletableFuture<>();
+            CompletableFuture<ActiveCart> running = loading.putIfAbsent(customerId, mine);
+            if (running == null) {
+                try {
+                    // A loader that finished just before we took the slot has already put the cart
+                    ActiveCart cart = carts.get(customerId);
+                    if (cart == null) {
+                        cart = load(customerId, create);
+                        if (cart != null) {
+                            carts.put(customerId, cart);
+                        }
+                    }
+                    mine.complete(cart);
+                    return cart;
+                } catch (RuntimeException e) {
+                    mine.completeExceptionally(e);
+                    throw e;
+                } finally {
+                    loading.remove(customerId, mine);
+                }
+            }
+
+            ActiveCart cart;
+            try {
+                cart = running.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+            if (cart != null || !create) {
+                return cart;
+            }
+            // That loader only looked for an existing cart; this request needs one created
+        }
+    }
+
+    private ActiveCart load(UUID customerId, boolean create) {
+        Optional<Cart> existing = cartRepository.findByCustomerId(customerId);
+        if (existing.isEmpty() && !create) {
+            return null;
+        }
+        Cart cart = existing.orElseGet(() -> {
+            Customer customer = customerRepository.findById(customerId)
+                    .orElseThrow(() -> new IllegalArgumentException("Customer not found"));
+            return cartRepository.save(new Cart(customer));
+        });
+
+        ActiveCart active = new ActiveCart(cart.getId(), customerId);
+        List<CartItem> cartItems = cartItemRepository.findWithItemByCartId(cart.getId());
+        long priceVersion = cartPricing.version();
+        Map<UUID, CartPricing.ItemPrice> prices = cartPricing.prices(
+                cartItems.stream().map(ci -> ci.getItem().getId()).toList());
+        for (CartItem cartItem : cartItems) {
+            Item item = cartItem.getItem();
+            active.lines.put(item.getId(), CartLine.of(item, prices.get(item.getId()), cartItem.getQuantity()));
+        }
+        active.reprice(prices, priceVersion);
+        return active;
+    }
+
+    // One cart held in memory; every access is under synchronized(cart)
+    static class ActiveCart {
+        final UUID cartId;
+        final UUID customerId;
+        // Keyed by item id: every line lookup is a map hit, never a scan of the cart
+        final Map<UUID, CartLine> lines = new LinkedHashMap<>();
+        final Set<UUID> changed = new HashSet<>();
+        volatile long lastAccess = System.currentTimeMillis();
+        boolean evicted;
+
+        // Running totals, kept in step with every quantity change
+        double listSubtotal;
+        double netSubtotal;
+        long priceVersion = -1;
+        // Quantity of every line when checkout flushed it; null outside a checkout
+        Map<UUID, Integer> flushedQuantities;
+
+        ActiveCart(UUID cartId, UUID customerId) {
+            this.cartId = cartId;
+            this.customerId = customerId;
+        }
+
+        ActiveCart setQuantity(UUID itemId, IntUnaryOperator newQuantity) {
+            CartLine line = lines.get(itemId);
+            if (line != null) {
+                int quantity = Math.max(newQuantity.applyAsInt(line.quantity), 0);
+                int delta = quantity - line.quantity;
+                listSubtotal += delta * line.price.price();
+                netSubtotal += delta * line.price.unitPrice();
+                if (quantity == 0) {
+                    lines.remove(itemId);
+                } else {
+                    line.quantity = quantity;
+                }
+                changed.add(itemId);
+            }
+            return this;
+        }
+
+        // Swap in fresh prices and recompute the totals; lines whose price moved are rewritten on the next flush
+        void reprice(Map<UUID, CartPricing.ItemPrice> prices, long version) {
+            listSubtotal = 0;
+            netSubtotal = 0;
+            for (CartLine line : lines.values()) {
+                CartPricing.ItemPrice price = prices.get(line.itemId);
+                // An item deleted since it was added keeps its last known price
+                if (price != null && !price.equals(line.price)) {
+                    line.price = price;
+                    changed.add(line.itemId);
+                }
+            }
+            sumTotals();
+            priceVersion = version;
+        }
+
+        void sumTotals() {
+            listSubtotal = 0;
+            netSubtotal = 0;
+            for (CartLine line : lines.values()) {
+                listSubtotal += line.quantity * line.price.price();
+                netSubtotal += line.quantity * line.price.unitPrice();
+            }
+        }
+
+        CartQuoteDTO toQuote(CartPricing pricing) {
+            int itemCount = 0;
+            List<String> zones = new ArrayList<>(lines.size());
+            for (CartLine line : lines.values()) {
+                itemCount += line.quantity;
+                zones.add(line.price.zone());
+            }
+            return new CartQuoteDTO(cartId, itemCount, listSubtotal, listSubtotal - netSubtotal,
+                    pricing.deliveryFee(zones));
+        }
+
+        boolean isDirty() {
+            return !changed.isEmpty();
+        }
+
+        Map<UUID, Integer> quantities() {
+            Map<UUID, Integer> quantities = new HashMap<>(lines.size() * 2);
+            for (CartLine line : lines.values()) {
+                quantities.put(line.itemId, line.quantity);
+            }
+            return quantities;
+        }
+
+        // Current state of every changed line; a line that is gone becomes a delete
+        PendingWrite takePending() {
+            if (changed.isEmpty()) {
+                return null;
+            }
+            PendingWrite pending = new PendingWrite(this);
+            for (UUID itemId : changed) {
+                CartLine line = lines.get(itemId);
+                if (line == null) {
+                    pending.deletes.add(new CartBatchWriter.LineKey(cartId, itemId));
+                } else {
+                    pending.writes.add(new CartBatchWriter.LineRow(cartId, itemId, line.quantity, line.totalPrice()));
+                }
+            }
+            changed.clear();
+            return pending;
+        }
+
+        CartViewDTO toView() {
+            List<CartViewDTO.CartLineDTO> items = new ArrayList<>(lines.size());
+            for (CartLine line : lines.values()) {
+                items.add(new CartViewDTO.CartLineDTO(line.toRef(), line.quantity, line.totalPrice()));
+            }
+            return new CartViewDTO(cartId, customerId, items);
+        }
+    }
+
+    static class CartLine {
+        final UUID itemId;
+        final String name;
+        final String description;
+        final String imageUrl;
+        CartPricing.ItemPrice price;
+        int quantity;
+
+        CartLine(UUID itemId, String name, String description, String imageUrl,
+                 CartPricing.ItemPrice price, int quantity) {
+            this.itemId = itemId;
+            this.name = name;
+            this.description = description;
+            this.imageUrl = imageUrl;
+            this.price = price;
+            this.quantity = quantity;
+        }
+
+        static CartLine of(Item item, CartPricing.ItemPrice price, int quantity) {
+            return new CartLine(item.getId(), item.getName(), item.getDescription(), item.getImageUrl(),
+                    price, quantity);
+        }
+
+        CartViewDTO.CartItemRefDTO toRef() {
+            return new CartViewDTO.CartItemRefDTO(itemId, name, description, imageUrl,
+                    price.price(), price.discountPercentage());
+        }
+
+        // Discounted; this is also what the flush stores in cart_item.total_price
+        double totalPrice() {
+            return price.unitPrice() * quantity;
+        }
+    }
+
+    // Lines taken from a cart for one flush; put back as changed if the write does not commit
+    static class PendingWrite {
+        final ActiveCart cart;
+        final List<CartBatchWriter.LineKey> deletes = new ArrayList<>();
+        final List<CartBatchWriter.LineRow> writes = new ArrayList<>();
+
+        PendingWrite(ActiveCart cart) {
+            this.cart = cart;
+        }
+
+        void restore() {
+            synchronized (cart) {
+                deletes.forEach(line -> cart.changed.add(line.itemId()));
+                writes.forEach(line -> cart.changed.add(line.itemId()));
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package auca.ac.rw.food.delivery.management.service;
+
+import auca.ac.rw.food.delivery.management.event.CatalogChangeEvent;
+import auca.ac.rw.food.delivery.management.repository.ItemRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Prices cart lines from a per-item cache, so quoting a cart is arithmetic over memory.
+ * Entries are dropped when an item or vendor changes; the version lets carts holding
+ * prices from before a change notice and re-price themselves.
+ * Delivery is one trip per order, charged at the highest fee among the vendor zones in the cart;
+ * zones without a configured fee (and items without a vendor) pay the default fee.
+ */
+@Component
+public class CartPricing {
+
+    private final ItemRepository itemRepository;
+    private final double defaultDeliveryFee;
+    private final Map<String, Double> zoneDeliveryFees = new HashMap<>();
+
+    private final ConcurrentHashMap<UUID, ItemPrice> prices = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+
+    public CartPricing(ItemRepository itemRepository,
+                       @Value("${app.pricing.delivery-fee:200.0}") double defaultDeliveryFee,
+                       @Value("${app.pricing.zone-delivery-fees:}") String zoneDeliveryFees) {
+        this.itemRepository = itemRepository;
+        this.defaultDeliveryFee = defaultDeliveryFee;
+        // "Kigali:150,Musanze:300"; zones match Vendor.location, ignoring case
+        for (String entry : zoneDeliveryFees.split(",")) {
+            String[] parts = entry.split(":");
+            if (parts.length == 2 && !parts[0].isBlank()) {
+                this.zoneDeliveryFees.put(parts[0].trim().toLowerCase(), Double.parseDouble(parts[1].trim()));
+            }
+        }
+    }
+
+    public record ItemPrice(UUID itemId, double price, double discountPercentage, UUID vendorId, String zone) {
+        public double unitPrice() {
+            return discountedPrice(price, discountPercentage);
+        }
+    }
+
+    public static double discountedPrice(double price, double discountPercentage) {
+        return price * (1 - discountPercentage / 100.0);
+    }
+
+    public long version() {
+        return version.get();
+    }
+
+    public ItemPrice price(UUID itemId) {
+        ItemPrice price = prices(List.of(itemId)).get(itemId);
+        if (price == null) {
+            throw new IllegalArgumentException("Item not found");
+        }
+        return price;
+    }
+
+    // ✅ Cached prices; the misses are loaded together in one query
+    public Map<UUID, ItemPrice> prices(Collection<UUID> itemIds) {
+        Map<UUID, ItemPrice> found = new HashMap<>();
+        List<UUID> missing = new ArrayList<>();
+        for (UUID itemId : itemIds) {
+            ItemPrice price = prices.get(itemId);
+            if (price != null) {
+                found.put(itemId, price);
+            } else {
+                missing.add(itemId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return found;
+        }
+
+        long seen = version.get();
+        for (ItemRepository.ItemPriceView row : itemRepository.findPricesByIdIn(missing)) {
+            ItemPrice price = new ItemPrice(row.getId(), row.getPrice(), row.getDiscountPercentage(),
+                    row.getVendorId(), row.getZone());
+            found.put(row.getId(), price);
+            // Do not cache what may have been read before a concurrent invalidation
+            if (version.get() == seen) {
+                prices.put(row.getId(), price);
+            }
+        }
+        return found;
+    }
+
+    // 🎯 Drop prices once the write that changed them commits, so a price read in between is never cached.
+    // A vendor's location is the delivery zone cached with each of its items' prices.
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        if (event.isRatingChange()) {
+            return;
+        }
+        if (event.isItemChange()) {
+            event.getItemIds().forEach(prices::remove);
+        } else if (event.isVendorDetailsChanged()) {
+            prices.values().removeIf(price -> event.getVendorIds().contains(price.vendorId()));
+        } else {
+            return;
+        }
+        version.incrementAndGet();
+    }
+
+    public double deliveryFee(Collection<String> zones) {
+        double fee = 0;
+        for (String zone : zones) {
+            fee = Math.max(fee, zoneFee(zone));
+        }
+        return fee;
+    }
+
+    private double zoneFee(String zone) {
+        if (zone == null) {
+            return defaultDeliveryFee;
+        }
+        return zoneDeliveryFees.getOrDefault(zone.trim().toLowerCase(), defaultDeliveryFee);
+    }
+}
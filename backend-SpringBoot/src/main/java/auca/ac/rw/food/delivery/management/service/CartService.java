@@ -1,27 +1,34 @@
 package auca.ac.rw.food.delivery.management.service;
 
+import auca.ac.rw.food.delivery.management.DTO.CartLineDeltaDTO;
+import auca.ac.rw.food.delivery.management.DTO.CartQuoteDTO;
+import auca.ac.rw.food.delivery.management.DTO.CartViewDTO;
 import auca.ac.rw.food.delivery.management.model.*;
 import auca.ac.rw.food.delivery.management.repository.*;
 
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
 
 @Service
 public class CartService {
+    private static final int MAX_CART_CHANGES = 100;
+
     private final CartRepository cartRepository;
     private final CustomerRepository customerRepository;
     private final ItemRepository itemRepository;
     private final CartItemRepository cartItemRepository;
+    private final CartEngine cartEngine;
 
 
     public CartService(CartRepository cartRepository, CustomerRepository customerRepository,
-                       ItemRepository itemRepository, CartItemRepository cartItemRepository) {
+                       ItemRepository itemRepository, CartItemRepository cartItemRepository,
+                       CartEngine cartEngine) {
         this.cartRepository = cartRepository;
         this.customerRepository = customerRepository;
         this.itemRepository = itemRepository;
         this.cartItemRepository = cartItemRepository;
+        this.cartEngine = cartEngine;
     }
 
     public List<Cart> getAllCarts() {
@@ -41,87 +48,64 @@ public class CartService {
         return cartRepository.save(cart);
     }
 
-    @Transactional
-    public Cart addItemToCart(Cart cart, UUID itemId, int quantity) {
-    Item item = itemRepository.findById(itemId)
-            .orElseThrow(() -> new IllegalArgumentException("Item not found"));
-
-    // Check if item already exists in cart
-    Optional<CartItem> existing = cart.getCartItems().stream()
-            .filter(ci -> ci.getItem().getId().equals(itemId))
-            .findFirst();
-
-    if (existing.isPresent()) {
-        CartItem cartItem = existing.get();
-        cartItem.setQuantity(cartItem.getQuantity() + quantity);
-        cartItem.setTotalPrice(cartItem.getQuantity() * item.getPrice());
-        cartItemRepository.save(cartItem);
-    } else {
-        CartItem newCartItem = new CartItem(cart, item, quantity);
+    // 🎯 Cart mutations run against the in-memory cart engine and are written behind
 
-        // 👇 ADD THIS LINE
-        cart.getCartItems().add(newCartItem);
-
-        cartItemRepository.save(newCartItem);
+    public Optional<CartViewDTO> getCartView(UUID customerId) {
+        return cartEngine.find(customerId);
     }
 
-    return cartRepository.save(cart);  // Persist changes to Cart and its items
-}
+    public Optional<CartQuoteDTO> getQuote(UUID customerId) {
+        return cartEngine.quote(customerId);
+    }
 
+    public CartViewDTO addItemToCart(UUID customerId, UUID itemId, int quantity) {
+        return cartEngine.addQuantity(customerId, itemId, quantity);
+    }
 
-    @Transactional
-    public Cart removeItemFromCart(Cart cart, UUID itemId, int quantityToRemove) {
-        for (CartItem ci : cart.getCartItems()) {
-            if (ci.getItem().getId().equals(itemId)) {
-                int currentQty = ci.getQuantity();
-
-                if (currentQty > quantityToRemove) {
-                    ci.setQuantity(currentQty - quantityToRemove);
-                    ci.setTotalPrice(ci.getQuantity() * ci.getItem().getPrice());
-                    cartItemRepository.save(ci);
-                } else {
-                    // If quantity is 1 or less than or equal to quantityToRemove, do not remove completely
-                    // but leave at minimum 1
-                    if (currentQty > 1) {
-                        ci.setQuantity(1);
-                        ci.setTotalPrice(ci.getItem().getPrice());
-                        cartItemRepository.save(ci);
-                    }
-                }
-                break; // Item found and processed, break loop
+    // 🎯 Bulk update, e.g. reorder or restoring a guest cart: one call, one cart response
+    public CartViewDTO applyCartChanges(UUID customerId, List<CartLineDeltaDTO> changes) {
+        if (changes == null || changes.isEmpty()) {
+            throw new IllegalArgumentException("No cart changes given");
+        }
+        if (changes.size() > MAX_CART_CHANGES) {
+            throw new IllegalArgumentException("At most " + MAX_CART_CHANGES + " cart changes per request");
+        }
+        for (CartLineDeltaDTO change : changes) {
+            if (change == null || change.getItemId() == null) {
+                throw new IllegalArgumentException("Each change needs an itemId");
             }
         }
-
-        return cartRepository.findById(cart.getId()).orElse(cart);
+        return cartEngine.applyChanges(customerId, changes);
     }
 
+    // Never takes a line below 1; deleteCartItem removes it completely
+    public Optional<CartViewDTO> removeItemFromCart(UUID customerId, UUID itemId, int quantityToRemove) {
+        return cartEngine.updateQuantity(customerId, itemId,
+                currentQty -> currentQty > quantityToRemove ? currentQty - quantityToRemove : 1);
+    }
 
-    public void clearCart(Cart cart) {
-        
-        cartItemRepository.deleteAll(cart.getCartItems());
-        cart.getCartItems().clear();
-        cartRepository.save(cart);
+    public Optional<CartViewDTO> deleteCartItem(UUID customerId, UUID itemId) {
+        return cartEngine.removeLine(customerId, itemId);
     }
 
-    public void deleteCart(UUID id) {
-        cartRepository.deleteById(id);
+    public Optional<CartViewDTO> clearCart(UUID customerId) {
+        return cartEngine.clear(customerId);
     }
 
-    @Transactional
-    public Cart deleteCartItem(Cart cart, UUID itemId) {
-        CartItem itemToRemove = null;
-        for (CartItem ci : cart.getCartItems()) {
-            if (ci.getItem().getId().equals(itemId)) {
-                itemToRemove = ci;
-                break;
-            }
-        }
+    // Write any pending cart changes on the caller's transaction, before checkout reads the cart rows
+    public void flushCart(UUID customerId) {
+        cartEngine.flush(customerId);
+    }
 
-        if (itemToRemove != null) {
-            cart.getCartItems().remove(itemToRemove);
-            cartItemRepository.delete(itemToRemove);
-        }
+    // Checkout: empty the cart rows in the order transaction with one bulk DELETE; the in-memory copy goes once it commits.
+    // The loaded Cart keeps its now stale lines; it is not saved again in this transaction.
+    public void clearCart(Cart cart) {
+        cartItemRepository.deleteByCartId(cart.getId());
+        cartEngine.evict(cart.getCustomer().getId());
+    }
 
-        return cartRepository.save(cart);
+    public void deleteCart(UUID id) {
+        cartEngine.evictCart(id);
+        cartRepository.deleteById(id);
     }
 }
@@ -0,0 +1,208 @@
+package auca.ac.rw.food.delivery.management.service;
+
+import auca.ac.rw.food.delivery.management.DTO.CacheStatsDTO;
+import auca.ac.rw.food.delivery.management.DTO.ItemResponseDTO;
+import auca.ac.rw.food.delivery.management.event.CatalogChangeEvent;
+import auca.ac.rw.food.delivery.management.model.Item;
+import auca.ac.rw.food.delivery.management.model.enums.ItemCategory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Ready-built ItemResponseDTOs for the menu endpoints: single items by id, and the item lists
+ * per vendor, per category and for the whole catalog. Each region is a bounded LRU map.
+ * Entries are dropped by CatalogChangeEvent after the write commits, as narrowly as the event
+ * allows. A miss loads and maps inside one read transaction, so vendor and categories are
+ * read while the session is open; a hit touches neither the database nor a connection.
+ */
+@Component
+public class CatalogCache {
+
+    private static final String ALL = "all";
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Region<UUID, CachedItem> items;
+    private final Region<UUID, List<ItemResponseDTO>> byVendor;
+    private final Region<String, List<ItemResponseDTO>> byCategory;
+    private final Region<String, List<ItemResponseDTO>> all;
+
+    // Bumped by every invalidation; a load that started before one is returned but not stored
+    private final AtomicLong generation = new AtomicLong();
+
+    public CatalogCache(TransactionTemplate transactionTemplate,
+                        @Value("${app.catalog.cache.items:10000}") int itemCapacity,
+                        @Value("${app.catalog.cache.lists:1000}") int listCapacity) {
+        this.transactionTemplate = transactionTemplate;
+        this.items = new Region<>("items", itemCapacity);
+        this.byVendor = new Region<>("vendor-items", listCapacity);
+        this.byCategory = new Region<>("category-items", listCapacity);
+        this.all = new Region<>("all-items", 1);
+    }
+
+    // The vendor id rides along so a vendor change can find its items among the cached ones
+    record CachedItem(UUID vendorId, ItemResponseDTO view) {
+        static CachedItem of(Item item) {
+            return new CachedItem(item.getVendor() != null ? item.getVendor().getId() : null, new ItemResponseDTO(item));
+        }
+    }
+
+    // 🎯 Misses are not cached: an id nobody has created yet costs a lookup each time
+    public Optional<ItemResponseDTO> item(UUID id, Supplier<Optional<Item>> loader) {
+        CachedItem cached = items.get(id);
+        if (cached != null) {
+            return Optional.of(cached.view());
+        }
+        long seen = generation.get();
+        Optional<CachedItem> loaded = transactionTemplate.execute(status -> loader.get().map(CachedItem::of));
+        loaded.ifPresent(item -> store(items, id, item, seen));
+        return loaded.map(CachedItem::view);
+    }
+
+    public List<ItemResponseDTO> allItems(Supplier<List<Item>> loader) {
+        return list(all, ALL, loader);
+    }
+
+    public List<ItemResponseDTO> vendorItems(UUID vendorId, Supplier<List<Item>> loader) {
+        return list(byVendor, vendorId, loader);
+    }
+
+    // Keyed by the name as requested; the endpoint takes it as free text
+    public List<ItemResponseDTO> categoryItems(String categoryName, Supplier<List<Item>> loader) {
+        return list(byCategory, categoryName, loader);
+    }
+
+    // 🎯 Drop what the committed write touched. Runs ahead of listeners that rebuild from this cache.
+    @Order(0)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        if (event.isCategoryDetailsChanged()) {
+            // Category rows change rarely and any item view may name them
+            invalidateAll();
+            return;
+        }
+        if (event.isVendorRatingChange()) {
+            // Item views do not show their vendor's rating
+            return;
+        }
+        generation.incrementAndGet();
+        all.clear();
+        event.getItemIds().forEach(items::remove);
+        event.getVendorIds().forEach(byVendor::remove);
+        for (ItemCategory category : event.getCategories()) {
+            byCategory.removeIf(name -> name.equalsIgnoreCase(category.name()));
+        }
+        if (event.isVendorDetailsChanged()) {
+            // The vendor name is part of every item view; category lists may hold any vendor's items
+            items.removeValuesIf(item -> event.getVendorIds().contains(item.vendorId()));
+            byCategory.clear();
+        }
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        items.clear();
+        byVendor.clear();
+        byCategory.clear();
+        all.clear();
+    }
+
+    public List<CacheStatsDTO> stats() {
+        return List.of(items.stats(), byVendor.stats(), byCategory.stats(), all.stats());
+    }
+
+    // Lists are immutable, so a hit hands out the cached one as is
+    private <K> List<ItemResponseDTO> list(Region<K, List<ItemResponseDTO>> region, K key, Supplier<List<Item>> loader) {
+        List<ItemResponseDTO> cached = region.get(key);
+        if (cached == null) {
+            long seen = generation.get();
+            cached = transactionTemplate.execute(status -> loader.get().stream().map(ItemResponseDTO::new).toList());
+            store(region, key, cached, seen);
+        }
+        return cached;
+    }
+
+    private <K, V> void store(Region<K, V> region, K key, V value, long seen) {
+        synchronized (region) {
+            // Checked under the region lock so an invalidation cannot slip in between check and put
+            if (generation.get() == seen) {
+                region.map.put(key, value);
+            }
+        }
+    }
+
+    // One bounded, access-ordered map with its counters; guarded by its own monitor
+    private final class Region<K, V> {
+        final String name;
+        final int capacity;
+        final LongAdder hits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+        final LongAdder evictions = new LongAdder();
+        final LongAdder invalidations = new LongAdder();
+        final Map<K, V> map;
+
+        Region(String name, int capacity) {
+            this.name = name;
+            this.capacity = capacity;
+            this.map = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                    if (size() > Region.this.capacity) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        synchronized V get(K key) {
+            V value = map.get(key);
+            (value != null ? hits : misses).increment();
+            return value;
+        }
+
+        synchronized void remove(K key) {
+            if (map.remove(key) != null) {
+                invalidations.increment();
+            }
+        }
+
+        synchronized void removeIf(Predicate<K> key) {
+            int before = map.size();
+            map.keySet().removeIf(key);
+            invalidations.add(before - map.size());
+        }
+
+        synchronized void removeValuesIf(Predicate<V> value) {
+            int before = map.size();
+            map.values().removeIf(value);
+            invalidations.add(before - map.size());
+        }
+
+        synchronized void clear() {
+            invalidations.add(map.size());
+            map.clear();
+        }
+
+        synchronized CacheStatsDTO stats() {
+            return new CacheStatsDTO(name, map.size(), capacity, hits.sum(), misses.sum(),
+                    evictions.sum(), invalidations.sum());
+        }
+    }
+}
@@ -0,0 +1,407 @@
+package auca.ac.rw.food.delivery.management.service;
+
+import auca.ac.rw.food.delivery.management.DTO.CursorPageDTO;
+import auca.ac.rw.food.delivery.management.DTO.ItemResponseDTO;
+import auca.ac.rw.food.delivery.management.DTO.NearbyVendorDTO;
+import auca.ac.rw.food.delivery.management.event.CatalogChangeEvent;
+import auca.ac.rw.food.delivery.management.model.Category;
+import auca.ac.rw.food.delivery.management.model.Item;
+import auca.ac.rw.food.delivery.management.model.Vendor;
+import auca.ac.rw.food.delivery.management.model.enums.ItemCategory;
+import auca.ac.rw.food.delivery.management.model.enums.VendorStatus;
+import auca.ac.rw.food.delivery.management.repository.ItemRepository;
+import auca.ac.rw.food.delivery.management.repository.VendorRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * In-memory search over the catalog: items by name, description, category and vendor name,
+ * vendors by name. Matching is per token, with prefixes and one-letter typos, ranked by field
+ * weight and term rarity; only the top results are kept while scanning. Items and vendors are
+ * also filed per category for the category browse pages, and positioned vendors on a grid for
+ * nearby searches. Built from the database once the
+ * application is ready and kept current from CatalogChangeEvent, reloading just the items and
+ * vendors a write touched. Item results carry ready-built views, so a search or category page
+ * never reaches the database.
+ */
+@Component
+public class CatalogSearchIndex {
+
+    private static final float NAME = 3.0f;
+    private static final float CATEGORY = 2.0f;
+    private static final float VENDOR = 1.5f;
+    private static final float DESCRIPTION = 1.0f;
+
+    private final ItemRepository itemRepository;
+    private final VendorRepository vendorRepository;
+    // Loads run after the triggering write committed, so they need a transaction of their own
+    private final TransactionTemplate readTransaction;
+    private final double geoCellDegrees;
+
+    // Searches hold the read lock; updates the write lock, one at a time under the monitor.
+    // The indexes below are plain single-threaded structures: every access goes through this lock.
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private TermIndex<ItemDoc> items = new TermIndex<>();
+    private TermIndex<UUID> vendors = new TermIndex<>();
+    private CategoryIndex<ItemDoc> itemsByCategory = new CategoryIndex<>();
+    private CategoryIndex<VendorDoc> vendorsByCategory = new CategoryIndex<>();
+    private GeoGrid<VendorDoc> vendorLocations;
+    private volatile boolean ready;
+
+    public CatalogSearchIndex(ItemRepository itemRepository, VendorRepository vendorRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.vendors.geo.cell-degrees:0.01}") double geoCellDegrees) {
+        this.itemRepository = itemRepository;
+        this.vendorRepository = vendorRepository;
+        this.geoCellDegrees = geoCellDegrees;
+        this.vendorLocations = new GeoGrid<>(geoCellDegrees);
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    // What the filters and ranking need about an item, plus the view handed out as a result
+    private record ItemDoc(UUID id, UUID vendorId, String name, double price, boolean available,
+                           Set<ItemCategory> categories, ItemResponseDTO view) {
+    }
+
+    // What the vendor filters and nearby results need, so a nearby search never reaches the database
+    private record VendorDoc(UUID id, String name, String location, String imageUrl, VendorStatus status,
+                             double averageRating, Set<ItemCategory> categories) {
+    }
+
+    public record ItemFilter(Boolean available, Double minPrice, Double maxPrice, ItemCategory category) {
+        boolean accepts(ItemDoc doc) {
+            return (available == null || doc.available() == available)
+                    && (minPrice == null || doc.price() >= minPrice)
+                    && (maxPrice == null || doc.price() <= maxPrice)
+                    && (category == null || doc.categories().contains(category));
+        }
+
+        public boolean accepts(Item item) {
+            return (available == null || item.isAvailable() == available)
+                    && (minPrice == null || item.getPrice() >= minPrice)
+                    && (maxPrice == null || item.getPrice() <= maxPrice)
+                    && (category == null || item.getCategories().stream().anyMatch(c -> c.getName() == category));
+        }
+    }
+
+    // Until the first build finishes, callers fall back to their database queries
+    public boolean isReady() {
+        return ready;
+    }
+
+    // 🎯 Best matches first; a blank query lists the filtered items by name
+    public List<ItemResponseDTO> searchItems(String query, ItemFilter filter, int limit) {
+        List<String> terms = TermIndex.tokenize(query);
+        lock.readLock().lock();
+        try {
+            if (terms.isEmpty()) {
+                // Already in name order: read from the start until the page is full
+                return itemsByCategory.page(filter.category(), filter::accepts, null, limit)
+                        .getContent().stream().map(ItemDoc::view).toList();
+            }
+            return items.search(terms, filter::accepts, limit).stream().map(ItemDoc::view).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Vendor ids, best match first
+    public List<UUID> searchVendors(String query, int limit) {
+        List<String> terms = TermIndex.tokenize(query);
+        lock.readLock().lock();
+        try {
+            return vendors.search(terms, id -> true, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 🎯 A category's items by name, one page after the cursor; before the first build, read from the database
+    public CursorPageDTO<ItemResponseDTO> itemsInCategory(ItemCategory category, ItemFilter filter, String cursor, int size) {
+        CursorPageDTO<ItemDoc> page;
+        if (ready) {
+            lock.readLock().lock();
+            try {
+                page = itemsByCategory.page(category, filter::accepts, cursor, size);
+            } finally {
+                lock.readLock().unlock();
+            }
+        } else {
+            CategoryIndex<ItemDoc> loaded = new CategoryIndex<>();
+            readTransaction.executeWithoutResult(status -> itemRepository.findWithVendorAndCategoriesByCategoryName(category)
+                    .forEach(item -> loaded.put(item.getId(), item.getName(), Set.of(category), itemDoc(item))));
+            page = loaded.page(category, filter::accepts, cursor, size);
+        }
+        return new CursorPageDTO<>(page.getContent().stream().map(ItemDoc::view).toList(), page.getNext());
+    }
+
+    // Ids of the vendors listed under a category, by name, optionally only those with the given status
+    public CursorPageDTO<UUID> vendorsInCategory(ItemCategory category, VendorStatus status, String cursor, int size) {
+        CursorPageDTO<VendorDoc> page;
+        if (ready) {
+            lock.readLock().lock();
+            try {
+                page = vendorsByCategory.page(category, doc -> status == null || doc.status() == status, cursor, size);
+            } finally {
+                lock.readLock().unlock();
+            }
+        } else {
+            CategoryIndex<VendorDoc> loaded = new CategoryIndex<>();
+            readTransaction.executeWithoutResult(tx -> vendorRepository.findByCategoryName(category)
+                    .forEach(vendor -> loaded.put(vendor.getId(), vendor.getName(), Set.of(category),
+                            vendorDoc(vendor, Set.of(category)))));
+            page = loaded.page(category, doc -> status == null || doc.status() == status, cursor, size);
+        }
+        return new CursorPageDTO<>(page.getContent().stream().map(VendorDoc::id).toList(), page.getNext());
+    }
+
+    // 🎯 Positioned vendors within radiusKm of the point, nearest first; before the first build, read from the database
+    public List<NearbyVendorDTO> nearbyVendors(double latitude, double longitude, double radiusKm,
+                                               VendorStatus status, ItemCategory category, int limit) {
+        Predicate<VendorDoc> filter = doc -> (status == null || doc.status() == status)
+                && (category == null || doc.categories().contains(category));
+        List<GeoGrid.Hit<VendorDoc>> hits;
+        if (ready) {
+            lock.readLock().lock();
+            try {
+                hits = vendorLocations.nearest(latitude, longitude, radiusKm, filter, limit);
+            } finally {
+                lock.readLock().unlock();
+            }
+        } else {
+            // A box around the circle; it is not wrapped at the antimeridian, which only matters until the build
+            double latSpan = radiusKm / GeoGrid.KM_PER_DEGREE;
+            double lngSpan = latSpan / Math.max(0.01, Math.cos(Math.toRadians(Math.min(89.9, Math.abs(latitude) + latSpan))));
+            GeoGrid<VendorDoc> loaded = new GeoGrid<>(geoCellDegrees);
+            readTransaction.executeWithoutResult(tx -> vendorRepository.findWithCategoriesInBox(
+                            latitude - latSpan, latitude + latSpan, longitude - lngSpan, longitude + lngSpan)
+                    .forEach(vendor -> loaded.put(vendor.getId(), vendor.getLatitude(), vendor.getLongitude(),
+                            vendorDoc(vendor, categoriesOf(vendor)))));
+            hits = loaded.nearest(latitude, longitude, radiusKm, filter, limit);
+        }
+        return hits.stream().map(hit -> {
+            VendorDoc doc = hit.payload();
+            return new NearbyVendorDTO(doc.id(), doc.name(), doc.location(), doc.imageUrl(), doc.status(),
+                    doc.averageRating(), hit.latitude(), hit.longitude(), hit.distanceKm());
+        }).toList();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    // Built aside and swapped in, so searches keep answering from the old index meanwhile
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        TermIndex<ItemDoc> newItems = new TermIndex<>();
+        TermIndex<UUID> newVendors = new TermIndex<>();
+        CategoryIndex<ItemDoc> newItemsByCategory = new CategoryIndex<>();
+        CategoryIndex<VendorDoc> newVendorsByCategory = new CategoryIndex<>();
+        GeoGrid<VendorDoc> newVendorLocations = new GeoGrid<>(geoCellDegrees);
+        readTransaction.executeWithoutResult(status -> {
+            itemRepository.findAllWithVendorAndCategories()
+                    .forEach(item -> index(newItems, newItemsByCategory, item));
+            vendorRepository.findAllWithCategories()
+                    .forEach(vendor -> index(newVendors, newVendorsByCategory, newVendorLocations, vendor));
+        });
+
+        lock.writeLock().lock();
+        try {
+            items = newItems;
+            vendors = newVendors;
+            itemsByCategory = newItemsByCategory;
+            vendorsByCategory = newVendorsByCategory;
+            vendorLocations = newVendorLocations;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = true;
+        System.out.println("Catalog search index built: " + newItems.size() + " items, " + newVendors.size()
+                + " vendors in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    // 🎯 Reload what the committed write touched; anything no longer in the database leaves the index
+    @Order(20)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onCatalogChange(CatalogChangeEvent event) {
+        if (!ready) {
+            // The startup build has not run yet and will read the committed state
+            return;
+        }
+        try {
+            if (event.isCategoryDetailsChanged()) {
+                rebuild();
+                return;
+            }
+            if (event.isVendorDetailsChanged()) {
+                reindexVendors(event.getVendorIds());
+            } else if (event.isVendorRatingChange()) {
+                reindexVendorDocs(event.getVendorIds());
+            } else {
+                reindexItems(event.getItemIds());
+            }
+        } catch (RuntimeException e) {
+            // The write has committed either way; resync rather than fail its response
+            System.out.println("Search index update failed, rebuilding: " + e.getMessage());
+            try {
+                rebuild();
+            } catch (RuntimeException rebuildFailure) {
+                System.out.println("Search index rebuild failed: " + rebuildFailure.getMessage());
+            }
+        }
+    }
+
+    private void reindexItems(Set<UUID> itemIds) {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        List<Item> loaded = readTransaction.execute(status -> itemRepository.findWithVendorAndCategoriesByIdIn(itemIds));
+        lock.writeLock().lock();
+        try {
+            Set<UUID> gone = new HashSet<>(itemIds);
+            for (Item item : loaded) {
+                gone.remove(item.getId());
+                index(items, itemsByCategory, item);
+            }
+            gone.forEach(this::removeItem);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Only the vendor entries: a rating is shown in vendor results, not in the vendor's items
+    private void reindexVendorDocs(Set<UUID> vendorIds) {
+        List<Vendor> loadedVendors = readTransaction.execute(status -> vendorRepository.findWithCategoriesByIdIn(vendorIds));
+        lock.writeLock().lock();
+        try {
+            putVendors(vendorIds, loadedVendors);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // A vendor's name is indexed with each of its items, so they are reloaded with it
+    private void reindexVendors(Set<UUID> vendorIds) {
+        List<Vendor> loadedVendors = readTransaction.execute(status -> vendorRepository.findWithCategoriesByIdIn(vendorIds));
+        List<Item> loadedItems = readTransaction.execute(status ->
+                itemRepository.findWithVendorAndCategoriesByVendorIdIn(vendorIds));
+        lock.writeLock().lock();
+        try {
+            putVendors(vendorIds, loadedVendors);
+
+            Set<UUID> goneItems = new HashSet<>();
+            for (ItemDoc doc : items.documents()) {
+                if (vendorIds.contains(doc.vendorId())) {
+                    goneItems.add(doc.id());
+                }
+            }
+            for (Item item : loadedItems) {
+                goneItems.remove(item.getId());
+                index(items, itemsByCategory, item);
+            }
+            goneItems.forEach(this::removeItem);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void putVendors(Set<UUID> vendorIds, List<Vendor> loadedVendors) {
+        Set<UUID> goneVendors = new HashSet<>(vendorIds);
+        for (Vendor vendor : loadedVendors) {
+            goneVendors.remove(vendor.getId());
+            index(vendors, vendorsByCategory, vendorLocations, vendor);
+        }
+        for (UUID vendorId : goneVendors) {
+            vendors.remove(vendorId);
+            vendorsByCategory.remove(vendorId);
+            vendorLocations.remove(vendorId);
+        }
+    }
+
+    private void removeItem(UUID itemId) {
+        items.remove(itemId);
+        itemsByCategory.remove(itemId);
+    }
+
+    private static void index(TermIndex<ItemDoc> index, CategoryIndex<ItemDoc> byCategory, Item item) {
+        ItemDoc doc = itemDoc(item);
+        Map<String, Float> terms = new HashMap<>();
+        TermIndex.addField(terms, item.getName(), NAME);
+        TermIndex.addField(terms, item.getDescription(), DESCRIPTION);
+        for (ItemCategory category : doc.categories()) {
+            TermIndex.addField(terms, category.name(), CATEGORY);
+        }
+        if (item.getVendor() != null) {
+            TermIndex.addField(terms, item.getVendor().getName(), VENDOR);
+        }
+        index.put(item.getId(), doc, terms);
+        byCategory.put(item.getId(), item.getName(), doc.categories(), doc);
+    }
+
+    private static ItemDoc itemDoc(Item item) {
+        Set<ItemCategory> categories = EnumSet.noneOf(ItemCategory.class);
+        if (item.getCategories() != null) {
+            for (Category category : item.getCategories()) {
+                if (category.getName() != null) {
+                    categories.add(category.getName());
+                }
+            }
+        }
+        Vendor vendor = item.getVendor();
+        return new ItemDoc(item.getId(), vendor != null ? vendor.getId() : null, item.getName(),
+                item.getPrice(), item.isAvailable(), categories, new ItemResponseDTO(item));
+    }
+
+    private static void index(TermIndex<UUID> index, CategoryIndex<VendorDoc> byCategory,
+                              GeoGrid<VendorDoc> locations, Vendor vendor) {
+        Map<String, Float> terms = new HashMap<>();
+        TermIndex.addField(terms, vendor.getName(), NAME);
+        index.put(vendor.getId(), vendor.getId(), terms);
+
+        VendorDoc doc = vendorDoc(vendor, categoriesOf(vendor));
+        byCategory.put(vendor.getId(), vendor.getName(), doc.categories(), doc);
+        if (vendor.getLatitude() != null && vendor.getLongitude() != null) {
+            locations.put(vendor.getId(), vendor.getLatitude(), vendor.getLongitude(), doc);
+        } else {
+            locations.remove(vendor.getId());
+        }
+    }
+
+    private static Set<ItemCategory> categoriesOf(Vendor vendor) {
+        Set<ItemCategory> categories = EnumSet.noneOf(ItemCategory.class);
+        if (vendor.getCategories() != null) {
+            for (Category category : vendor.getCategories()) {
+                if (category.getName() != null) {
+                    categories.add(category.getName());
+                }
+            }
+        }
+        return categories;
+    }
+
+    private static VendorDoc vendorDoc(Vendor vendor, Set<ItemCategory> categories) {
+        return new VendorDoc(vendor.getId(), vendor.getName(), vendor.getLocation(), vendor.getImageUrl(),
+                vendor.getStatus(), vendor.getAverageRating(), categories);
+    }
+}
@@ -0,0 +1,92 @@
+package auca.ac.rw.food.delivery.management.service;
+
+import auca.ac.rw.food.delivery.management.DTO.CursorPageDTO;
+import auca.ac.rw.food.delivery.management.model.enums.ItemCategory;
+import auca.ac.rw.food.delivery.management.util.NameCursor;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * Documents filed under each ItemCategory they belong to, and all together, each list sorted by
+ * name, so a page is a range read that starts right after the cursor.
+ */
+final class CategoryIndex<D> {
+
+    private record Entry<D>(String sortName, UUID id, D payload, Set<ItemCategory> categories) {
+    }
+
+    private static final Comparator<Entry<?>> BY_NAME =
+            Comparator.<Entry<?>, String>comparing(Entry::sortName).thenComparing(Entry::id);
+
+    private final Map<ItemCategory, NavigableSet<Entry<D>>> byCategory = new EnumMap<>(ItemCategory.class);
+    private final NavigableSet<Entry<D>> all = new TreeSet<>(BY_NAME);
+    private final Map<UUID, Entry<D>> entries = new HashMap<>();
+
+    // Replaces whatever was filed for the id before
+    void put(UUID id, String name, Set<ItemCategory> categories, D payload) {
+        remove(id);
+        Entry<D> entry = new Entry<>(sortName(name), id, payload, categories);
+        entries.put(id, entry);
+        all.add(entry);
+        for (ItemCategory category : categories) {
+            byCategory.computeIfAbsent(category, c -> new TreeSet<>(BY_NAME)).add(entry);
+        }
+    }
+
+    void remove(UUID id) {
+        Entry<D> entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        all.remove(entry);
+        for (ItemCategory category : entry.categories()) {
+            NavigableSet<Entry<D>> filed = byCategory.get(category);
+            if (filed != null) {
+                filed.remove(entry);
+            }
+        }
+    }
+
+    // 🎯 Up to size accepted documents after the cursor, by name; one more is looked for to know if a next page exists.
+    // A null category pages through every document.
+    CursorPageDTO<D> page(ItemCategory category, Predicate<D> filter, String cursor, int size) {
+        NavigableSet<Entry<D>> filed = category != null ? byCategory.get(category) : all;
+        if (filed == null) {
+            return new CursorPageDTO<>(List.of(), null);
+        }
+        if (cursor != null) {
+            NameCursor after = NameCursor.decode(cursor);
+            filed = filed.tailSet(new Entry<>(after.name(), after.id(), null, Set.of()), false);
+        }
+
+        // Sized by the page alone: size() on a tailSet view would walk everything after the cursor
+        List<D> content = new ArrayList<>(size);
+        Entry<D> last = null;
+        for (Entry<D> entry : filed) {
+            if (!filter.test(entry.payload())) {
+                continue;
+            }
+            if (content.size() == size) {
+                return new CursorPageDTO<>(content, new NameCursor(last.sortName(), last.id()).encode());
+            }
+            content.add(entry.payload());
+            last = entry;
+        }
+        return new CursorPageDTO<>(content, null);
+    }
+
+    private static String sortName(String name) {
+        return name == null ? "" : name.toLowerCase(Locale.ROOT);
+    }
+}
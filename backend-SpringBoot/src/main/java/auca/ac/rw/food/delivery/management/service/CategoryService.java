@@ -8,7 +8,13 @@ import auca.ac.rw.food.delivery.management.model.enums.ItemCategory;
 import auca.ac.rw.food.delivery.management.service.ItemService;
 import auca.ac.rw.food.delivery.management.service.VendorService;
 import auca.ac.rw.food.delivery.management.model.enums.CategoryType;
+import auca.ac.rw.food.delivery.management.model.enums.VendorStatus;
+import auca.ac.rw.food.delivery.management.DTO.CursorPageDTO;
+import auca.ac.rw.food.delivery.management.DTO.ItemResponseDTO;
+import auca.ac.rw.food.delivery.management.util.KeysetCursor;
 
+import auca.ac.rw.food.delivery.management.event.CatalogChangeEvent;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.Collections;
@@ -26,13 +32,19 @@ public class CategoryService {
     private final CategoryRepository categoryRepository;
     private final ItemService itemService;
     private final VendorService vendorService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CatalogSearchIndex searchIndex;
 
     public CategoryService(CategoryRepository categoryRepository, 
                          ItemService itemService,
-                         VendorService vendorService) {
+                         VendorService vendorService,
+                         ApplicationEventPublisher eventPublisher,
+                         CatalogSearchIndex searchIndex) {
         this.categoryRepository = categoryRepository;
         this.itemService = itemService;
         this.vendorService = vendorService;
+        this.eventPublisher = eventPublisher;
+        this.searchIndex = searchIndex;
     }
 
     public Optional<Category> getCategoryByName(ItemCategory name){
@@ -47,34 +59,25 @@ public class CategoryService {
         return categoryRepository.findById(id);
     }
 
+    // Only the category names are read; the vendor's items are not loaded
     public List<ItemCategory> getCategoriesByVendorId(UUID vendorId) {
-        List<Item> items = itemService.getItemsByVendorId(vendorId);
-
-        if (items.isEmpty()) {
-            return Collections.emptyList();
-        }
-
-        return items.stream()
-            .flatMap(item -> item.getCategories().stream())
-            .map(Category::getName)
-            .distinct()
-            .collect(Collectors.toList());
+        return itemService.getCategoryNamesByVendorId(vendorId);
     }
 
-    public Set<Item> getItemsByCategory(ItemCategory categoryName) {
-        Optional<Category> category = categoryRepository.findByName(categoryName);
-        if (category.isEmpty()) {
-            return new HashSet<>();
-        }
-        return category.get().getItems();
+    // ✅ A page of a category's items by name, answered from the in-memory catalog index
+    public CursorPageDTO<ItemResponseDTO> getItemsByCategory(ItemCategory categoryName, Boolean available,
+                                                             Double minPrice, Double maxPrice,
+                                                             String cursor, int size) {
+        CatalogSearchIndex.ItemFilter filter = new CatalogSearchIndex.ItemFilter(available, minPrice, maxPrice, categoryName);
+        return searchIndex.itemsInCategory(categoryName, filter, cursor, KeysetCursor.clampPageSize(size));
     }
 
-    public List<Vendor> getVendorsByCategory(ItemCategory categoryName) {
-        Optional<Category> category = categoryRepository.findByName(categoryName);
-        if (category.isEmpty()) {
-            return Collections.emptyList();
-        }
-        return category.get().getVendors().stream().collect(Collectors.toList());
+    // ✅ A page of the vendors listed under a category by name; only the page's vendors are loaded
+    public CursorPageDTO<Vendor> getVendorsByCategory(ItemCategory categoryName, VendorStatus status,
+                                                      String cursor, int size) {
+        CursorPageDTO<UUID> ids = searchIndex.vendorsInCategory(categoryName, status, cursor,
+                KeysetCursor.clampPageSize(size));
+        return new CursorPageDTO<>(vendorService.getVendorsInOrder(ids.getContent()), ids.getNext());
     }
 
     public List<Category> getCategoriesByType(CategoryType type) {
@@ -88,10 +91,13 @@ public class CategoryService {
         if (existingCategory.isPresent()) {
             throw new IllegalStateException("Category with the same name already exist.");
         }
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        eventPublisher.publishEvent(CatalogChangeEvent.category(this, saved.getName()));
+        return saved;
     }
 
     public void deleteCategoryByName(ItemCategory name){
         categoryRepository.deleteByName(name);
+        eventPublisher.publishEvent(CatalogChangeEvent.category(this, name));
     }
 }
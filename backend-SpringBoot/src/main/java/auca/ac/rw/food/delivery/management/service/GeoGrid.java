@@ -0,0 +1,212 @@
+package auca.ac.rw.food.delivery.management.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * Points bucketed into a fixed grid of latitude/longitude cells, each row of cells kept sorted
+ * by column so a stretch of a row is one range lookup however many of its cells are empty.
+ * A nearest-first lookup reads a box around the query point, doubling it until the box covers
+ * the radius or already holds the nearest hits, so its cost follows the points near the query
+ * rather than the total count. Longitude wraps at the antimeridian.
+ */
+final class GeoGrid<D> {
+
+    static final double EARTH_RADIUS_KM = 6371.0;
+    static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+
+    // Radians and the latitude's cosine are kept so distance checks skip most trigonometry
+    private record Point<D>(UUID id, double lat, double lng, double latRad, double lngRad, double cosLat,
+                            D payload, int row, int column) {
+    }
+
+    record Hit<D>(D payload, double latitude, double longitude, double distanceKm) {
+    }
+
+    private final double cellDegrees;
+    private final int rows;
+    private final int columns;
+    private final Map<Integer, NavigableMap<Integer, List<Point<D>>>> grid = new HashMap<>();
+    private final Map<UUID, Point<D>> points = new HashMap<>();
+
+    GeoGrid(double cellDegrees) {
+        this.cellDegrees = cellDegrees;
+        this.rows = (int) Math.ceil(180 / cellDegrees);
+        this.columns = (int) Math.ceil(360 / cellDegrees);
+    }
+
+    // Replaces the id's previous position
+    void put(UUID id, double lat, double lng, D payload) {
+        remove(id);
+        double latRad = Math.toRadians(lat);
+        Point<D> point = new Point<>(id, lat, lng, latRad, Math.toRadians(lng), Math.cos(latRad),
+                payload, row(lat), column(lng));
+        points.put(id, point);
+        grid.computeIfAbsent(point.row(), r -> new TreeMap<>())
+                .computeIfAbsent(point.column(), c -> new ArrayList<>())
+                .add(point);
+    }
+
+    void remove(UUID id) {
+        Point<D> point = points.remove(id);
+        if (point == null) {
+            return;
+        }
+        NavigableMap<Integer, List<Point<D>>> line = grid.get(point.row());
+        List<Point<D>> cell = line.get(point.column());
+        cell.remove(point);
+        if (cell.isEmpty()) {
+            line.remove(point.column());
+            if (line.isEmpty()) {
+                grid.remove(point.row());
+            }
+        }
+    }
+
+    int size() {
+        return points.size();
+    }
+
+    // 🎯 Up to limit accepted points within radiusKm, nearest first
+    List<Hit<D>> nearest(double lat, double lng, double radiusKm, Predicate<D> filter, int limit) {
+        int row = row(lat);
+        int column = column(lng);
+        double cellKm = cellDegrees * KM_PER_DEGREE;
+        // Rows further away than this are beyond the radius
+        int maxRows = (int) Math.ceil(radiusKm / cellKm);
+        // A cell spans fewer kilometres east-west away from the equator; size columns by the band's narrowest
+        double widest = Math.min(89.9, Math.abs(lat) + (maxRows + 1) * cellDegrees);
+        double narrowestCellKm = cellKm * Math.cos(Math.toRadians(widest));
+        int maxColumns = Math.min((int) Math.ceil(radiusKm / narrowestCellKm), (columns - 1) / 2);
+
+        Search search = new Search(lat, lng, radiusKm, filter, limit);
+        int doneRows = -1;
+        int doneColumns = -1;
+        for (double reach = cellKm; ; reach *= 2) {
+            int rowsHalf = Math.min((int) Math.ceil(reach / cellKm), maxRows);
+            int columnsHalf = Math.min((int) Math.ceil(reach / narrowestCellKm), maxColumns);
+            for (int r = Math.max(0, row - rowsHalf); r <= Math.min(rows - 1, row + rowsHalf); r++) {
+                NavigableMap<Integer, List<Point<D>>> line = grid.get(r);
+                if (line == null) {
+                    continue;
+                }
+                if (Math.abs(r - row) <= doneRows) {
+                    // The middle of this row was read by the smaller box
+                    scan(line, column - columnsHalf, column - doneColumns - 1, search);
+                    scan(line, column + doneColumns + 1, column + columnsHalf, search);
+                } else {
+                    scan(line, column - columnsHalf, column + columnsHalf, search);
+                }
+            }
+            doneRows = rowsHalf;
+            doneColumns = columnsHalf;
+
+            // Anything outside the box is at least this far away
+            double covered = Math.min(rowsHalf * cellKm, columnsHalf * narrowestCellKm);
+            if ((rowsHalf == maxRows && columnsHalf == maxColumns) || covered >= radiusKm
+                    || (search.isFull() && covered >= search.worstKm())) {
+                break;
+            }
+        }
+        return search.hits();
+    }
+
+    // Columns from..to of one row, wrapping around the antimeridian
+    private void scan(NavigableMap<Integer, List<Point<D>>> line, int from, int to, Search search) {
+        if (from > to) {
+            return;
+        }
+        if (to - from + 1 >= columns) {
+            line.values().forEach(search::offer);
+            return;
+        }
+        int start = Math.floorMod(from, columns);
+        int end = Math.floorMod(to, columns);
+        if (start <= end) {
+            line.subMap(start, true, end, true).values().forEach(search::offer);
+        } else {
+            line.tailMap(start, true).values().forEach(search::offer);
+            line.headMap(end, true).values().forEach(search::offer);
+        }
+    }
+
+    // The best hits so far, the farthest on top so it is the one replaced by anything closer
+    private final class Search {
+        private final double latRad;
+        private final double lngRad;
+        private final double cosLat;
+        private final Predicate<D> filter;
+        private final int limit;
+        private final PriorityQueue<Hit<D>> best;
+        // Haversine term of the current cut-off distance: the radius, then the farthest kept hit once full
+        private double maxHaversine;
+
+        Search(double lat, double lng, double radiusKm, Predicate<D> filter, int limit) {
+            this.latRad = Math.toRadians(lat);
+            this.lngRad = Math.toRadians(lng);
+            this.cosLat = Math.cos(latRad);
+            this.filter = filter;
+            this.limit = limit;
+            this.best = new PriorityQueue<>(limit + 1, Comparator.<Hit<D>>comparingDouble(Hit::distanceKm).reversed());
+            this.maxHaversine = haversineOf(radiusKm);
+        }
+
+        void offer(List<Point<D>> cell) {
+            for (Point<D> point : cell) {
+                double sinLat = Math.sin((point.latRad() - latRad) / 2);
+                double h = sinLat * sinLat;
+                if (h > maxHaversine) {
+                    continue;
+                }
+                double sinLng = Math.sin((point.lngRad() - lngRad) / 2);
+                h += cosLat * point.cosLat() * sinLng * sinLng;
+                if (h > maxHaversine || !filter.test(point.payload())) {
+                    continue;
+                }
+                best.add(new Hit<>(point.payload(), point.lat(), point.lng(),
+                        2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(h)))));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+                if (best.size() == limit) {
+                    maxHaversine = Math.min(maxHaversine, haversineOf(best.peek().distanceKm()));
+                }
+            }
+        }
+
+        boolean isFull() {
+            return best.size() == limit;
+        }
+
+        double worstKm() {
+            return best.peek().distanceKm();
+        }
+
+        List<Hit<D>> hits() {
+            List<Hit<D>> hits = new ArrayList<>(best);
+            hits.sort(Comparator.comparingDouble(Hit::distanceKm));
+            return hits;
+        }
+
+        private static double haversineOf(double distanceKm) {
+            double s = Math.sin(Math.min(Math.PI / 2, distanceKm / (2 * EARTH_RADIUS_KM)));
+            return s * s;
+        }
+    }
+
+    private int row(double lat) {
+        return Math.min(rows - 1, (int) Math.floor((lat + 90) / cellDegrees));
+    }
+
+    private int column(double lng) {
+        return Math.floorMod((int) Math.floor((lng + 180) / cellDegrees), columns);
+    }
+}
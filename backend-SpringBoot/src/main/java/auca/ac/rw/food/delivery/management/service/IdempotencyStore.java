@@ -0,0 +1,169 @@
+package auca.ac.rw.food.delivery.management.service;
+
+import auca.ac.rw.food.delivery.management.model.IdempotencyRecord;
+import auca.ac.rw.food.delivery.management.repository.IdempotencyRecordRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Responses of requests sent with an Idempotency-Key. Recent ones sit in a bounded in-memory
+ * cache; all of them are written to idempotency_record, which answers after a restart, a cache
+ * eviction or on another instance. While the first request for a key is still running, later
+ * ones wait on it instead of running again.
+ */
+@Component
+public class IdempotencyStore {
+
+    private final IdempotencyRecordRepository recordRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long ttlMinutes;
+
+    // Access-ordered so the least recently replayed entry goes first when the cache is full
+    private final Map<String, StoredResponse> cache;
+    private final ConcurrentHashMap<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyStore(IdempotencyRecordRepository recordRepository,
+                            TransactionTemplate transactionTemplate,
+                            @Value("${app.idempotency.ttl-minutes:1440}") long ttlMinutes,
+                            @Value("${app.idempotency.cache-size:10000}") int cacheSize) {
+        this.recordRepository = recordRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.ttlMinutes = ttlMinutes;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    public record StoredResponse(int status, String contentType, byte[] body, LocalDateTime expiresAt) {
+    }
+
+    // What the caller should do with a request: replay a stored response, wait for a running one, or run it
+    public record Claim(StoredResponse replay, CompletableFuture<StoredResponse> running) {
+        public boolean isOwner() {
+            return replay == null && running == null;
+        }
+    }
+
+    public Claim claim(String requestKey) {
+        StoredResponse cached = cached(requestKey);
+        if (cached != null) {
+            return new Claim(cached, null);
+        }
+
+        CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(requestKey, mine);
+        if (running != null) {
+            return new Claim(null, running);
+        }
+
+        // Not seen here recently; the table knows about keys from before a restart or from another instance
+        StoredResponse stored;
+        try {
+            stored = recordRepository.findLive(requestKey, LocalDateTime.now())
+                    .map(IdempotencyStore::toResponse)
+                    .orElse(null);
+        } catch (RuntimeException e) {
+            // Never leave the key claimed, or every retry would wait on it
+            inFlight.remove(requestKey, mine);
+            mine.complete(null);
+            throw e;
+        }
+        if (stored != null) {
+            cache(requestKey, stored);
+            inFlight.remove(requestKey, mine);
+            mine.complete(stored);
+            return new Claim(stored, null);
+        }
+        return new Claim(null, null);
+    }
+
+    /**
+     * Called by the owner of a claim when its request finished. A null response (server error,
+     * exception) stores nothing: waiting duplicates are released to try again themselves.
+     */
+    public void complete(String requestKey, int status, String contentType, byte[] body) {
+        StoredResponse response = null;
+        if (body != null) {
+            response = persist(requestKey,
+                    new StoredResponse(status, contentType, body, LocalDateTime.now().plusMinutes(ttlMinutes)));
+            cache(requestKey, response);
+        }
+        CompletableFuture<StoredResponse> running = inFlight.remove(requestKey);
+        if (running != null) {
+            running.complete(response);
+        }
+    }
+
+    // 🎯 Drop expired keys from the table; the cache checks expiry on read
+    @Scheduled(cron = "${app.idempotency.purge-cron:0 30 3 * * *}")
+    public void purgeExpired() {
+        transactionTemplate.executeWithoutResult(status ->
+                recordRepository.deleteExpiredBefore(LocalDateTime.now()));
+    }
+
+    private StoredResponse cached(String requestKey) {
+        synchronized (cache) {
+            StoredResponse cached = cache.get(requestKey);
+            if (cached != null && cached.expiresAt().isBefore(LocalDateTime.now())) {
+                cache.remove(requestKey);
+                return null;
+            }
+            return cached;
+        }
+    }
+
+    private void cache(String requestKey, StoredResponse response) {
+        synchronized (cache) {
+            cache.put(requestKey, response);
+        }
+    }
+
+    // Returns the response that counts for the key: ours, or the one another instance stored first
+    private StoredResponse persist(String requestKey, StoredResponse response) {
+        String body = new String(response.body(), StandardCharsets.UTF_8);
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            recordRepository.saveAndFlush(new IdempotencyRecord(requestKey, response.status(), response.contentType(),
+                    body, now, response.expiresAt()));
+            return response;
+        } catch (DataIntegrityViolationException e) {
+            // The key is already in the table: reuse it only if that row has expired
+            try {
+                Integer replaced = transactionTemplate.execute(status -> recordRepository.replaceExpired(requestKey,
+                        response.status(), response.contentType(), body, now, response.expiresAt()));
+                if (replaced != null && replaced > 0) {
+                    return response;
+                }
+                return recordRepository.findLive(requestKey, now)
+                        .map(IdempotencyStore::toResponse)
+                        .orElse(response);
+            } catch (RuntimeException lookup) {
+                System.out.println("Could not resolve idempotency key " + requestKey + ": " + lookup.getMessage());
+                return response;
+            }
+        } catch (RuntimeException e) {
+            // The cached copy still covers retries to this instance
+            System.out.println("Could not persist idempotency key " + requestKey + ": " + e.getMessage());
+            return response;
+        }
+    }
+
+    private static StoredResponse toResponse(IdempotencyRecord record) {
+        return new StoredResponse(record.getStatus(), record.getContentType(),
+                record.getBody() != null ? record.getBody().getBytes(StandardCharsets.UTF_8) : new byte[0],
+                record.getExpiresAt());
+    }
+}
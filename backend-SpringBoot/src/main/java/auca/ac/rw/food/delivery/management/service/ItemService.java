@@ -4,15 +4,20 @@ import auca.ac.rw.food.delivery.management.model.Category;
 import auca.ac.rw.food.delivery.management.model.Item;
 import auca.ac.rw.food.delivery.management.model.Vendor;
 import auca.ac.rw.food.delivery.management.model.enums.ItemCategory;
+import auca.ac.rw.food.delivery.management.model.enums.RatingSubject;
 import auca.ac.rw.food.delivery.management.repository.CategoryRepository;
 import auca.ac.rw.food.delivery.management.repository.ItemRepository;
 import auca.ac.rw.food.delivery.management.repository.VendorRepository;
 import auca.ac.rw.food.delivery.management.DTO.ItemCreationDTO;
 import auca.ac.rw.food.delivery.management.DTO.ItemResponseDTO;
+import auca.ac.rw.food.delivery.management.DTO.RatingHistogramDTO;
+import auca.ac.rw.food.delivery.management.event.CatalogChangeEvent;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -20,6 +25,8 @@ import java.util.UUID;
 
 @Service
 public class ItemService {
+    private static final int MAX_SEARCH_RESULTS = 200;
+
       @Autowired
         private ItemRepository itemRepository;
 
@@ -29,12 +36,25 @@ public class ItemService {
         @Autowired
         private CategoryRepository categoryRepository;
 
+        private final CatalogCache catalogCache;
+        private final CatalogSearchIndex searchIndex;
+        private final ApplicationEventPublisher eventPublisher;
+        private final RatingAggregator ratingAggregator;
+
     public ItemService(ItemRepository itemRepository,
                        VendorRepository vendorRepository,
-                       CategoryRepository categoryRepository) {
+                       CategoryRepository categoryRepository,
+                       CatalogCache catalogCache,
+                       CatalogSearchIndex searchIndex,
+                       ApplicationEventPublisher eventPublisher,
+                       RatingAggregator ratingAggregator) {
         this.itemRepository = itemRepository;
         this.vendorRepository = vendorRepository;
         this.categoryRepository = categoryRepository;
+        this.catalogCache = catalogCache;
+        this.searchIndex = searchIndex;
+        this.eventPublisher = eventPublisher;
+        this.ratingAggregator = ratingAggregator;
     }
 
     // ✅ Get all items
@@ -42,31 +62,58 @@ public class ItemService {
         return itemRepository.findAll();
     }
 
+    // ✅ Menu views below come from the catalog cache; a miss loads items with their vendor and
+    // categories in one select and maps them in the same read
+    public List<ItemResponseDTO> getAllItemViews() {
+        return catalogCache.allItems(itemRepository::findAllWithVendorAndCategories);
+    }
+
+    public List<ItemResponseDTO> getItemViewsByVendorId(UUID vendorId) {
+        return catalogCache.vendorItems(vendorId,
+                () -> itemRepository.findWithVendorAndCategoriesByVendorIdIn(List.of(vendorId)));
+    }
+
+    public List<ItemResponseDTO> getItemViewsByCategoryName(String categoryName) {
+        return catalogCache.categoryItems(categoryName, () -> categoryOf(categoryName)
+                .map(itemRepository::findWithVendorAndCategoriesByCategoryName)
+                .orElse(List.of()));
+    }
+
     // ✅ Get an item by ID
     public Optional<ItemResponseDTO> getItemById(UUID id) {
-
-        return itemRepository.findById(id)
-                .map(ItemResponseDTO::new); 
+        return catalogCache.item(id, () -> itemRepository.findWithVendorAndCategoriesById(id));
     }
 
-    // ✅ Get an item by name
+    // ✅ Get an item by name, fetched ready to map to ItemResponseDTO
     public Optional<Item> getItemByName(String name) {
-        return itemRepository.findByName(name);
+        return itemRepository.findWithVendorAndCategoriesByName(name);
     }
 
     // ✅ Get items under a specific category
     public List<Item> getItemsByCategoryName(String categoryName) {
-        return itemRepository.findByCategoryName(categoryName);
+        return categoryOf(categoryName)
+                .map(itemRepository::findWithVendorAndCategoriesByCategoryName)
+                .orElse(List.of());
     }
 
     // ✅ Get items cheaper than a certain price
     public List<Item> getItemsCheaperThan(double price) {
-        return itemRepository.findByPriceLessThan(price);
+        return itemRepository.findWithVendorAndCategoriesByPriceLessThan(price);
     }
 
     // ✅ Get items more expensive than a certain price
     public List<Item> getItemsMoreExpensiveThan(double price) {
-        return itemRepository.findByPriceGreaterThan(price);
+        return itemRepository.findWithVendorAndCategoriesByPriceGreaterThan(price);
+    }
+
+    // The category endpoint takes free text; a name that is no category simply matches nothing
+    private static Optional<ItemCategory> categoryOf(String categoryName) {
+        for (ItemCategory category : ItemCategory.values()) {
+            if (category.name().equalsIgnoreCase(categoryName)) {
+                return Optional.of(category);
+            }
+        }
+        return Optional.empty();
     }
 
     // ✅ Search items by keyword in description
@@ -74,6 +121,22 @@ public class ItemService {
         return itemRepository.findByDescriptionContainingIgnoreCase(keyword);
     }
 
+    // ✅ Ranked search over name, description, category and vendor from the in-memory index
+    public List<ItemResponseDTO> searchItems(String keyword, CatalogSearchIndex.ItemFilter filter, int limit) {
+        if (limit < 1 || limit > MAX_SEARCH_RESULTS) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_SEARCH_RESULTS);
+        }
+        if (searchIndex.isReady()) {
+            return searchIndex.searchItems(keyword, filter, limit);
+        }
+        // Index still building right after startup; the old description match, filtered here
+        return itemRepository.findWithVendorAndCategoriesByDescriptionContainingIgnoreCase(keyword).stream()
+                .filter(filter::accepts)
+                .limit(limit)
+                .map(ItemResponseDTO::new)
+                .toList();
+    }
+
     // ✅ Get items belonging to a specific vendor
     public List<Item> getItemsByVendor(String vendorName) {
         return itemRepository.findByVendorName(vendorName);
@@ -83,6 +146,10 @@ public class ItemService {
         return itemRepository.findByVendorId(vendorId);
     }
 
+    public List<ItemCategory> getCategoryNamesByVendorId(UUID vendorId) {
+        return itemRepository.findCategoryNamesByVendorId(vendorId);
+    }
+
     // ✅ Create a new item
     public Item createItem(ItemCreationDTO item) {
         Vendor vendor = vendorRepository.findByNameIgnoreCase(item.getVendorName())
@@ -121,6 +188,7 @@ public class ItemService {
         
         Item savedItem = itemRepository.save(newItem);
         System.out.println("Saved new item isAvailable: " + savedItem.isAvailable());
+        publishChange(Set.of(savedItem.getId()), footprint(savedItem));
         return savedItem;
     }
 
@@ -128,6 +196,9 @@ public class ItemService {
     public Item updateItem(UUID id, ItemCreationDTO updatedItem) {
         return itemRepository.findById(id)
                 .map(existingItem -> {
+                    // Lists the item leaves must be dropped as well as the ones it joins
+                    ItemFootprint before = footprint(existingItem);
+
                     if (updatedItem.getName() != null && !updatedItem.getName().trim().isEmpty()) {
                         existingItem.setName(updatedItem.getName().trim());
                     }
@@ -167,21 +238,61 @@ public class ItemService {
 
                     Item savedItem = itemRepository.save(existingItem);
                     System.out.println("Saved item isAvailable: " + savedItem.isAvailable());
+                    publishChange(Set.of(id), before.with(footprint(savedItem)));
                     return savedItem;
                 })
                 .orElseThrow(() -> new RuntimeException("Item not found"));
     }
 
+    // ✅ Counted in memory and added to the item row by the next rating flush
+    public void addRatingToItem(UUID itemId, int rating) {
+        ratingAggregator.rate(RatingSubject.ITEM, itemId, rating);
+    }
+
+    public RatingHistogramDTO getRatingHistogram(UUID itemId) {
+        if (!itemRepository.existsById(itemId)) {
+            throw new RuntimeException("Item not found");
+        }
+        return ratingAggregator.histogram(RatingSubject.ITEM, itemId);
+    }
+
     // ✅ Delete an item by ID
     public void deleteItem(UUID id) {
+        Optional<ItemFootprint> before = itemRepository.findById(id).map(this::footprint);
         itemRepository.deleteById(id);
+        before.ifPresent(footprint -> publishChange(Set.of(id), footprint));
     }
 
     // ✅ Delete an item by name
     public void deleteItemByName(String name) {
-        if (itemRepository.findByName(name).isEmpty()) {
-            throw new RuntimeException("Item with name '" + name + "' not found");
-        }
+        Item existing = itemRepository.findByName(name)
+                .orElseThrow(() -> new RuntimeException("Item with name '" + name + "' not found"));
+        ItemFootprint before = footprint(existing);
         itemRepository.deleteByName(name);
+        publishChange(Set.of(existing.getId()), before);
+    }
+
+    // Where an item shows up in the catalog: its vendor's list and its categories' lists
+    private record ItemFootprint(Set<UUID> vendorIds, Set<ItemCategory> categories) {
+        ItemFootprint with(ItemFootprint other) {
+            Set<UUID> vendors = new HashSet<>(vendorIds);
+            vendors.addAll(other.vendorIds);
+            Set<ItemCategory> names = new HashSet<>(categories);
+            names.addAll(other.categories);
+            return new ItemFootprint(vendors, names);
+        }
+    }
+
+    private ItemFootprint footprint(Item item) {
+        Set<UUID> vendorIds = item.getVendor() != null ? Set.of(item.getVendor().getId()) : Set.of();
+        Set<ItemCategory> categories = new HashSet<>();
+        if (item.getCategories() != null) {
+            item.getCategories().forEach(category -> categories.add(category.getName()));
+        }
+        return new ItemFootprint(vendorIds, categories);
+    }
+
+    private void publishChange(Set<UUID> itemIds, ItemFootprint footprint) {
+        eventPublisher.publishEvent(CatalogChangeEvent.items(this, itemIds, footprint.vendorIds(), footprint.categories()));
     }
 }
@@ -0,0 +1,252 @@
+package auca.ac.rw.food.delivery.management.service;
+
+import auca.ac.rw.food.delivery.management.event.CatalogChangeEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialized JSON of the catalog browse endpoints, kept as bytes with a gzip copy and a strong
+ * ETag per resource. A request is answered by copying the stored bytes, or with 304 when its
+ * If-None-Match still matches; neither touches the database or Jackson. CatalogChangeEvent
+ * drops just the snapshots a committed write affects, and the next request for each rebuilds
+ * it once, however many arrive together.
+ */
+@Component
+public class JsonSnapshotStore {
+
+    public static final String ITEMS = "items";
+    public static final String CATEGORIES = "categories";
+    public static final String VENDORS = "vendors";
+    // Vendor lists (all, by status, location or search); vendor JSON embeds its items
+    private static final String VENDOR_LISTS = "vendors:";
+    private static final String VENDOR = "vendor:";
+    private static final String MENU = "menu:";
+
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    // Access-ordered and bounded: keys such as locations and search terms come from the request
+    private final Map<String, Snapshot> snapshots;
+    private final ConcurrentHashMap<String, CompletableFuture<Snapshot>> building = new ConcurrentHashMap<>();
+
+    // Bumped by every invalidation; a build that started before one is served but not kept
+    private final AtomicLong generation = new AtomicLong();
+
+    public JsonSnapshotStore(ObjectMapper objectMapper, TransactionTemplate transactionTemplate,
+                             @Value("${app.snapshots.max-entries:2000}") int maxEntries) {
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.snapshots = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Snapshot> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    // An absent body is a 404 and is not stored
+    private record Snapshot(byte[] json, byte[] gzip, String etag) {
+        static final Snapshot NOT_FOUND = new Snapshot(null, null, null);
+    }
+
+    public static String vendorKey(UUID vendorId) {
+        return VENDOR + vendorId;
+    }
+
+    public static String menuKey(UUID vendorId) {
+        return MENU + vendorId;
+    }
+
+    public static String vendorListKey(String filter, Object value) {
+        return VENDOR_LISTS + filter + ":" + value;
+    }
+
+    // 🎯 The body's JSON, built on first use and copied from memory after that
+    public ResponseEntity<byte[]> respond(String key, HttpServletRequest request, Supplier<?> body) {
+        return respondIfPresent(key, request, () -> Optional.ofNullable(body.get()));
+    }
+
+    public ResponseEntity<byte[]> respondIfPresent(String key, HttpServletRequest request, Supplier<Optional<?>> body) {
+        Snapshot snapshot = snapshot(key, body);
+        if (snapshot == Snapshot.NOT_FOUND) {
+            return ResponseEntity.notFound().build();
+        }
+
+        boolean gzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        // Each encoding is its own representation, so each gets its own strong validator
+        String etag = gzip ? "\"" + snapshot.etag() + "-gz\"" : "\"" + snapshot.etag() + "\"";
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(etag);
+        headers.setCacheControl("no-cache");
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), snapshot.etag())) {
+            return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+        }
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        byte[] bytes = gzip ? snapshot.gzip() : snapshot.json();
+        headers.setContentLength(bytes.length);
+        return new ResponseEntity<>(bytes, headers, HttpStatus.OK);
+    }
+
+    /**
+     * Drop the snapshots a committed catalog write shows up in. Item views name their vendor,
+     * and vendor JSON embeds the vendor's items, so item and vendor writes reach both sides.
+     * Runs after the catalog cache has dropped its entries, since item snapshots rebuild from it.
+     */
+    @Order(10)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        generation.incrementAndGet();
+        synchronized (snapshots) {
+            if (event.isCategoryDetailsChanged()) {
+                snapshots.remove(CATEGORIES);
+                // Menus group items by category
+                snapshots.keySet().removeIf(key -> key.startsWith(MENU));
+            }
+            if (!event.isVendorRatingChange()) {
+                // A vendor's rating is in vendor JSON only; the item list does not show it
+                snapshots.remove(ITEMS);
+            }
+            snapshots.remove(VENDORS);
+            snapshots.keySet().removeIf(key -> key.startsWith(VENDOR_LISTS));
+            for (UUID vendorId : event.getVendorIds()) {
+                snapshots.remove(vendorKey(vendorId));
+                snapshots.remove(menuKey(vendorId));
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        synchronized (snapshots) {
+            snapshots.clear();
+        }
+    }
+
+    private Snapshot snapshot(String key, Supplier<Optional<?>> body) {
+        synchronized (snapshots) {
+            Snapshot cached = snapshots.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        CompletableFuture<Snapshot> mine = new CompletableFuture<>();
+        CompletableFuture<Snapshot> running = building.putIfAbsent(key, mine);
+        if (running != null) {
+            // Someone is building this one already; share the result
+            return running.join();
+        }
+        try {
+            long seen = generation.get();
+            Snapshot built = build(body);
+            synchronized (snapshots) {
+                if (built != Snapshot.NOT_FOUND && generation.get() == seen) {
+                    snapshots.put(key, built);
+                }
+            }
+            mine.complete(built);
+            return built;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            building.remove(key, mine);
+        }
+    }
+
+    // Serialized inside a read transaction so lazy associations in the body can still load
+    private Snapshot build(Supplier<Optional<?>> body) {
+        return transactionTemplate.execute(status -> body.get().map(value -> {
+            try {
+                byte[] json = objectMapper.writeValueAsBytes(value);
+                return new Snapshot(json, gzip(json), digest(json));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Could not serialize snapshot", e);
+            }
+        }).orElse(Snapshot.NOT_FOUND));
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, json.length / 4));
+        try (GZIPOutputStream zip = new GZIPOutputStream(out)) {
+            zip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String digest(byte[] json) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(json);
+            return HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Weak comparison, as If-None-Match requires; either encoding's tag matches the same content
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("\"" + etag + "\"") || tag.equals("\"" + etag + "-gz\"")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].replace(" ", "").equals("q=0");
+            }
+        }
+        return false;
+    }
+}
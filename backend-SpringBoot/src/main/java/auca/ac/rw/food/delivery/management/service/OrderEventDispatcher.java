@@ -0,0 +1,204 @@
+package auca.ac.rw.food.delivery.management.service;
+
+import auca.ac.rw.food.delivery.management.event.OrderStatusChangeEvent;
+import auca.ac.rw.food.delivery.management.model.Order;
+import auca.ac.rw.food.delivery.management.model.OrderEventOutbox;
+import auca.ac.rw.food.delivery.management.repository.OrderEventOutboxRepository;
+import auca.ac.rw.food.delivery.management.repository.OrderRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drains the order event outbox in the background and publishes each row as an
+ * {@link OrderStatusChangeEvent} after the change it describes has committed.
+ * Delivery is at least once: a row is only marked dispatched after every listener
+ * returned, so listeners key their side effects on {@link OrderStatusChangeEvent#getEventId()}.
+ * Rows for the same order are delivered in the order they were written; different
+ * orders are delivered in parallel.
+ */
+@Component
+public class OrderEventDispatcher {
+
+    private static final long MAX_BACKOFF_SECONDS = 300;
+
+    private final OrderEventOutboxRepository outboxRepository;
+    private final OrderRepository orderRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long leaseSeconds;
+    private final int retentionDays;
+
+    private final ExecutorService workers;
+    private final ExecutorService poller;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean drainRequested = new AtomicBoolean();
+
+    public OrderEventDispatcher(OrderEventOutboxRepository outboxRepository,
+                                OrderRepository orderRepository,
+                                ApplicationEventPublisher eventPublisher,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${app.outbox.batch-size:100}") int batchSize,
+                                @Value("${app.outbox.parallelism:4}") int parallelism,
+                                @Value("${app.outbox.max-attempts:10}") int maxAttempts,
+                                @Value("${app.outbox.lease-seconds:30}") long leaseSeconds,
+                                @Value("${app.outbox.retention-days:7}") int retentionDays) {
+        this.outboxRepository = outboxRepository;
+        this.orderRepository = orderRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.leaseSeconds = leaseSeconds;
+        this.retentionDays = retentionDays;
+        this.workers = Executors.newFixedThreadPool(parallelism, namedThreads("outbox-worker-"));
+        this.poller = Executors.newSingleThreadExecutor(namedThreads("outbox-poller-"));
+    }
+
+    // 🎯 Called after a recording transaction commits
+    public void wakeUp() {
+        poller.execute(this::drain);
+    }
+
+    // 🎯 Fallback poll picks up retries, expired leases and anything a wake-up missed
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:1000}")
+    public void poll() {
+        drain();
+    }
+
+    public void drain() {
+        drainRequested.set(true);
+        if (!draining.compareAndSet(false, true)) {
+            // The running drain will go round again
+            return;
+        }
+        try {
+            while (drainRequested.getAndSet(false)) {
+                while (dispatchBatch() == batchSize) {
+                    // Full batch, there may be more waiting
+                }
+            }
+        } catch (RuntimeException e) {
+            System.out.println("Order event dispatch failed: " + e.getMessage());
+        } finally {
+            draining.set(false);
+        }
+    }
+
+    private int dispatchBatch() {
+        List<OrderEventOutbox> claimed = claim();
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+
+        Map<UUID, List<OrderEventOutbox>> byOrder = new LinkedHashMap<>();
+        for (OrderEventOutbox row : claimed) {
+            byOrder.computeIfAbsent(row.getOrderId(), id -> new ArrayList<>()).add(row);
+        }
+
+        List<Future<?>> pending = new ArrayList<>(byOrder.size());
+        for (List<OrderEventOutbox> rows : byOrder.values()) {
+            pending.add(workers.submit(() -> deliverInOrder(rows)));
+        }
+        for (Future<?> future : pending) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                System.out.println("Order event worker failed: " + e.getCause());
+            }
+        }
+        return claimed.size();
+    }
+
+    // Lease the rows in a short transaction; the lease keeps them ours after the row locks are released
+    private List<OrderEventOutbox> claim() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OrderEventOutbox> rows = outboxRepository.findClaimable(now, maxAttempts, PageRequest.of(0, batchSize));
+            rows.forEach(row -> row.setLeaseUntil(now.plusSeconds(leaseSeconds)));
+            return rows;
+        });
+    }
+
+    private void deliverInOrder(List<OrderEventOutbox> rows) {
+        for (int i = 0; i < rows.size(); i++) {
+            OrderEventOutbox row = rows.get(i);
+            try {
+                deliver(row);
+                transactionTemplate.executeWithoutResult(status ->
+                        outboxRepository.markDispatched(row.getId(), LocalDateTime.now()));
+            } catch (RuntimeException e) {
+                long backoff = Math.min(1L << Math.min(row.getAttempts(), 16), MAX_BACKOFF_SECONDS);
+                String error = String.valueOf(e.getMessage());
+                transactionTemplate.executeWithoutResult(status -> outboxRepository.markFailed(row.getId(),
+                        error.length() > 1000 ? error.substring(0, 1000) : error,
+                        LocalDateTime.now().plusSeconds(backoff)));
+
+                // Later events for this order wait behind the failed one
+                List<Long> held = rows.subList(i + 1, rows.size()).stream().map(OrderEventOutbox::getId).toList();
+                if (!held.isEmpty()) {
+                    transactionTemplate.executeWithoutResult(status -> outboxRepository.releaseLease(held));
+                }
+                System.out.println("Order event " + row.getId() + " for order " + row.getOrderId()
+                        + " failed (attempt " + (row.getAttempts() + 1) + "): " + error);
+                return;
+            }
+        }
+    }
+
+    private void deliver(OrderEventOutbox row) {
+        Order order = orderRepository.findById(row.getOrderId()).orElse(null);
+        if (order == null) {
+            // Order was deleted since; nothing left to notify about
+            return;
+        }
+        eventPublisher.publishEvent(new OrderStatusChangeEvent(this, row.getId(), order,
+                row.getOldStatus(), row.getNewStatus(), row.isStatusApplied()));
+    }
+
+    // 🎯 Drop delivered rows once they are past the retention window
+    @Scheduled(cron = "${app.outbox.purge-cron:0 15 3 * * *}")
+    public void purgeDispatched() {
+        transactionTemplate.executeWithoutResult(status ->
+                outboxRepository.deleteDispatchedBefore(LocalDateTime.now().minusDays(retentionDays)));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        poller.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
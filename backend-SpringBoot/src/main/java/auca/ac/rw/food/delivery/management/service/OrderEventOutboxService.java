@@ -0,0 +1,69 @@
+package auca.ac.rw.food.delivery.management.service;
+
+import auca.ac.rw.food.delivery.management.model.Order;
+import auca.ac.rw.food.delivery.management.model.OrderEventOutbox;
+import auca.ac.rw.food.delivery.management.model.enums.OrderStatus;
+import auca.ac.rw.food.delivery.management.repository.OrderBatchWriter;
+import auca.ac.rw.food.delivery.management.repository.OrderEventOutboxRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.UUID;
+
+@Service
+public class OrderEventOutboxService {
+
+    private final OrderEventOutboxRepository outboxRepository;
+    private final OrderBatchWriter batchWriter;
+    private final OrderEventDispatcher dispatcher;
+
+    public OrderEventOutboxService(OrderEventOutboxRepository outboxRepository, OrderBatchWriter batchWriter,
+                                   OrderEventDispatcher dispatcher) {
+        this.outboxRepository = outboxRepository;
+        this.batchWriter = batchWriter;
+        this.dispatcher = dispatcher;
+    }
+
+    // ✅ Record a status change alongside the write that caused it; it commits or rolls back with the caller
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Order order, OrderStatus oldStatus, OrderStatus newStatus) {
+        // Some callers only announce a transition without persisting it on the order,
+        // so remember whether the order actually carried the new status at this point
+        save(new OrderEventOutbox(order.getId(), oldStatus, newStatus, order.getStatus() == newStatus));
+    }
+
+    // ✅ Record a transition the caller has just written to the order
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTransition(UUID orderId, OrderStatus oldStatus, OrderStatus newStatus) {
+        save(new OrderEventOutbox(orderId, oldStatus, newStatus, true));
+    }
+
+    // ✅ Record many transitions at once, in a single batched insert
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTransitions(List<OrderEventOutbox> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        batchWriter.insertOutboxEvents(events);
+        wakeDispatcherAfterCommit();
+    }
+
+    private void save(OrderEventOutbox event) {
+        outboxRepository.save(event);
+        wakeDispatcherAfterCommit();
+    }
+
+    private void wakeDispatcherAfterCommit() {
+        // Nudge the dispatcher once the row is visible instead of waiting for its next poll
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatcher.wakeUp();
+            }
+        });
+    }
+}
@@ -1,146 +1,271 @@
 package auca.ac.rw.food.delivery.management.service;
 
-import auca.ac.rw.food.delivery.management.event.OrderStatusChangeEvent;
+import auca.ac.rw.food.delivery.management.DTO.CursorPageDTO;
+import auca.ac.rw.food.delivery.management.DTO.OrderStatusBatchDTO;
+import auca.ac.rw.food.delivery.management.DTO.OrderStatusResultDTO;
+import auca.ac.rw.food.delivery.management.DTO.OrderSummaryDTO;
+import auca.ac.rw.food.delivery.management.config.OrderStatusConflictException;
 import auca.ac.rw.food.delivery.management.model.Cart;
 import auca.ac.rw.food.delivery.management.model.CartItem;
 import auca.ac.rw.food.delivery.management.model.Customer;
 import auca.ac.rw.food.delivery.management.model.DeliveryDriver;
+import auca.ac.rw.food.delivery.management.model.Item;
+import auca.ac.rw.food.delivery.management.model.ItemSummary;
 import auca.ac.rw.food.delivery.management.model.Order;
+import auca.ac.rw.food.delivery.management.model.OrderEventOutbox;
+import auca.ac.rw.food.delivery.management.model.Vendor;
+import auca.ac.rw.food.delivery.management.model.VendorSummary;
 import auca.ac.rw.food.delivery.management.model.enums.OrderStatus;
 import auca.ac.rw.food.delivery.management.model.enums.PaymentMethod;
 import auca.ac.rw.food.delivery.management.repository.*;
-import org.springframework.context.ApplicationEventPublisher;
+import auca.ac.rw.food.delivery.management.util.KeysetCursor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import auca.ac.rw.food.delivery.management.service.CartService;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
 
 @Service
 public class OrderService {
 
+    private static final int MAX_TRANSITION_ATTEMPTS = 3;
+    private static final int MAX_STATUS_BATCH = 200;
+
     private final OrderRepository orderRepository;
     private final CustomerRepository customerRepository;
     private final CartRepository cartRepository;
     private final DeliveryDriverRepository driverRepository;
     private final CartService cartService;
-    private final ApplicationEventPublisher eventPublisher;
+    private final OrderBatchWriter orderBatchWriter;
+    private final OrderEventOutboxService orderEventOutbox;
+    private final CartPricing cartPricing;
 
     // ✅ Constructor injection (best practice)
     public OrderService(OrderRepository orderRepository, CustomerRepository customerRepository,
                         CartRepository cartRepository, DeliveryDriverRepository driverRepository,
-                        CartService cartService,
-                        ApplicationEventPublisher eventPublisher) {
+                        CartService cartService, OrderBatchWriter orderBatchWriter,
+                        OrderEventOutboxService orderEventOutbox, CartPricing cartPricing) {
         this.orderRepository = orderRepository;
         this.customerRepository = customerRepository;
         this.cartRepository = cartRepository;
         this.driverRepository = driverRepository;
         this.cartService = cartService;
-        this.eventPublisher = eventPublisher;
+        this.orderBatchWriter = orderBatchWriter;
+        this.orderEventOutbox = orderEventOutbox;
+        this.cartPricing = cartPricing;
     }
 
     // 🎯 Create a new order
     @Transactional
     public Order createOrder(UUID customerId, UUID driverId) {
-        Customer customer = customerRepository.findById(customerId)
-            .orElseThrow(() -> new RuntimeException("Customer not found"));
+        return createOrder(customerId, driverId, null, null);
+    }
+
+    /**
+     * Checkout in a fixed number of statements whatever the cart size: one join-fetch for the cart with
+     * its customer, items and vendors, one batched flush for the order and its snapshot rows, one bulk
+     * DELETE for the cart lines. A repeated idempotency key returns the order the first call created;
+     * two racing calls with the same key are settled by the unique constraint on (customer_id, idempotency_key).
+     */
+    @Transactional
+    public Order createOrder(UUID customerId, UUID driverId, String deliveryAddress, String idempotencyKey) {
+        if (idempotencyKey != null) {
+            Optional<Order> existing = orderRepository.findByCustomerIdAndIdempotencyKey(customerId, idempotencyKey);
+            if (existing.isPresent()) {
+                return existing.get();
+            }
+        }
 
         DeliveryDriver driver = driverRepository.findById(driverId)
             .orElseThrow(() -> new RuntimeException("Driver not found"));
         
-        Cart cart = cartRepository.findByCustomer(customer)
+        // Cart changes are written behind; push this customer's pending ones before reading the cart rows
+        cartService.flushCart(customerId);
+
+        Cart cart = cartRepository.findForCheckoutByCustomerId(customerId)
             .orElseThrow(() -> new RuntimeException("Cart not found"));
 
         if (cart.getCartItems().isEmpty()) {
             throw new RuntimeException("Cart is empty");
         }
 
-        double total = calculateOrderTotal(cart);
-        double deliveryFee = 200.0;
-        total += deliveryFee;
-
         Order order = new Order();
-        order.setCustomer(customer);
-        order.setCart(cart);
+        order.setCustomer(cart.getCustomer());
         order.setStatus(OrderStatus.PENDING); // Start with PENDING status
         order.setOrderDate(LocalDateTime.now());
         order.setDeliveryDriver(driver);
+        order.setIdempotencyKey(idempotencyKey);
+        if (deliveryAddress != null && !deliveryAddress.trim().isEmpty()) {
+            order.setDeliveryAddress(deliveryAddress.trim());
+        }
+
+        // Freeze the cart into the order so history never has to go back through the live cart
+        snapshotCart(order, cart);
+
+        double total = calculateOrderTotal(order.getItems());
+        total += cartPricing.deliveryFee(deliveryZones(cart));
         order.setTotal(total);
 
-        // Clear the cart after order creation
+        order = orderRepository.save(order);
+
+        // Clear the cart once its lines are captured in the order snapshot; this also flushes the order insert
         cartService.clearCart(cart);
 
-        return orderRepository.save(order);
+        // Record the event so dashboard aggregates see the new order once it commits
+        orderEventOutbox.record(order, null, OrderStatus.PENDING);
+
+        return order;
     }
 
     // 🎯 Update order status with validation
     @Transactional
     public Order updateOrderStatus(UUID orderId, OrderStatus newStatus) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found"));
-
-        OrderStatus oldStatus = order.getStatus();
-
-        // Validate status transition
-        if (!oldStatus.canTransitionTo(newStatus)) {
-            throw new RuntimeException("Invalid status transition from " + 
-                oldStatus + " to " + newStatus);
-        }
+        return transition(orderId, newStatus,
+                current -> current.canTransitionTo(newStatus),
+                current -> "Invalid status transition from " + current + " to " + newStatus,
+                expected -> writeStatus(orderId, expected, newStatus));
+    }
 
-        // Handle specific status transitions
+    // One UPDATE per transition; the side effects of a status ride along in the same statement
+    private int writeStatus(UUID orderId, OrderStatus expected, OrderStatus newStatus) {
         switch (newStatus) {
-            case CONFIRMED:
-                // Restaurant has confirmed the order
-                break;
-            case PREPARING:
-                // Restaurant has started preparing
-                break;
-            case PAYMENT_PENDING:
-                // Payment is now required
-                break;
-            case PAYMENT_COMPLETED:
-                // Payment successful, can proceed to delivery
-                break;
-            case READY_FOR_PICKUP:
-                // Food is ready for driver pickup
-                break;
-            case DRIVER_ASSIGNED:
-                // Driver has been assigned
-                break;
-            case DRIVER_PICKED_UP:
-                // Driver has picked up the order
-                break;
-            case OUT_FOR_DELIVERY:
-                // Driver is delivering
-                break;
             case DELIVERED:
                 // Order has been delivered
-                order.setReceivedDate(LocalDateTime.now());
-                break;
-            case COMPLETED:
-                // Order is fully completed
-                break;
+                return orderRepository.transitionStatusReceived(orderId, expected, newStatus, LocalDateTime.now());
             case CANCELLED_BY_CUSTOMER:
             case CANCELLED_BY_RESTAURANT:
             case CANCELLED_BY_SYSTEM:
-                // Handle cancellation
-                handleOrderCancellation(order, newStatus);
-                break;
-            case REFUNDED:
-                // Handle refund
-                handleOrderRefund(order);
+                // Release driver if assigned
+                return orderRepository.transitionStatusWithDriver(orderId, expected, newStatus, null);
+            default:
+                // Refunds are only reachable from COMPLETED, which canTransitionTo already enforces
+                return orderRepository.transitionStatus(orderId, expected, newStatus);
+        }
+    }
+
+    /**
+     * Compare-and-set an order from its current status. If another writer moves the order between
+     * the status read and the UPDATE, the UPDATE matches no row; the status is read again and the
+     * transition re-validated, up to MAX_TRANSITION_ATTEMPTS times.
+     */
+    private Order transition(UUID orderId, OrderStatus newStatus,
+                             Predicate<OrderStatus> allowed,
+                             Function<OrderStatus, String> rejection,
+                             ToIntFunction<OrderStatus> write) {
+        return transition(orderId, null, newStatus, allowed, rejection, write);
+    }
+
+    // "via" names a step the UPDATE passes through without stopping; listeners still get an event for it
+    private Order transition(UUID orderId, OrderStatus via, OrderStatus newStatus,
+                             Predicate<OrderStatus> allowed,
+                             Function<OrderStatus, String> rejection,
+                             ToIntFunction<OrderStatus> write) {
+        for (int attempt = 1; attempt <= MAX_TRANSITION_ATTEMPTS; attempt++) {
+            OrderStatus current = orderRepository.findStatusById(orderId)
+                    .orElseThrow(() -> new RuntimeException("Order not found"));
+
+            if (!allowed.test(current)) {
+                throw new RuntimeException(rejection.apply(current));
+            }
+
+            if (write.applyAsInt(current) == 1) {
+                // Record the status change; listeners run after commit, off the request thread
+                if (via != null) {
+                    orderEventOutbox.recordTransition(orderId, current, via);
+                    orderEventOutbox.recordTransition(orderId, via, newStatus);
+                } else {
+                    orderEventOutbox.recordTransition(orderId, current, newStatus);
+                }
+                return orderRepository.findById(orderId)
+                        .orElseThrow(() -> new RuntimeException("Order not found"));
+            }
+        }
+        throw new OrderStatusConflictException("Order " + orderId + " kept changing while moving it to " + newStatus);
+    }
+
+    // 🎯 Move many orders at once: one status read, one batched UPDATE and one batched outbox insert per round.
+    // Invalid entries are reported per order and do not stop the rest of the batch.
+    @Transactional
+    public List<OrderStatusResultDTO> updateOrderStatuses(List<OrderStatusBatchDTO.StatusUpdateDTO> updates) {
+        if (updates == null || updates.isEmpty()) {
+            throw new IllegalArgumentException("No status updates given");
+        }
+        if (updates.size() > MAX_STATUS_BATCH) {
+            throw new IllegalArgumentException("At most " + MAX_STATUS_BATCH + " status updates per batch");
+        }
+
+        Map<UUID, OrderStatus> requested = new LinkedHashMap<>();
+        for (OrderStatusBatchDTO.StatusUpdateDTO update : updates) {
+            if (update.getOrderId() == null || update.getStatus() == null) {
+                throw new IllegalArgumentException("Each update needs an orderId and a status");
+            }
+            if (requested.putIfAbsent(update.getOrderId(), update.getStatus()) != null) {
+                throw new IllegalArgumentException("Order " + update.getOrderId() + " appears more than once");
+            }
+        }
+
+        Map<UUID, OrderStatusResultDTO> results = new HashMap<>();
+        List<OrderEventOutbox> events = new ArrayList<>();
+        Map<UUID, OrderStatus> lastSeen = new HashMap<>();
+        Set<UUID> pending = new LinkedHashSet<>(requested.keySet());
+
+        // Orders another writer moved between our read and our UPDATE are re-read and re-validated, as in transition()
+        for (int attempt = 1; attempt <= MAX_TRANSITION_ATTEMPTS && !pending.isEmpty(); attempt++) {
+            Map<UUID, OrderStatus> current = new HashMap<>();
+            orderRepository.findStatusesByIdIn(pending).forEach(row -> current.put(row.getId(), row.getStatus()));
+            lastSeen.putAll(current);
+
+            List<OrderBatchWriter.Transition> batch = new ArrayList<>();
+            for (UUID orderId : pending) {
+                OrderStatus from = current.get(orderId);
+                OrderStatus to = requested.get(orderId);
+                if (from == null) {
+                    results.put(orderId, OrderStatusResultDTO.rejected(orderId, null, "Order not found"));
+                } else if (!from.canTransitionTo(to)) {
+                    results.put(orderId, OrderStatusResultDTO.rejected(orderId, from,
+                            "Invalid status transition from " + from + " to " + to));
+                } else {
+                    batch.add(new OrderBatchWriter.Transition(orderId, from, to));
+                }
+            }
+            pending.clear();
+            if (batch.isEmpty()) {
                 break;
+            }
+
+            int[] updated = orderBatchWriter.compareAndSetStatuses(batch);
+            for (int i = 0; i < batch.size(); i++) {
+                OrderBatchWriter.Transition t = batch.get(i);
+                if (updated[i] == 0) {
+                    pending.add(t.orderId());
+                } else {
+                    results.put(t.orderId(), OrderStatusResultDTO.applied(t.orderId(), t.expected(), t.newStatus()));
+                    events.add(new OrderEventOutbox(t.orderId(), t.expected(), t.newStatus(), true));
+                }
+            }
+        }
+        for (UUID orderId : pending) {
+            results.put(orderId, OrderStatusResultDTO.rejected(orderId, lastSeen.get(orderId),
+                    "Order kept changing, try again"));
         }
 
-        order.setStatus(newStatus);
-        order = orderRepository.save(order);
-        
-        // Publish event for status change
-        eventPublisher.publishEvent(new OrderStatusChangeEvent(this, order, oldStatus, newStatus));
-        
-        return order;
+        // Record all applied changes together; listeners run after commit, off the request thread
+        orderEventOutbox.recordTransitions(events);
+
+        return requested.keySet().stream().map(results::get).toList();
     }
 
     // 🎯 Cancel an order
@@ -155,10 +280,10 @@ public class OrderService {
     // 🎯 Process payment for an order
     @Transactional
     public Order processOrderPayment(UUID orderId, PaymentMethod paymentMethod) {
-        Order order = orderRepository.findById(orderId)
+        OrderStatus status = orderRepository.findStatusById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
 
-        if (!order.getStatus().isPaymentState() && order.getStatus() != OrderStatus.PREPARING) {
+        if (!status.isPaymentState() && status != OrderStatus.PREPARING) {
             throw new RuntimeException("Order is not in a payment state");
         }
 
@@ -169,97 +294,124 @@ public class OrderService {
     // 🎯 Assign driver to order
     @Transactional
     public Order assignDriver(UUID orderId, UUID driverId) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found"));
-
-        if (order.getStatus() != OrderStatus.READY_FOR_PICKUP) {
-            throw new RuntimeException("Order is not ready for driver assignment");
-        }
-
         DeliveryDriver driver = driverRepository.findById(driverId)
                 .orElseThrow(() -> new RuntimeException("Driver not found"));
 
-        order.setDeliveryDriver(driver);
-        return updateOrderStatus(orderId, OrderStatus.DRIVER_ASSIGNED);
+        return transition(orderId, OrderStatus.DRIVER_ASSIGNED,
+                current -> current == OrderStatus.READY_FOR_PICKUP,
+                current -> "Order is not ready for driver assignment",
+                expected -> orderRepository.transitionStatusWithDriver(orderId, expected, OrderStatus.DRIVER_ASSIGNED, driver));
     }
 
     // 🎯 Mark order as picked up by driver
     @Transactional
     public Order markOrderPickedUp(UUID orderId) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found"));
-
-        if (order.getStatus() != OrderStatus.DRIVER_ASSIGNED) {
-            throw new RuntimeException("Order is not assigned to a driver");
-        }
-
-        return updateOrderStatus(orderId, OrderStatus.DRIVER_PICKED_UP);
+        return transition(orderId, OrderStatus.DRIVER_PICKED_UP,
+                current -> current == OrderStatus.DRIVER_ASSIGNED,
+                current -> "Order is not assigned to a driver",
+                expected -> orderRepository.transitionStatus(orderId, expected, OrderStatus.DRIVER_PICKED_UP));
     }
 
     // 🎯 Mark order as out for delivery
     @Transactional
     public Order markOrderOutForDelivery(UUID orderId) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found"));
-
-        if (order.getStatus() != OrderStatus.DRIVER_PICKED_UP) {
-            throw new RuntimeException("Order has not been picked up by driver");
-        }
-
-        return updateOrderStatus(orderId, OrderStatus.OUT_FOR_DELIVERY);
+        return transition(orderId, OrderStatus.OUT_FOR_DELIVERY,
+                current -> current == OrderStatus.DRIVER_PICKED_UP,
+                current -> "Order has not been picked up by driver",
+                expected -> orderRepository.transitionStatus(orderId, expected, OrderStatus.OUT_FOR_DELIVERY));
     }
 
-    // 🎯 Mark order as delivered
+    // 🎯 Mark order as delivered; delivery completes the order, so both steps land in one UPDATE
     @Transactional
     public Order markOrderDelivered(UUID orderId) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found"));
+        return transition(orderId, OrderStatus.DELIVERED, OrderStatus.COMPLETED,
+                current -> current == OrderStatus.OUT_FOR_DELIVERY,
+                current -> "Order is not out for delivery",
+                expected -> orderRepository.transitionStatusReceived(orderId, expected, OrderStatus.COMPLETED,
+                        LocalDateTime.now()));
+    }
 
-        if (order.getStatus() != OrderStatus.OUT_FOR_DELIVERY) {
-            throw new RuntimeException("Order is not out for delivery");
+    // Helper methods
+    private void snapshotCart(Order order, Cart cart) {
+        List<ItemSummary> items = new ArrayList<>();
+        Map<UUID, VendorSummary> vendors = new LinkedHashMap<>();
+
+        for (CartItem cartItem : cart.getCartItems()) {
+            Item item = cartItem.getItem();
+            Vendor vendor = item.getVendor();
+
+            items.add(new ItemSummary(item.getId(), item.getName(), item.getDescription(),
+                    discountedPrice(item), cartItem.getQuantity(),
+                    vendor != null ? vendor.getId() : null,
+                    vendor != null ? vendor.getName() : null));
+
+            if (vendor != null) {
+                vendors.computeIfAbsent(vendor.getId(), id -> new VendorSummary(id, vendor.getName(),
+                        vendor.getVendorType() != null ? vendor.getVendorType().name() : null));
+            }
         }
 
-        order = updateOrderStatus(orderId, OrderStatus.DELIVERED);
-        return updateOrderStatus(orderId, OrderStatus.COMPLETED);
+        order.setItems(items);
+        order.setVendors(new ArrayList<>(vendors.values()));
     }
 
-    // Helper methods
-    private double calculateOrderTotal(Cart cart) {
-        return cart.getCartItems().stream()
-                .mapToDouble(item -> item.getItem().getPrice() * item.getQuantity())
-                .sum();
+    private double discountedPrice(Item item) {
+        return CartPricing.discountedPrice(item.getPrice(), item.getDiscountPercentage());
     }
 
-    private void handleOrderCancellation(Order order, OrderStatus cancellationType) {
-        // Handle any cleanup needed for cancellation
-        // For example, notify customer, restaurant, or driver
-        // Release driver if assigned
-        if (order.getDeliveryDriver() != null) {
-            order.setDeliveryDriver(null);
+    // Vendor locations of the cart's items; a line without a vendor counts as an unknown zone
+    private List<String> deliveryZones(Cart cart) {
+        List<String> zones = new ArrayList<>();
+        for (CartItem cartItem : cart.getCartItems()) {
+            Vendor vendor = cartItem.getItem().getVendor();
+            zones.add(vendor != null ? vendor.getLocation() : null);
         }
+        return zones;
     }
 
-    private void handleOrderRefund(Order order) {
-        // Handle refund process
-        // This might involve calling payment service to process refund
-        if (order.getStatus() != OrderStatus.COMPLETED) {
-            throw new RuntimeException("Only completed orders can be refunded");
-        }
+    private double calculateOrderTotal(List<ItemSummary> items) {
+        return items.stream()
+                .mapToDouble(ItemSummary::getLineTotal)
+                .sum();
+    }
+
+    public Optional<Order> getOrderByIdempotencyKey(UUID customerId, String idempotencyKey) {
+        return orderRepository.findByCustomerIdAndIdempotencyKey(customerId, idempotencyKey);
     }
 
-    // 🎯 Get order by ID
+    // 🎯 Get order by ID (detail view loads the line snapshot with the order)
     public Optional<Order> getOrderById(UUID id) {
-        return orderRepository.findById(id);
+        return orderRepository.findDetailById(id);
     }
 
-    // 🎯 Get all orders
-    public List<Order> getAllOrders() {
-        return orderRepository.findAll();
+    // 🎯 Get all orders, one keyset page at a time
+    public CursorPageDTO<OrderSummaryDTO> getOrders(String cursor, int size) {
+        int pageSize = KeysetCursor.clampPageSize(size);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        List<OrderSummaryDTO> rows;
+        if (cursor == null) {
+            rows = orderRepository.findSummaries(limit);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            rows = orderRepository.findSummariesAfter(after.timestamp(), after.id(), limit);
+        }
+        return toCursorPage(rows, pageSize);
     }
 
     // 🎯 Get orders by status
-    public List<Order> getOrdersByStatus(OrderStatus status) {
-        return orderRepository.findByStatus(status);
+    public CursorPageDTO<OrderSummaryDTO> getOrdersByStatus(OrderStatus status, String cursor, int size) {
+        int pageSize = KeysetCursor.clampPageSize(size);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        List<OrderSummaryDTO> rows;
+        if (cursor == null) {
+            rows = orderRepository.findSummariesByStatus(status, limit);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            rows = orderRepository.findSummariesByStatusAfter(status, after.timestamp(), after.id(), limit);
+        }
+        return toCursorPage(rows, pageSize);
     }
 
     // 🎯 Get all orders for a specific customer
@@ -273,8 +425,23 @@ public class OrderService {
     }
 
     // 🎯 Get orders in a specific date range
-    public List<Order> getOrdersInDateRange(LocalDateTime start, LocalDateTime end) {
-        return orderRepository.findByOrderDateBetween(start, end);
+    public CursorPageDTO<OrderSummaryDTO> getOrdersInDateRange(LocalDateTime start, LocalDateTime end,
+                                                               String cursor, int size) {
+        int pageSize = KeysetCursor.clampPageSize(size);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        List<OrderSummaryDTO> rows;
+        if (cursor == null) {
+            rows = orderRepository.findSummariesInRange(start, end, limit);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            rows = orderRepository.findSummariesInRangeAfter(start, end, after.timestamp(), after.id(), limit);
+        }
+        return toCursorPage(rows, pageSize);
+    }
+
+    private static CursorPageDTO<OrderSummaryDTO> toCursorPage(List<OrderSummaryDTO> rows, int pageSize) {
+        return CursorPageDTO.fromOverfetch(rows, pageSize, last -> new KeysetCursor(last.getOrderDate(), last.getId()));
     }
 
     // 🎯 Get completed orders for a customer
@@ -283,8 +450,18 @@ public class OrderService {
     }
 
     // 🎯 Get unassigned orders
-    public List<Order> getUnassignedOrders() {
-        return orderRepository.findByDeliveryDriverIsNull();
+    public CursorPageDTO<OrderSummaryDTO> getUnassignedOrders(String cursor, int size) {
+        int pageSize = KeysetCursor.clampPageSize(size);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        List<OrderSummaryDTO> rows;
+        if (cursor == null) {
+            rows = orderRepository.findUnassignedSummaries(limit);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            rows = orderRepository.findUnassignedSummariesAfter(after.timestamp(), after.id(), limit);
+        }
+        return toCursorPage(rows, pageSize);
     }
 
     // 🎯 Count total orders by status
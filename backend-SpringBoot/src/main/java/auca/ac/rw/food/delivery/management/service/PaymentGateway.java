@@ -0,0 +1,31 @@
+package auca.ac.rw.food.delivery.management.service;
+
+import auca.ac.rw.food.delivery.management.model.enums.PaymentMethod;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Charges a payment with an external provider. Implementations return straight away and
+ * complete the future when the provider answers, so no thread waits on the network round trip.
+ * The payment id is sent as the provider's idempotency key; charging the same payment twice
+ * must not take the money twice.
+ */
+public interface PaymentGateway {
+
+    CompletableFuture<GatewayResult> charge(ChargeRequest request);
+
+    record ChargeRequest(UUID paymentId, UUID orderId, double amount, PaymentMethod method) {
+    }
+
+    record GatewayResult(boolean approved, String reference, String message) {
+
+        public static GatewayResult approved(String reference) {
+            return new GatewayResult(true, reference, null);
+        }
+
+        public static GatewayResult declined(String message) {
+            return new GatewayResult(false, null, message);
+        }
+    }
+}
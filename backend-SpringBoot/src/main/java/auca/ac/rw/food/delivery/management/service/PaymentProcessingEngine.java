@@ -0,0 +1,124 @@
+package auca.ac.rw.food.delivery.management.service;
+
+import auca.ac.rw.food.delivery.management.model.enums.PaymentMethod;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs gateway charges off the request thread. Each payment method has its own in-flight limit
+ * and its own bounded waiting line, so a slow provider for one method cannot starve the others.
+ * Gateway calls are asynchronous; threads are only used for the short completion step that
+ * writes the result back, on a fixed-size pool.
+ */
+@Component
+public class PaymentProcessingEngine {
+
+    private final PaymentGateway gateway;
+    private final long timeoutMs;
+    private final int maxQueuedPerMethod;
+    private final ThreadPoolExecutor completionExecutor;
+    private final Map<PaymentMethod, Lane> lanes = new EnumMap<>(PaymentMethod.class);
+
+    public PaymentProcessingEngine(PaymentGateway gateway,
+                                   @Value("${app.payments.max-in-flight-per-method:64}") int maxInFlightPerMethod,
+                                   @Value("${app.payments.max-queued-per-method:1000}") int maxQueuedPerMethod,
+                                   @Value("${app.payments.completion-threads:8}") int completionThreads,
+                                   @Value("${app.payments.completion-queue:1000}") int completionQueue,
+                                   @Value("${app.payments.gateway-timeout-ms:30000}") long timeoutMs) {
+        this.gateway = gateway;
+        this.timeoutMs = timeoutMs;
+        this.maxQueuedPerMethod = maxQueuedPerMethod;
+        AtomicInteger counter = new AtomicInteger();
+        // Caller runs when the pool is saturated, which slows the gateway callbacks down instead of losing results
+        this.completionExecutor = new ThreadPoolExecutor(completionThreads, completionThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(completionQueue),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "payment-completion-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        for (PaymentMethod method : PaymentMethod.values()) {
+            lanes.put(method, new Lane(maxInFlightPerMethod));
+        }
+    }
+
+    // 🎯 Checked before accepting a payment so an overloaded method is refused up front, not dropped later
+    public boolean hasCapacity(PaymentMethod method) {
+        return lanes.get(method).queued.get() < maxQueuedPerMethod;
+    }
+
+    // 🎯 Queue a charge; onResult runs on the completion pool once the gateway answers or times out
+    public void submit(PaymentGateway.ChargeRequest request, Consumer<PaymentGateway.GatewayResult> onResult) {
+        Lane lane = lanes.get(request.method());
+        lane.queued.incrementAndGet();
+        lane.waiting.add(new Job(request, onResult));
+        pump(lane);
+    }
+
+    private void pump(Lane lane) {
+        while (!lane.waiting.isEmpty() && lane.permits.tryAcquire()) {
+            Job job = lane.waiting.poll();
+            if (job == null) {
+                lane.permits.release();
+                continue;
+            }
+            lane.queued.decrementAndGet();
+            start(lane, job);
+        }
+    }
+
+    private void start(Lane lane, Job job) {
+        CompletableFuture<PaymentGateway.GatewayResult> charge;
+        try {
+            charge = gateway.charge(job.request());
+        } catch (RuntimeException e) {
+            charge = CompletableFuture.failedFuture(e);
+        }
+
+        charge.orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .whenCompleteAsync((result, error) -> {
+                    try {
+                        job.onResult().accept(error == null ? result
+                                : PaymentGateway.GatewayResult.declined("Gateway error: " + error.getMessage()));
+                    } catch (RuntimeException e) {
+                        System.out.println("Failed to record payment result for " + job.request().paymentId()
+                                + ": " + e.getMessage());
+                    } finally {
+                        lane.permits.release();
+                        pump(lane);
+                    }
+                }, completionExecutor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        completionExecutor.shutdown();
+    }
+
+    private record Job(PaymentGateway.ChargeRequest request, Consumer<PaymentGateway.GatewayResult> onResult) {
+    }
+
+    private static class Lane {
+        private final Semaphore permits;
+        private final Queue<Job> waiting = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+
+        Lane(int maxInFlight) {
+            this.permits = new Semaphore(maxInFlight);
+        }
+    }
+}
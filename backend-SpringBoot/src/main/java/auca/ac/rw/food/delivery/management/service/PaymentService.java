@@ -1,5 +1,8 @@
 package auca.ac.rw.food.delivery.management.service;
 
+import auca.ac.rw.food.delivery.management.config.PaymentCapacityException;
+import auca.ac.rw.food.delivery.management.DTO.CursorPageDTO;
+import auca.ac.rw.food.delivery.management.DTO.PaymentSummaryDTO;
 import auca.ac.rw.food.delivery.management.event.OrderStatusChangeEvent;
 import auca.ac.rw.food.delivery.management.model.Payment;
 import auca.ac.rw.food.delivery.management.model.Order;
@@ -8,12 +11,23 @@ import auca.ac.rw.food.delivery.management.model.enums.PaymentStatus;
 import auca.ac.rw.food.delivery.management.model.enums.OrderStatus;
 import auca.ac.rw.food.delivery.management.repository.PaymentRepository;
 import auca.ac.rw.food.delivery.management.repository.OrderRepository;
-import org.springframework.context.ApplicationEventPublisher;
+import auca.ac.rw.food.delivery.management.util.KeysetCursor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -23,18 +37,32 @@ public class PaymentService {
 
     private final PaymentRepository paymentRepository;
     private final OrderRepository orderRepository;
-    private final ApplicationEventPublisher eventPublisher;
+    private final OrderEventOutboxService orderEventOutbox;
+    private final OrderService orderService;
+    private final PaymentProcessingEngine processingEngine;
+    private final TransactionTemplate transactionTemplate;
+
+    private static final long CAPACITY_RETRY_AFTER_SECONDS = 5;
 
     public PaymentService(PaymentRepository paymentRepository, 
                          OrderRepository orderRepository,
-                         ApplicationEventPublisher eventPublisher) {
+                         OrderEventOutboxService orderEventOutbox,
+                         OrderService orderService,
+                         PaymentProcessingEngine processingEngine,
+                         TransactionTemplate transactionTemplate) {
         this.paymentRepository = paymentRepository;
         this.orderRepository = orderRepository;
-        this.eventPublisher = eventPublisher;
+        this.orderEventOutbox = orderEventOutbox;
+        this.orderService = orderService;
+        this.processingEngine = processingEngine;
+        this.transactionTemplate = transactionTemplate;
     }
 
-    @EventListener
-    @Transactional
+    // Runs after the status change committed, in its own transaction, so a failure here is retried
+    // from the outbox instead of rolling the change back. The payment is only written when it is not
+    // already in the status the event implies, so a repeated delivery changes nothing.
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void handleOrderStatusChange(OrderStatusChangeEvent event) {
         Order order = event.getOrder();
         OrderStatus newStatus = event.getNewStatus();
@@ -50,34 +78,28 @@ public class PaymentService {
                 break;
             case PAYMENT_COMPLETED:
                 // Payment was successful
-                Optional<Payment> paymentOpt = paymentRepository.findByOrder(order);
-                if (paymentOpt.isPresent()) {
-                    Payment payment = paymentOpt.get();
-                    payment.setStatus(PaymentStatus.COMPLETED);
-                    paymentRepository.save(payment);
-                }
+                applyPaymentStatus(order, PaymentStatus.COMPLETED);
                 break;
             case PAYMENT_FAILED:
                 // Payment failed
-                paymentOpt = paymentRepository.findByOrder(order);
-                if (paymentOpt.isPresent()) {
-                    Payment payment = paymentOpt.get();
-                    payment.setStatus(PaymentStatus.FAILED);
-                    paymentRepository.save(payment);
-                }
+                applyPaymentStatus(order, PaymentStatus.FAILED);
                 break;
             case REFUNDED:
                 // Handle refund
-                paymentOpt = paymentRepository.findByOrder(order);
-                if (paymentOpt.isPresent()) {
-                    Payment payment = paymentOpt.get();
-                    payment.setStatus(PaymentStatus.REFUNDED);
-                    paymentRepository.save(payment);
-                }
+                applyPaymentStatus(order, PaymentStatus.REFUNDED);
                 break;
         }
     }
 
+    private void applyPaymentStatus(Order order, PaymentStatus target) {
+        paymentRepository.findByOrder(order)
+                .filter(payment -> payment.getStatus() != target)
+                .ifPresent(payment -> {
+                    payment.setStatus(target);
+                    paymentRepository.save(payment);
+                });
+    }
+
     // ✅ Create a new payment for an order
     @Transactional
     public Payment createPayment(UUID orderId, PaymentMethod paymentMethod) {
@@ -97,13 +119,13 @@ public class PaymentService {
         Payment payment = new Payment(order.getTotal(), paymentMethod, order);
         payment = paymentRepository.save(payment);
 
-        // Publish event for payment creation
-        eventPublisher.publishEvent(new OrderStatusChangeEvent(this, order, order.getStatus(), OrderStatus.PAYMENT_PENDING));
+        // Record event for payment creation
+        orderEventOutbox.record(order, order.getStatus(), OrderStatus.PAYMENT_PENDING);
 
         return payment;
     }
 
-    // ✅ Process a payment
+    // ✅ Accept a payment for processing; the gateway call runs in the background once this commits
     @Transactional
     public Payment processPayment(UUID paymentId) {
         Payment payment = paymentRepository.findById(paymentId)
@@ -112,41 +134,113 @@ public class PaymentService {
         if (payment.getStatus() != PaymentStatus.PENDING) {
             throw new RuntimeException("Payment is not in PENDING status");
         }
+        if (!processingEngine.hasCapacity(payment.getPaymentMethod())) {
+            throw new PaymentCapacityException("Too many " + payment.getPaymentMethod() + " payments in progress, try again shortly",
+                    CAPACITY_RETRY_AFTER_SECONDS);
+        }
 
         Order order = payment.getOrder();
 
+        // Walk the order into PAYMENT_PROCESSING through the state machine
+        if (order.getStatus() == OrderStatus.PREPARING || order.getStatus() == OrderStatus.PAYMENT_FAILED) {
+            order = orderService.updateOrderStatus(order.getId(), OrderStatus.PAYMENT_PENDING);
+        }
+        if (order.getStatus() != OrderStatus.PAYMENT_PROCESSING) {
+            order = orderService.updateOrderStatus(order.getId(), OrderStatus.PAYMENT_PROCESSING);
+        }
+
         // Update payment status to processing
         payment.setStatus(PaymentStatus.PROCESSING);
         payment = paymentRepository.save(payment);
 
-        // Publish event for payment processing
-        eventPublisher.publishEvent(new OrderStatusChangeEvent(this, order, order.getStatus(), OrderStatus.PAYMENT_PROCESSING));
+        submitAfterCommit(payment, order);
+        return payment;
+    }
 
-        try {
-            // TODO: Integrate with actual payment gateway
-            Thread.sleep(3000); // Simulate processing time
-            
-            // Update payment status to completed
-            payment.setStatus(PaymentStatus.COMPLETED);
-            payment = paymentRepository.save(payment);
-
-            // Publish event for payment completion
-            eventPublisher.publishEvent(new OrderStatusChangeEvent(this, order, order.getStatus(), OrderStatus.PAYMENT_COMPLETED));
-
-            // If order was in preparing state, move it to ready for pickup
-            if (order.getStatus() == OrderStatus.PAYMENT_COMPLETED) {
-                eventPublisher.publishEvent(new OrderStatusChangeEvent(this, order, order.getStatus(), OrderStatus.READY_FOR_PICKUP));
+    // Hand over to the engine only once PROCESSING is committed, so the result can never land first
+    private void submitAfterCommit(Payment payment, Order order) {
+        PaymentGateway.ChargeRequest request = new PaymentGateway.ChargeRequest(
+                payment.getId(), order.getId(), payment.getAmount(), payment.getPaymentMethod());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                processingEngine.submit(request, result -> completeProcessing(request.paymentId(), result));
             }
-        } catch (Exception e) {
-            // Update payment status to failed
-            payment.setStatus(PaymentStatus.FAILED);
-            payment = paymentRepository.save(payment);
+        });
+    }
 
-            // Publish event for payment failure
-            eventPublisher.publishEvent(new OrderStatusChangeEvent(this, order, order.getStatus(), OrderStatus.PAYMENT_FAILED));
+    /**
+     * Records the gateway's answer, then moves the order on through the state machine. The
+     * payment is committed on its own first: the charge has happened whatever the order does
+     * next, so a conflicting or failed status update must not roll it back to PROCESSING.
+     * Each order step commits separately too, and whatever is left is picked up again by
+     * {@link #advanceLaggingOrders()}.
+     */
+    private void completeProcessing(UUID paymentId, PaymentGateway.GatewayResult result) {
+        Boolean settled = transactionTemplate.execute(status -> {
+            Payment payment = paymentRepository.findById(paymentId).orElse(null);
+            if (payment == null || payment.getStatus() != PaymentStatus.PROCESSING) {
+                // Already settled (e.g. a duplicate answer after a restart)
+                return false;
+            }
+            payment.setStatus(result.approved() ? PaymentStatus.COMPLETED : PaymentStatus.FAILED);
+            paymentRepository.save(payment);
+            return true;
+        });
+        if (Boolean.TRUE.equals(settled)) {
+            if (!result.approved()) {
+                System.out.println("Payment " + paymentId + " failed: " + result.message());
+            }
+            advanceOrder(paymentId);
         }
+    }
 
-        return payment;
+    // 🎯 Bring the order in line with its settled payment; every step checks where the order is, so repeating is harmless
+    private void advanceOrder(UUID paymentId) {
+        try {
+            Payment payment = paymentRepository.findById(paymentId).orElse(null);
+            if (payment == null || payment.getOrder() == null) {
+                return;
+            }
+            UUID orderId = payment.getOrder().getId();
+            OrderStatus current = payment.getOrder().getStatus();
+            if (payment.getStatus() == PaymentStatus.COMPLETED) {
+                if (current == OrderStatus.PAYMENT_PROCESSING) {
+                    current = orderService.updateOrderStatus(orderId, OrderStatus.PAYMENT_COMPLETED).getStatus();
+                }
+                if (current == OrderStatus.PAYMENT_COMPLETED) {
+                    // Payment was taken while the food was being prepared, so it moves on to pickup
+                    orderService.updateOrderStatus(orderId, OrderStatus.READY_FOR_PICKUP);
+                }
+            } else if (payment.getStatus() == PaymentStatus.FAILED && current == OrderStatus.PAYMENT_PROCESSING) {
+                orderService.updateOrderStatus(orderId, OrderStatus.PAYMENT_FAILED);
+            }
+        } catch (RuntimeException e) {
+            // The payment is recorded; the retry below moves the order on later
+            System.out.println("Order update for payment " + paymentId + " failed, will retry: " + e.getMessage());
+        }
+    }
+
+    // ✅ Retry orders left behind their payment by a failed or interrupted status update
+    @Scheduled(fixedDelayString = "${app.payments.order-retry-interval-ms:30000}")
+    public void advanceLaggingOrders() {
+        List<UUID> lagging = new ArrayList<>(paymentRepository.findIdsByStatusAndOrderStatusIn(PaymentStatus.COMPLETED,
+                List.of(OrderStatus.PAYMENT_PROCESSING, OrderStatus.PAYMENT_COMPLETED)));
+        lagging.addAll(paymentRepository.findIdsByStatusAndOrderStatusIn(PaymentStatus.FAILED,
+                List.of(OrderStatus.PAYMENT_PROCESSING)));
+        lagging.forEach(this::advanceOrder);
+    }
+
+    // ✅ Payments still PROCESSING after a restart lost their in-memory job; charge them again
+    // (the payment id is the gateway's idempotency key, so an already taken charge is not repeated)
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeProcessing() {
+        for (Payment payment : paymentRepository.findByStatus(PaymentStatus.PROCESSING)) {
+            PaymentGateway.ChargeRequest request = new PaymentGateway.ChargeRequest(payment.getId(),
+                    payment.getOrder() != null ? payment.getOrder().getId() : null,
+                    payment.getAmount(), payment.getPaymentMethod());
+            processingEngine.submit(request, result -> completeProcessing(request.paymentId(), result));
+        }
     }
 
     // ✅ Get payment by ID
@@ -159,29 +253,84 @@ public class PaymentService {
         return paymentRepository.findByOrder(order);
     }
 
-    // ✅ Get all payments
-    public List<Payment> getAllPayments() {
-        return paymentRepository.findAll();
+    // ✅ Get all payments, one keyset page at a time
+    public CursorPageDTO<PaymentSummaryDTO> getPayments(String cursor, int size) {
+        int pageSize = KeysetCursor.clampPageSize(size);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        List<PaymentSummaryDTO> rows;
+        if (cursor == null) {
+            rows = paymentRepository.findSummaries(limit);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            rows = paymentRepository.findSummariesAfter(after.timestamp(), after.id(), limit);
+        }
+        return toCursorPage(rows, pageSize);
     }
 
     // ✅ Get payments by status
-    public List<Payment> getPaymentsByStatus(PaymentStatus status) {
-        return paymentRepository.findByStatus(status);
+    public CursorPageDTO<PaymentSummaryDTO> getPaymentsByStatus(PaymentStatus status, String cursor, int size) {
+        int pageSize = KeysetCursor.clampPageSize(size);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        List<PaymentSummaryDTO> rows;
+        if (cursor == null) {
+            rows = paymentRepository.findSummariesByStatus(status, limit);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            rows = paymentRepository.findSummariesByStatusAfter(status, after.timestamp(), after.id(), limit);
+        }
+        return toCursorPage(rows, pageSize);
     }
 
     // ✅ Get payments by method
-    public List<Payment> getPaymentsByMethod(PaymentMethod paymentMethod) {
-        return paymentRepository.findByPaymentMethod(paymentMethod);
+    public CursorPageDTO<PaymentSummaryDTO> getPaymentsByMethod(PaymentMethod paymentMethod, String cursor, int size) {
+        int pageSize = KeysetCursor.clampPageSize(size);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        List<PaymentSummaryDTO> rows;
+        if (cursor == null) {
+            rows = paymentRepository.findSummariesByMethod(paymentMethod, limit);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            rows = paymentRepository.findSummariesByMethodAfter(paymentMethod, after.timestamp(), after.id(), limit);
+        }
+        return toCursorPage(rows, pageSize);
     }
 
     // ✅ Get payments in date range
-    public List<Payment> getPaymentsInDateRange(LocalDateTime start, LocalDateTime end) {
-        return paymentRepository.findByPaymentDateBetween(start, end);
+    public CursorPageDTO<PaymentSummaryDTO> getPaymentsInDateRange(LocalDateTime start, LocalDateTime end,
+                                                                   String cursor, int size) {
+        int pageSize = KeysetCursor.clampPageSize(size);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        List<PaymentSummaryDTO> rows;
+        if (cursor == null) {
+            rows = paymentRepository.findSummariesInRange(start, end, limit);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            rows = paymentRepository.findSummariesInRangeAfter(start, end, after.timestamp(), after.id(), limit);
+        }
+        return toCursorPage(rows, pageSize);
     }
 
     // ✅ Get payments above amount
-    public List<Payment> getPaymentsAboveAmount(double amount) {
-        return paymentRepository.findByAmountGreaterThan(amount);
+    public CursorPageDTO<PaymentSummaryDTO> getPaymentsAboveAmount(double amount, String cursor, int size) {
+        int pageSize = KeysetCursor.clampPageSize(size);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        List<PaymentSummaryDTO> rows;
+        if (cursor == null) {
+            rows = paymentRepository.findSummariesAboveAmount(amount, limit);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            rows = paymentRepository.findSummariesAboveAmountAfter(amount, after.timestamp(), after.id(), limit);
+        }
+        return toCursorPage(rows, pageSize);
+    }
+
+    private static CursorPageDTO<PaymentSummaryDTO> toCursorPage(List<PaymentSummaryDTO> rows, int pageSize) {
+        return CursorPageDTO.fromOverfetch(rows, pageSize, last -> new KeysetCursor(last.getPaymentDate(), last.getId()));
     }
 
     // ✅ Refund a payment
@@ -200,8 +349,8 @@ public class PaymentService {
         payment.setStatus(PaymentStatus.REFUNDED);
         payment = paymentRepository.save(payment);
 
-        // Publish event for refund
-        eventPublisher.publishEvent(new OrderStatusChangeEvent(this, order, order.getStatus(), OrderStatus.REFUNDED));
+        // Record event for refund
+        orderEventOutbox.record(order, order.getStatus(), OrderStatus.REFUNDED);
 
         return payment;
     }
@@ -225,10 +374,10 @@ public class PaymentService {
         // Publish appropriate event based on order status
         if (order.getStatus() == OrderStatus.PAYMENT_PENDING) {
             // If payment was pending, move back to preparing
-            eventPublisher.publishEvent(new OrderStatusChangeEvent(this, order, order.getStatus(), OrderStatus.PREPARING));
+            orderEventOutbox.record(order, order.getStatus(), OrderStatus.PREPARING);
         } else {
             // Otherwise, mark as cancelled by system
-            eventPublisher.publishEvent(new OrderStatusChangeEvent(this, order, order.getStatus(), OrderStatus.CANCELLED_BY_SYSTEM));
+            orderEventOutbox.record(order, order.getStatus(), OrderStatus.CANCELLED_BY_SYSTEM);
         }
 
         return payment;
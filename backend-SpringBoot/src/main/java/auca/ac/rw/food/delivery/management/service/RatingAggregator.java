@@ -0,0 +1,281 @@
+package auca.ac.rw.food.delivery.management.service;
+
+import auca.ac.rw.food.delivery.management.DTO.RatingHistogramDTO;
+import auca.ac.rw.food.delivery.management.event.CatalogChangeEvent;
+import auca.ac.rw.food.delivery.management.model.Item;
+import auca.ac.rw.food.delivery.management.model.RatingBucket;
+import auca.ac.rw.food.delivery.management.model.enums.ItemCategory;
+import auca.ac.rw.food.delivery.management.model.enums.RatingSubject;
+import auca.ac.rw.food.delivery.management.repository.ItemRepository;
+import auca.ac.rw.food.delivery.management.repository.RatingBatchWriter;
+import auca.ac.rw.food.delivery.management.repository.RatingBucketRepository;
+import auca.ac.rw.food.delivery.management.repository.VendorRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Takes vendor and item ratings without touching the database on the request path. Each rated
+ * vendor or item has one LongAdder per star value; an adder spreads concurrent increments over
+ * separate cells, so a burst of ratings on one vendor never waits on a lock or a row, and the
+ * sum and count both follow from the per-star counts. A timer moves what built up since the
+ * last flush into the database as additive updates, then tells the catalog caches once for the
+ * whole flush which ratings moved. One tally is kept per vendor or item rated since startup.
+ * Counts are local to this instance; ratings newer than the last flush are lost if the process
+ * dies without running its shutdown flush.
+ */
+@Component
+public class RatingAggregator {
+
+    public static final int MIN_STARS = 1;
+    public static final int MAX_STARS = 5;
+
+    private final VendorRepository vendorRepository;
+    private final ItemRepository itemRepository;
+    private final RatingBucketRepository ratingBucketRepository;
+    private final RatingBatchWriter ratingBatchWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ConcurrentHashMap<Subject, Tally> tallies = new ConcurrentHashMap<>();
+
+    // Keeps a shutdown flush from running alongside a timed one
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public RatingAggregator(VendorRepository vendorRepository, ItemRepository itemRepository,
+                            RatingBucketRepository ratingBucketRepository, RatingBatchWriter ratingBatchWriter,
+                            TransactionTemplate transactionTemplate, ApplicationEventPublisher eventPublisher) {
+        this.vendorRepository = vendorRepository;
+        this.itemRepository = itemRepository;
+        this.ratingBucketRepository = ratingBucketRepository;
+        this.ratingBatchWriter = ratingBatchWriter;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    private record Subject(RatingSubject type, UUID id) {
+    }
+
+    private static final class Tally {
+        private final LongAdder[] stars = new LongAdder[MAX_STARS];
+
+        Tally() {
+            for (int i = 0; i < stars.length; i++) {
+                stars[i] = new LongAdder();
+            }
+        }
+
+        void add(int value) {
+            stars[value - MIN_STARS].increment();
+        }
+
+        long[] counts() {
+            long[] counts = new long[stars.length];
+            for (int i = 0; i < stars.length; i++) {
+                counts[i] = stars[i].sum();
+            }
+            return counts;
+        }
+
+        // Takes away what it read instead of resetting, so an increment landing meanwhile stays for the next flush
+        Drained drain(Subject subject) {
+            long[] counts = counts();
+            boolean any = false;
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] != 0) {
+                    stars[i].add(-counts[i]);
+                    any = true;
+                }
+            }
+            return any ? new Drained(subject, this, counts) : null;
+        }
+    }
+
+    private record Drained(Subject subject, Tally tally, long[] counts) {
+        long count() {
+            long count = 0;
+            for (long c : counts) {
+                count += c;
+            }
+            return count;
+        }
+
+        long sum() {
+            long sum = 0;
+            for (int i = 0; i < counts.length; i++) {
+                sum += (i + MIN_STARS) * counts[i];
+            }
+            return sum;
+        }
+
+        void restore() {
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] != 0) {
+                    tally.stars[i].add(counts[i]);
+                }
+            }
+        }
+    }
+
+    // 🎯 Count one rating; the vendor or item is looked up only on its first rating since startup
+    public void rate(RatingSubject type, UUID id, int stars) {
+        if (stars < MIN_STARS || stars > MAX_STARS) {
+            throw new IllegalArgumentException("Rating must be between " + MIN_STARS + " and " + MAX_STARS);
+        }
+        Subject subject = new Subject(type, id);
+        Tally tally = tallies.get(subject);
+        if (tally == null) {
+            boolean exists = type == RatingSubject.VENDOR ? vendorRepository.existsById(id) : itemRepository.existsById(id);
+            if (!exists) {
+                throw new RuntimeException(type == RatingSubject.VENDOR ? "Vendor not found" : "Item not found");
+            }
+            tally = tallies.computeIfAbsent(subject, s -> new Tally());
+        }
+        tally.add(stars);
+    }
+
+    // ✅ Flushed counts plus those still waiting in memory
+    public RatingHistogramDTO histogram(RatingSubject type, UUID id) {
+        long[] counts = new long[MAX_STARS];
+        for (RatingBucket bucket : ratingBucketRepository.findBySubjectTypeAndSubjectId(type, id)) {
+            if (bucket.getStars() >= MIN_STARS && bucket.getStars() <= MAX_STARS) {
+                counts[bucket.getStars() - MIN_STARS] += bucket.getRatingCount();
+            }
+        }
+        Tally tally = tallies.get(new Subject(type, id));
+        if (tally != null) {
+            long[] pending = tally.counts();
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += pending[i];
+            }
+        }
+
+        Map<Integer, Long> byStars = new LinkedHashMap<>();
+        long total = 0;
+        long sum = 0;
+        for (int i = 0; i < counts.length; i++) {
+            byStars.put(i + MIN_STARS, counts[i]);
+            total += counts[i];
+            sum += (i + MIN_STARS) * counts[i];
+        }
+        return new RatingHistogramDTO(id, total, total == 0 ? 0.0 : (double) sum / total, byStars);
+    }
+
+    @Scheduled(fixedDelayString = "${app.ratings.flush-interval-ms:5000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushAll();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void flushAll() {
+        List<Drained> pending = new ArrayList<>();
+        tallies.forEach((subject, tally) -> {
+            Drained drained = tally.drain(subject);
+            if (drained != null) {
+                pending.add(drained);
+            }
+        });
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        try {
+            List<Drained> gone = transactionTemplate.execute(status -> write(pending));
+            // Deleted since they were rated; later ratings look them up again
+            gone.forEach(drained -> tallies.remove(drained.subject(), drained.tally()));
+        } catch (RuntimeException e) {
+            // Keep the counts; the next flush tries again
+            pending.forEach(Drained::restore);
+            System.out.println("Rating flush failed for " + pending.size() + " vendors and items: " + e.getMessage());
+        }
+    }
+
+    // Returns the drained tallies whose vendor or item no longer exists
+    private List<Drained> write(List<Drained> pending) {
+        List<Drained> vendors = new ArrayList<>();
+        List<Drained> items = new ArrayList<>();
+        for (Drained drained : pending) {
+            (drained.subject().type() == RatingSubject.VENDOR ? vendors : items).add(drained);
+        }
+
+        List<Drained> gone = new ArrayList<>();
+        List<Drained> written = new ArrayList<>();
+        sortWritten(vendors, ratingBatchWriter.addToVendors(totals(vendors)), written, gone);
+        sortWritten(items, ratingBatchWriter.addToItems(totals(items)), written, gone);
+
+        List<RatingBatchWriter.BucketDelta> buckets = new ArrayList<>();
+        for (Drained drained : written) {
+            for (int i = 0; i < drained.counts().length; i++) {
+                if (drained.counts()[i] != 0) {
+                    buckets.add(new RatingBatchWriter.BucketDelta(drained.subject().type().name(),
+                            drained.subject().id(), i + MIN_STARS, drained.counts()[i]));
+                }
+            }
+        }
+        ratingBatchWriter.addToBuckets(buckets);
+
+        publishChanges(written);
+        return gone;
+    }
+
+    private static List<RatingBatchWriter.TotalDelta> totals(List<Drained> drained) {
+        return drained.stream()
+                .map(d -> new RatingBatchWriter.TotalDelta(d.subject().id(), d.sum(), d.count()))
+                .toList();
+    }
+
+    private static void sortWritten(List<Drained> drained, int[] rows, List<Drained> written, List<Drained> gone) {
+        for (int i = 0; i < drained.size(); i++) {
+            // Drivers may report a batched statement as done without a row count; only a plain 0 means no row
+            (i < rows.length && rows[i] == 0 ? gone : written).add(drained.get(i));
+        }
+    }
+
+    // ✅ One event per kind for the whole flush; listeners run once it commits
+    private void publishChanges(List<Drained> written) {
+        Set<UUID> vendorIds = new HashSet<>();
+        Set<UUID> itemIds = new HashSet<>();
+        for (Drained drained : written) {
+            (drained.subject().type() == RatingSubject.VENDOR ? vendorIds : itemIds).add(drained.subject().id());
+        }
+        if (!vendorIds.isEmpty()) {
+            eventPublisher.publishEvent(CatalogChangeEvent.vendorRatings(this, vendorIds));
+        }
+        if (!itemIds.isEmpty()) {
+            // Item views are also listed per vendor and per category
+            Set<UUID> itemVendorIds = new HashSet<>();
+            Set<ItemCategory> categories = new HashSet<>();
+            for (Item item : itemRepository.findWithVendorAndCategoriesByIdIn(itemIds)) {
+                if (item.getVendor() != null) {
+                    itemVendorIds.add(item.getVendor().getId());
+                }
+                if (item.getCategories() != null) {
+                    item.getCategories().forEach(category -> categories.add(category.getName()));
+                }
+            }
+            eventPublisher.publishEvent(CatalogChangeEvent.itemRatings(this, itemIds, itemVendorIds, categories));
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package auca.ac.rw.food.delivery.management.service;
+
+import auca.ac.rw.food.delivery.management.event.OrderStatusChangeEvent;
+import auca.ac.rw.food.delivery.management.model.Order;
+import auca.ac.rw.food.delivery.management.model.enums.OrderStatus;
+import auca.ac.rw.food.delivery.management.repository.OrderEventOutboxRepository;
+import auca.ac.rw.food.delivery.management.repository.OrderRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory order counters and revenue sums per status for the admin dashboard,
+ * so the headline numbers never have to scan completed orders.
+ * Revenue only counts orders while they sit in COMPLETED; a refund moves the
+ * order out of COMPLETED and takes its revenue back out.
+ */
+@Component
+public class RevenueAggregateStore {
+
+    private final OrderRepository orderRepository;
+    private final OrderEventOutboxRepository outboxRepository;
+    private final TransactionTemplate snapshotTransaction;
+
+    private static final int RECENT_EVENT_IDS = 10_000;
+
+    private volatile Map<OrderStatus, Totals> byStatus = new ConcurrentHashMap<>();
+
+    // Events are delivered at least once; remember recent ids so a redelivery is not counted twice
+    private final Set<Long> appliedEventIds = Collections.synchronizedSet(Collections.newSetFromMap(
+            new LinkedHashMap<Long, Boolean>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+                    return size() > RECENT_EVENT_IDS;
+                }
+            }));
+
+    // Guards the swap below against events applied at the same time
+    private final Object swapLock = new Object();
+    // Deltas applied while a rebuild reads its snapshot; replayed onto the rebuilt map unless the snapshot has them
+    private List<Delta> appliedDuringRebuild;
+    // Outbox rows the last rebuild's snapshot already counted, though they were not delivered yet
+    private Set<Long> countedBySnapshot = new HashSet<>();
+
+    private record Delta(Long eventId, OrderStatus oldStatus, OrderStatus newStatus, double total) {
+    }
+
+    public RevenueAggregateStore(OrderRepository orderRepository, OrderEventOutboxRepository outboxRepository,
+                                 PlatformTransactionManager transactionManager) {
+        this.orderRepository = orderRepository;
+        this.outboxRepository = outboxRepository;
+        // Both reads of a rebuild must see the same committed state
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTransaction.setReadOnly(true);
+    }
+
+    // 🎯 Keep the counters in step with committed status changes
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderStatusChange(OrderStatusChangeEvent event) {
+        Order order = event.getOrder();
+        if (order == null || !event.isStatusApplied() || event.getOldStatus() == event.getNewStatus()) {
+            return;
+        }
+        if (event.getEventId() != null && !appliedEventIds.add(event.getEventId())) {
+            return;
+        }
+
+        Delta delta = new Delta(event.getEventId(), event.getOldStatus(), event.getNewStatus(),
+                order.getTotal() != null ? order.getTotal() : 0.0);
+        synchronized (swapLock) {
+            if (delta.eventId() != null && countedBySnapshot.remove(delta.eventId())) {
+                return;
+            }
+            apply(byStatus, delta);
+            if (appliedDuringRebuild != null) {
+                appliedDuringRebuild.add(delta);
+            }
+        }
+    }
+
+    // 🎯 Backfill from existing orders at startup and once a night to correct any drift
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuild();
+    }
+
+    /**
+     * Sums every order by status and swaps the result in. The order rows and the undelivered
+     * outbox ids come from one snapshot, and an outbox row commits with the change it describes,
+     * so an undelivered row seen here is already in the sums and is skipped when it arrives.
+     * Events applied while the snapshot is read are replayed onto the new map unless the snapshot
+     * already counted them.
+     */
+    @Scheduled(cron = "${dashboard.aggregates.rebuild-cron:0 0 3 * * *}")
+    public synchronized void rebuild() {
+        synchronized (swapLock) {
+            appliedDuringRebuild = new ArrayList<>();
+        }
+        try {
+            Map<OrderStatus, Totals> rebuilt = new ConcurrentHashMap<>();
+            Set<Long> counted = snapshotTransaction.execute(status -> {
+                orderRepository.sumTotalsByStatus().forEach(row ->
+                        totals(rebuilt, row.getStatus()).add(row.getOrderCount(), row.getRevenue()));
+                return new HashSet<>(outboxRepository.findUndispatchedIds());
+            });
+
+            synchronized (swapLock) {
+                for (Delta delta : appliedDuringRebuild) {
+                    if (delta.eventId() == null || !counted.remove(delta.eventId())) {
+                        apply(rebuilt, delta);
+                    }
+                }
+                // Swap in one step; readers see either the old or the new numbers, never a mix
+                byStatus = rebuilt;
+                countedBySnapshot = counted;
+            }
+        } finally {
+            synchronized (swapLock) {
+                appliedDuringRebuild = null;
+            }
+        }
+    }
+
+    public double getCompletedRevenue() {
+        return totals(byStatus, OrderStatus.COMPLETED).getRevenue();
+    }
+
+    public long getOrderCount(OrderStatus status) {
+        return totals(byStatus, status).getCount();
+    }
+
+    private static void apply(Map<OrderStatus, Totals> map, Delta delta) {
+        if (delta.oldStatus() != null) {
+            totals(map, delta.oldStatus()).add(-1, -delta.total());
+        }
+        totals(map, delta.newStatus()).add(1, delta.total());
+    }
+
+    private static Totals totals(Map<OrderStatus, Totals> map, OrderStatus status) {
+        return map.computeIfAbsent(status, s -> new Totals());
+    }
+
+    public static class Totals {
+        private final LongAdder count = new LongAdder();
+        private final DoubleAdder revenue = new DoubleAdder();
+
+        void add(long countDelta, double revenueDelta) {
+            count.add(countDelta);
+            revenue.add(revenueDelta);
+        }
+
+        public long getCount() { return count.sum(); }
+        public double getRevenue() { return revenue.sum(); }
+    }
+}
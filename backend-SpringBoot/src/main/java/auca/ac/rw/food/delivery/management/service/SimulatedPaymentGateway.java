@@ -0,0 +1,50 @@
+package auca.ac.rw.food.delivery.management.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Local stand-in for a real provider: answers after a fixed latency on a timer, holding no thread meanwhile
+@Component
+@ConditionalOnProperty(name = "app.payments.gateway", havingValue = "simulated", matchIfMissing = true)
+public class SimulatedPaymentGateway implements PaymentGateway {
+
+    private final long latencyMs;
+    private final double failureRate;
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "payment-gateway-sim");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SimulatedPaymentGateway(@Value("${app.payments.simulated.latency-ms:3000}") long latencyMs,
+                                   @Value("${app.payments.simulated.failure-rate:0.0}") double failureRate) {
+        this.latencyMs = latencyMs;
+        this.failureRate = failureRate;
+    }
+
+    @Override
+    public CompletableFuture<GatewayResult> charge(ChargeRequest request) {
+        CompletableFuture<GatewayResult> result = new CompletableFuture<>();
+        timer.schedule(() -> {
+            if (ThreadLocalRandom.current().nextDouble() < failureRate) {
+                result.complete(GatewayResult.declined("Declined by simulated gateway"));
+            } else {
+                result.complete(GatewayResult.approved("SIM-" + request.paymentId()));
+            }
+        }, latencyMs, TimeUnit.MILLISECONDS);
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+}
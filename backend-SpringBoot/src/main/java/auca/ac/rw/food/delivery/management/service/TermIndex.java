@@ -0,0 +1,439 @@
+package auca.ac.rw.food.delivery.management.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index from terms to weighted documents, each document carrying a payload. The term
+ * dictionary is sorted, so a prefix is a range lookup; every term is also filed under each of
+ * its one-letter deletions, so terms one edit away from a query term are found by lookup
+ * instead of a dictionary scan. Documents are numbered and postings are sorted int arrays, so
+ * matching and intersecting touch primitives only.
+ */
+class TermIndex<D> {
+
+    // Typo tolerance only for terms long enough that one edit still says something
+    static final int MIN_FUZZY_LENGTH = 4;
+    // A one-letter prefix says too little to expand; a short one may still match many terms,
+    // and the first ones in dictionary order are enough
+    static final int MIN_PREFIX_LENGTH = 2;
+    static final int MAX_PREFIX_TERMS = 32;
+
+    static final float EXACT = 1.0f;
+    static final float PREFIX = 0.75f;
+    static final float FUZZY = 0.5f;
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private final NavigableMap<String, Postings> postings = new TreeMap<>();
+    private final Map<String, Set<String>> deletions = new HashMap<>();
+
+    // A document keeps its number for as long as it is indexed; numbers are never reused
+    private final Map<UUID, Integer> ordinals = new HashMap<>();
+    private final List<Map<String, Float>> termsByOrdinal = new ArrayList<>();
+    private final List<D> payloads = new ArrayList<>();
+
+    // Lower case, accents dropped, split on anything that is not a letter or digit
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase();
+        for (String token : SEPARATORS.split(folded)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    // Add one field's tokens to a document's term weights
+    static void addField(Map<String, Float> terms, String text, float weight) {
+        for (String token : tokenize(text)) {
+            terms.merge(token, weight, Float::sum);
+        }
+    }
+
+    int size() {
+        return ordinals.size();
+    }
+
+    D get(UUID id) {
+        Integer ordinal = ordinals.get(id);
+        return ordinal != null ? payloads.get(ordinal) : null;
+    }
+
+    List<D> documents() {
+        List<D> result = new ArrayList<>(ordinals.size());
+        for (int ordinal : ordinals.values()) {
+            result.add(payloads.get(ordinal));
+        }
+        return result;
+    }
+
+    void put(UUID id, D payload, Map<String, Float> terms) {
+        Integer existing = ordinals.get(id);
+        int ordinal;
+        if (existing != null) {
+            ordinal = existing;
+            unlink(ordinal);
+        } else {
+            ordinal = payloads.size();
+            ordinals.put(id, ordinal);
+            payloads.add(null);
+            termsByOrdinal.add(null);
+        }
+        payloads.set(ordinal, payload);
+        termsByOrdinal.set(ordinal, terms);
+        terms.forEach((term, weight) -> {
+            Postings docs = postings.get(term);
+            if (docs == null) {
+                docs = new Postings();
+                postings.put(term, docs);
+                if (term.length() >= MIN_FUZZY_LENGTH) {
+                    for (String deletion : deletionsOf(term)) {
+                        deletions.computeIfAbsent(deletion, d -> new HashSet<>()).add(term);
+                    }
+                }
+            }
+            docs.put(ordinal, weight);
+        });
+    }
+
+    void remove(UUID id) {
+        Integer ordinal = ordinals.remove(id);
+        if (ordinal != null) {
+            unlink(ordinal);
+            payloads.set(ordinal, null);
+            termsByOrdinal.set(ordinal, null);
+        }
+    }
+
+    /**
+     * Payloads of the best `limit` documents matching every query term and accepted by the
+     * filter, best first. Each query term matches exactly, as a prefix of a longer term, or one
+     * edit away; the best of those per document counts, weighted by the field weight and by how
+     * rare the matched term is. Terms are intersected rarest first.
+     */
+    List<D> search(List<String> queryTerms, Predicate<D> filter, int limit) {
+        if (queryTerms.isEmpty()) {
+            return List.of();
+        }
+        List<Matches> perTerm = new ArrayList<>(queryTerms.size());
+        for (String queryTerm : queryTerms) {
+            Matches matches = matchTerm(queryTerm);
+            if (matches.size == 0) {
+                return List.of();
+            }
+            perTerm.add(matches);
+        }
+        perTerm.sort(Comparator.comparingInt(m -> m.size));
+
+        Matches result = perTerm.get(0);
+        for (int i = 1; i < perTerm.size() && result.size > 0; i++) {
+            result = result.intersect(perTerm.get(i));
+        }
+        return top(result, filter, limit);
+    }
+
+    private List<D> top(Matches matches, Predicate<D> filter, int limit) {
+        // Min-heap of positions in `matches`, weakest on top; ties go to the earlier document
+        int[] heap = new int[Math.min(limit, matches.size)];
+        int heapSize = 0;
+        for (int i = 0; i < matches.size; i++) {
+            D payload = payloads.get(matches.docs[i]);
+            if (!filter.test(payload)) {
+                continue;
+            }
+            if (heapSize < heap.length) {
+                heap[heapSize] = i;
+                siftUp(heap, heapSize++, matches);
+            } else if (heap.length > 0 && weaker(matches, heap[0], i)) {
+                heap[0] = i;
+                siftDown(heap, heapSize, matches);
+            }
+        }
+        List<D> result = new ArrayList<>(heapSize);
+        while (heapSize > 0) {
+            result.add(payloads.get(matches.docs[heap[0]]));
+            heap[0] = heap[--heapSize];
+            siftDown(heap, heapSize, matches);
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    // Is position a ranked below position b?
+    private static boolean weaker(Matches m, int a, int b) {
+        return m.scores[a] < m.scores[b] || (m.scores[a] == m.scores[b] && m.docs[a] > m.docs[b]);
+    }
+
+    private static void siftUp(int[] heap, int i, Matches m) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (!weaker(m, heap[i], heap[parent])) {
+                return;
+            }
+            int swap = heap[i]; heap[i] = heap[parent]; heap[parent] = swap;
+            i = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, int size, Matches m) {
+        int i = 0;
+        while (true) {
+            int left = 2 * i + 1, right = left + 1, weakest = i;
+            if (left < size && weaker(m, heap[left], heap[weakest])) weakest = left;
+            if (right < size && weaker(m, heap[right], heap[weakest])) weakest = right;
+            if (weakest == i) {
+                return;
+            }
+            int swap = heap[i]; heap[i] = heap[weakest]; heap[weakest] = swap;
+            i = weakest;
+        }
+    }
+
+    private Matches matchTerm(String queryTerm) {
+        List<Postings> lists = new ArrayList<>();
+        List<Float> factors = new ArrayList<>();
+        Postings exact = postings.get(queryTerm);
+        if (exact != null) {
+            lists.add(exact);
+            factors.add(EXACT);
+        }
+        if (queryTerm.length() >= MIN_PREFIX_LENGTH) {
+            int expanded = 0;
+            for (Postings prefixed : postings.subMap(queryTerm, false, queryTerm + Character.MAX_VALUE, false).values()) {
+                if (++expanded > MAX_PREFIX_TERMS) {
+                    break;
+                }
+                lists.add(prefixed);
+                factors.add(PREFIX);
+            }
+        }
+        if (queryTerm.length() >= MIN_FUZZY_LENGTH) {
+            for (String term : fuzzyTerms(queryTerm)) {
+                lists.add(postings.get(term));
+                factors.add(FUZZY);
+            }
+        }
+
+        if (lists.isEmpty()) {
+            return new Matches(0);
+        }
+        // Several terms may answer this query term: merge them pairwise, keeping each document's
+        // best score, so every posting is copied once per level rather than once per term
+        List<Matches> level = new ArrayList<>(lists.size());
+        for (int i = 0; i < lists.size(); i++) {
+            level.add(Matches.of(lists.get(i), factors.get(i) * idf(lists.get(i))));
+        }
+        while (level.size() > 1) {
+            List<Matches> next = new ArrayList<>((level.size() + 1) / 2);
+            for (int i = 0; i < level.size(); i += 2) {
+                next.add(i + 1 < level.size() ? level.get(i).union(level.get(i + 1)) : level.get(i));
+            }
+            level = next;
+        }
+        return level.get(0);
+    }
+
+    private float idf(Postings docs) {
+        return (float) Math.log(1.0 + (double) ordinals.size() / docs.size);
+    }
+
+    // Terms within one insertion, deletion, substitution or swap of the query term
+    private Set<String> fuzzyTerms(String queryTerm) {
+        Set<String> candidates = new HashSet<>();
+        // The query term with a letter dropped, e.g. "burgerr" → "burger"
+        List<String> queryDeletions = deletionsOf(queryTerm);
+        for (String deletion : queryDeletions) {
+            if (postings.containsKey(deletion)) {
+                candidates.add(deletion);
+            }
+        }
+        // A term with a letter dropped is the query term, e.g. "buger" → "burger"
+        candidates.addAll(deletions.getOrDefault(queryTerm, Set.of()));
+        // Both with a letter dropped agree: a substitution or a swap, checked below
+        for (String deletion : queryDeletions) {
+            candidates.addAll(deletions.getOrDefault(deletion, Set.of()));
+        }
+        candidates.remove(queryTerm);
+        candidates.removeIf(term -> !withinOneEdit(queryTerm, term));
+        return candidates;
+    }
+
+    private void unlink(int ordinal) {
+        Map<String, Float> terms = termsByOrdinal.get(ordinal);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms.keySet()) {
+            Postings docs = postings.get(term);
+            if (docs == null) {
+                continue;
+            }
+            docs.remove(ordinal);
+            if (docs.size == 0) {
+                postings.remove(term);
+                if (term.length() >= MIN_FUZZY_LENGTH) {
+                    for (String deletion : deletionsOf(term)) {
+                        Set<String> variants = deletions.get(deletion);
+                        if (variants != null && variants.remove(term) && variants.isEmpty()) {
+                            deletions.remove(deletion);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static List<String> deletionsOf(String term) {
+        List<String> result = new ArrayList<>(term.length());
+        for (int i = 0; i < term.length(); i++) {
+            result.add(term.substring(0, i) + term.substring(i + 1));
+        }
+        return result;
+    }
+
+    private static boolean withinOneEdit(String a, String b) {
+        if (Math.abs(a.length() - b.length()) > 1) {
+            return false;
+        }
+        if (a.length() == b.length()) {
+            int first = -1;
+            int differences = 0;
+            for (int i = 0; i < a.length(); i++) {
+                if (a.charAt(i) != b.charAt(i)) {
+                    if (++differences == 1) {
+                        first = i;
+                    } else if (differences > 2) {
+                        return false;
+                    }
+                }
+            }
+            if (differences <= 1) {
+                return true;
+            }
+            // Two differences count as one edit only when they are adjacent letters swapped
+            return differences == 2 && first + 1 < a.length()
+                    && a.charAt(first) == b.charAt(first + 1) && a.charAt(first + 1) == b.charAt(first)
+                    && a.substring(first + 2).equals(b.substring(first + 2));
+        }
+        String longer = a.length() > b.length() ? a : b;
+        String shorter = longer == a ? b : a;
+        int i = 0;
+        while (i < shorter.length() && shorter.charAt(i) == longer.charAt(i)) {
+            i++;
+        }
+        return shorter.substring(i).equals(longer.substring(i + 1));
+    }
+
+    // Documents of one term, sorted by number, with the term's weight in each
+    private static final class Postings {
+        int[] docs = new int[4];
+        float[] weights = new float[4];
+        int size;
+
+        void put(int doc, float weight) {
+            int i = Arrays.binarySearch(docs, 0, size, doc);
+            if (i >= 0) {
+                weights[i] = weight;
+                return;
+            }
+            i = -i - 1;
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            System.arraycopy(docs, i, docs, i + 1, size - i);
+            System.arraycopy(weights, i, weights, i + 1, size - i);
+            docs[i] = doc;
+            weights[i] = weight;
+            size++;
+        }
+
+        void remove(int doc) {
+            int i = Arrays.binarySearch(docs, 0, size, doc);
+            if (i < 0) {
+                return;
+            }
+            System.arraycopy(docs, i + 1, docs, i, size - i - 1);
+            System.arraycopy(weights, i + 1, weights, i, size - i - 1);
+            size--;
+        }
+    }
+
+    // Scored documents sorted by number; the working set of one query
+    private static final class Matches {
+        final int[] docs;
+        final float[] scores;
+        int size;
+
+        Matches(int capacity) {
+            docs = new int[capacity];
+            scores = new float[capacity];
+        }
+
+        static Matches of(Postings postings, float factor) {
+            Matches m = new Matches(postings.size);
+            for (int i = 0; i < postings.size; i++) {
+                m.docs[i] = postings.docs[i];
+                m.scores[i] = postings.weights[i] * factor;
+            }
+            m.size = postings.size;
+            return m;
+        }
+
+        // Documents in either, each with its better score
+        Matches union(Matches other) {
+            Matches out = new Matches(size + other.size);
+            int i = 0, j = 0;
+            while (i < size || j < other.size) {
+                if (j == other.size || (i < size && docs[i] < other.docs[j])) {
+                    out.add(docs[i], scores[i++]);
+                } else if (i == size || other.docs[j] < docs[i]) {
+                    out.add(other.docs[j], other.scores[j++]);
+                } else {
+                    out.add(docs[i], Math.max(scores[i++], other.scores[j++]));
+                }
+            }
+            return out;
+        }
+
+        // Documents in both, scores added; walks this (the smaller) and searches the other
+        Matches intersect(Matches other) {
+            Matches out = new Matches(size);
+            int from = 0;
+            for (int i = 0; i < size && from < other.size; i++) {
+                int found = Arrays.binarySearch(other.docs, from, other.size, docs[i]);
+                if (found >= 0) {
+                    out.add(docs[i], scores[i] + other.scores[found]);
+                    from = found + 1;
+                } else {
+                    from = -found - 1;
+                }
+            }
+            return out;
+        }
+
+        private void add(int doc, float score) {
+            docs[size] = doc;
+            scores[size++] = score;
+        }
+    }
+}
@@ -2,14 +2,30 @@ package auca.ac.rw.food.delivery.management.service;
 
 import auca.ac.rw.food.delivery.management.model.Vendor;
 import auca.ac.rw.food.delivery.management.model.Category;
+import auca.ac.rw.food.delivery.management.model.Item;
+import auca.ac.rw.food.delivery.management.model.enums.ItemCategory;
+import auca.ac.rw.food.delivery.management.model.enums.RatingSubject;
 import auca.ac.rw.food.delivery.management.model.enums.VendorStatus;
+import auca.ac.rw.food.delivery.management.repository.ItemRepository;
 import auca.ac.rw.food.delivery.management.repository.VendorRepository;
 import auca.ac.rw.food.delivery.management.repository.CategoryRepository;
+import auca.ac.rw.food.delivery.management.DTO.ItemResponseDTO;
+import auca.ac.rw.food.delivery.management.DTO.NearbyVendorDTO;
+import auca.ac.rw.food.delivery.management.DTO.RatingHistogramDTO;
 import auca.ac.rw.food.delivery.management.DTO.VendorDTO;
+import auca.ac.rw.food.delivery.management.DTO.VendorMenuDTO;
+import auca.ac.rw.food.delivery.management.event.CatalogChangeEvent;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -20,15 +36,31 @@ import javax.management.relation.RelationNotFoundException;
 @Service
 public class VendorService {
     private final VendorRepository vendorRepository;
+    private final ItemRepository itemRepository;
     private final PasswordEncoder passwordEncoder;
     private final CategoryRepository categoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CatalogSearchIndex searchIndex;
+    private final RatingAggregator ratingAggregator;
+
+    private static final int MAX_VENDOR_RESULTS = 50;
+    private static final double MAX_NEARBY_RADIUS_KM = 50;
+    private static final int MAX_NEARBY_RESULTS = 100;
 
     public VendorService(VendorRepository vendorRepository, 
+                        ItemRepository itemRepository,
                         PasswordEncoder passwordEncoder,
-                        CategoryRepository categoryRepository) {
+                        CategoryRepository categoryRepository,
+                        ApplicationEventPublisher eventPublisher,
+                        CatalogSearchIndex searchIndex,
+                        RatingAggregator ratingAggregator) {
         this.vendorRepository = vendorRepository;
+        this.itemRepository = itemRepository;
         this.passwordEncoder = passwordEncoder;
         this.categoryRepository = categoryRepository;
+        this.eventPublisher = eventPublisher;
+        this.searchIndex = searchIndex;
+        this.ratingAggregator = ratingAggregator;
     }
 
     // ✅ Get all vendors
@@ -41,6 +73,36 @@ public class VendorService {
         return vendorRepository.findById(id);
     }
 
+    // ✅ Vendor header and items grouped by category, in two selects; the caller caches the result.
+    // Items are fetched on their own: joining categories through the vendor's item bag repeats an item per category.
+    public Optional<VendorMenuDTO> getVendorMenu(UUID id) {
+        return vendorRepository.findById(id).map(vendor -> {
+            // EnumMap keeps sections in category declaration order
+            Map<ItemCategory, List<ItemResponseDTO>> byCategory = new EnumMap<>(ItemCategory.class);
+            List<ItemResponseDTO> uncategorized = new ArrayList<>();
+            List<Item> items = new ArrayList<>(itemRepository.findWithVendorAndCategoriesByVendorIdIn(List.of(id)));
+            items.sort(Comparator.comparing(Item::getName, String.CASE_INSENSITIVE_ORDER));
+            for (Item item : items) {
+                ItemResponseDTO view = new ItemResponseDTO(item);
+                if (item.getCategories().isEmpty()) {
+                    uncategorized.add(view);
+                }
+                for (Category category : item.getCategories()) {
+                    byCategory.computeIfAbsent(category.getName(), c -> new ArrayList<>()).add(view);
+                }
+            }
+
+            List<VendorMenuDTO.MenuSectionDTO> sections = new ArrayList<>();
+            byCategory.forEach((category, views) -> sections.add(new VendorMenuDTO.MenuSectionDTO(category, views)));
+            if (!uncategorized.isEmpty()) {
+                sections.add(new VendorMenuDTO.MenuSectionDTO(null, uncategorized));
+            }
+            return new VendorMenuDTO(vendor.getId(), vendor.getName(), vendor.getDescription(), vendor.getImageUrl(),
+                    vendor.getLocation(), vendor.getPhone(), vendor.getStatus(), vendor.getVendorType(),
+                    vendor.getAverageRating(), vendor.getTotalRatings(), sections);
+        });
+    }
+
     // ✅ Get a vendor by name
     public Optional<Vendor> getVendorByName(String name) {
         return vendorRepository.findByNameIgnoreCase(name);
@@ -67,6 +129,7 @@ public class VendorService {
         vendor.setStatus(vendorDTO.getStatus());
         vendor.setPassword(passwordEncoder.encode(vendorDTO.getPassword()));
         vendor.setVendorId(vendorDTO.getVendorId());
+        setPosition(vendor, vendorDTO);
 
         // Handle categories if provided
         if (vendorDTO.getCategoryNames() != null && !vendorDTO.getCategoryNames().isEmpty()) {
@@ -88,7 +151,9 @@ public class VendorService {
             vendor.setCategories(new HashSet<>());
         }
 
-        return vendorRepository.save(vendor);
+        Vendor saved = vendorRepository.save(vendor);
+        eventPublisher.publishEvent(CatalogChangeEvent.vendor(this, saved.getId()));
+        return saved;
     }
 
     // ✅ Update vendor details
@@ -116,6 +181,9 @@ public class VendorService {
                     if (updatedVendor.getStatus() != null) {
                         existingVendor.setStatus(updatedVendor.getStatus());
                     }
+                    if (updatedVendor.getLatitude() != null || updatedVendor.getLongitude() != null) {
+                        setPosition(existingVendor, updatedVendor);
+                    }
                     
                     // Handle category update if provided
                     if (updatedVendor.getCategoryNames() != null && !updatedVendor.getCategoryNames().isEmpty()) {
@@ -126,35 +194,37 @@ public class VendorService {
                         }
                     }
 
-                    return vendorRepository.save(existingVendor);
+                    Vendor saved = vendorRepository.save(existingVendor);
+                    // Item views carry the vendor name; catalog caches drop this vendor's entries
+                    eventPublisher.publishEvent(CatalogChangeEvent.vendor(this, id));
+                    return saved;
                 })
                 .orElseThrow(() -> new RuntimeException("Vendor not found"));
     }
 
+    // ✅ Counted in memory and added to the vendor row by the next rating flush
     public void addRatingToVendor(UUID vendorId, int newRating) {
-        Vendor vendor = vendorRepository.findById(vendorId)
-                .orElseThrow(() -> new RuntimeException("Vendor not found"));
-
-        int totalRatings = vendor.getTotalRatings();
-        double currentAvg = vendor.getAverageRating();
-
-        // Calculate new average
-        double updatedAvg = ((currentAvg * totalRatings) + newRating) / (totalRatings + 1);
-
-        vendor.setAverageRating(updatedAvg);
-        vendor.setTotalRatings(totalRatings + 1);
+        ratingAggregator.rate(RatingSubject.VENDOR, vendorId, newRating);
+    }
 
-        vendorRepository.save(vendor);
+    public RatingHistogramDTO getRatingHistogram(UUID vendorId) {
+        if (!vendorRepository.existsById(vendorId)) {
+            throw new RuntimeException("Vendor not found");
+        }
+        return ratingAggregator.histogram(RatingSubject.VENDOR, vendorId);
     }
 
     // ✅ Delete a vendor by ID
     public void deleteVendor(UUID id) {
         vendorRepository.deleteById(id);
+        eventPublisher.publishEvent(CatalogChangeEvent.vendor(this, id));
     }
 
     // ✅ Delete a vendor by name (custom)
     public void deleteVendorByName(String name) {
+        List<Vendor> existing = vendorRepository.findByName(name);
         vendorRepository.deleteByName(name);
+        existing.forEach(vendor -> eventPublisher.publishEvent(CatalogChangeEvent.vendor(this, vendor.getId())));
     }
 
     // ✅ Get vendors by location
@@ -167,9 +237,51 @@ public class VendorService {
         return vendorRepository.findByStatus(status);
     }
 
-    // ✅ Search vendors by keyword in name
+    // ✅ Search vendors by keyword in name; ranked from the search index, blank lists them all
     public List<Vendor> searchVendorsByName(String keyword) {
-        return vendorRepository.findByNameContainingIgnoreCase(keyword);
+        if (keyword == null || keyword.isBlank() || !searchIndex.isReady()) {
+            return vendorRepository.findByNameContainingIgnoreCase(keyword == null ? "" : keyword);
+        }
+        return getVendorsInOrder(searchIndex.searchVendors(keyword, MAX_VENDOR_RESULTS));
+    }
+
+    // ✅ Nearest vendors within a radius (km) of a point, from the in-memory vendor grid
+    public List<NearbyVendorDTO> findNearbyVendors(double latitude, double longitude, double radiusKm,
+                                                   VendorStatus status, ItemCategory category, int limit) {
+        checkPosition(latitude, longitude);
+        if (!(radiusKm > 0 && radiusKm <= MAX_NEARBY_RADIUS_KM)) {
+            throw new IllegalArgumentException("radius must be greater than 0 and at most " + MAX_NEARBY_RADIUS_KM + " km");
+        }
+        if (limit < 1 || limit > MAX_NEARBY_RESULTS) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_NEARBY_RESULTS);
+        }
+        return searchIndex.nearbyVendors(latitude, longitude, radiusKm, status, category, limit);
+    }
+
+    // Coordinates come as a pair; both are needed to place a vendor
+    private static void setPosition(Vendor vendor, VendorDTO vendorDTO) {
+        if (vendorDTO.getLatitude() == null && vendorDTO.getLongitude() == null) {
+            return;
+        }
+        if (vendorDTO.getLatitude() == null || vendorDTO.getLongitude() == null) {
+            throw new IllegalArgumentException("latitude and longitude must be given together");
+        }
+        checkPosition(vendorDTO.getLatitude(), vendorDTO.getLongitude());
+        vendor.setLatitude(vendorDTO.getLatitude());
+        vendor.setLongitude(vendorDTO.getLongitude());
+    }
+
+    private static void checkPosition(double latitude, double longitude) {
+        if (!(latitude >= -90 && latitude <= 90) || !(longitude >= -180 && longitude <= 180)) {
+            throw new IllegalArgumentException("latitude must be within [-90, 90] and longitude within [-180, 180]");
+        }
+    }
+
+    // ✅ Vendors by id in one query, in the order given; ids no longer found are skipped
+    public List<Vendor> getVendorsInOrder(List<UUID> ids) {
+        Map<UUID, Vendor> byId = new HashMap<>();
+        vendorRepository.findAllById(ids).forEach(vendor -> byId.put(vendor.getId(), vendor));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
     }
 
     // Add login method
@@ -0,0 +1,111 @@
+package auca.ac.rw.food.delivery.management.config;
+
+import auca.ac.rw.food.delivery.management.model.IdempotencyRecord;
+import auca.ac.rw.food.delivery.management.repository.IdempotencyRecordRepository;
+import auca.ac.rw.food.delivery.management.service.IdempotencyStore;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// A stored response is replayed without reaching the controller; anything not stored runs again on retry
+@SpringBootTest
+class IdempotencyFilterTest {
+
+    @Autowired
+    private IdempotencyFilter filter;
+
+    @Autowired
+    private IdempotencyStore store;
+
+    @Autowired
+    private IdempotencyRecordRepository recordRepository;
+
+    @Test
+    void successIsReplayed() throws Exception {
+        String key = UUID.randomUUID().toString();
+        AtomicInteger calls = new AtomicInteger();
+
+        assertEquals(201, send(key, respondWith(HttpServletResponse.SC_CREATED, calls)).getStatus());
+        MockHttpServletResponse retry = send(key, respondWith(HttpServletResponse.SC_CREATED, calls));
+
+        assertEquals(201, retry.getStatus());
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void invalidInputIsReplayed() throws Exception {
+        String key = UUID.randomUUID().toString();
+        AtomicInteger calls = new AtomicInteger();
+
+        send(key, respondWith(HttpServletResponse.SC_BAD_REQUEST, calls));
+        assertEquals(400, send(key, respondWith(HttpServletResponse.SC_BAD_REQUEST, calls)).getStatus());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void conflictReleasesTheKey() throws Exception {
+        String key = UUID.randomUUID().toString();
+        AtomicInteger calls = new AtomicInteger();
+
+        assertEquals(409, send(key, respondWith(HttpServletResponse.SC_CONFLICT, calls)).getStatus());
+        MockHttpServletResponse retry = send(key, respondWith(HttpServletResponse.SC_CREATED, calls));
+
+        assertEquals(201, retry.getStatus());
+        assertNull(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void firstStoredResponseSurvives() throws Exception {
+        String key = "POST /api/orders " + UUID.randomUUID();
+
+        // Two instances finishing the same key: the second must not overwrite the first
+        store.complete(key, 201, "application/json", "{\"first\":true}".getBytes(StandardCharsets.UTF_8));
+        store.complete(key, 201, "application/json", "{\"second\":true}".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals("{\"first\":true}", recordRepository.findLive(key, LocalDateTime.now()).orElseThrow().getBody());
+        assertEquals("{\"first\":true}",
+                new String(store.claim(key).replay().body(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void expiredRowIsReused() {
+        String key = "POST /api/orders " + UUID.randomUUID();
+        LocalDateTime past = LocalDateTime.now().minusDays(2);
+        recordRepository.save(new IdempotencyRecord(key, 201, "application/json", "{\"old\":true}",
+                past, past.plusDays(1)));
+
+        store.complete(key, 201, "application/json", "{\"new\":true}".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals("{\"new\":true}", recordRepository.findLive(key, LocalDateTime.now()).orElseThrow().getBody());
+    }
+
+    private MockHttpServletResponse send(String key, FilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/orders");
+        request.addHeader(IdempotencyFilter.HEADER, key);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static FilterChain respondWith(int status, AtomicInteger calls) {
+        return (request, response) -> {
+            calls.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(status);
+            response.getWriter().write("{}");
+        };
+    }
+}
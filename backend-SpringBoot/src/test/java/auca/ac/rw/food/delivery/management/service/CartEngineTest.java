@@ -0,0 +1,195 @@
+package auca.ac.rw.food.delivery.management.service;
+
+import auca.ac.rw.food.delivery.management.DTO.CartViewDTO;
+import auca.ac.rw.food.delivery.management.model.Customer;
+import auca.ac.rw.food.delivery.management.model.DeliveryDriver;
+import auca.ac.rw.food.delivery.management.model.Item;
+import auca.ac.rw.food.delivery.management.model.ItemSummary;
+import auca.ac.rw.food.delivery.management.model.Order;
+import auca.ac.rw.food.delivery.management.model.Vendor;
+import auca.ac.rw.food.delivery.management.model.enums.DriverStatus;
+import auca.ac.rw.food.delivery.management.model.enums.VendorStatus;
+import auca.ac.rw.food.delivery.management.model.enums.VendorType;
+import auca.ac.rw.food.delivery.management.repository.CartBatchWriter;
+import auca.ac.rw.food.delivery.management.repository.CartItemRepository;
+import auca.ac.rw.food.delivery.management.repository.CartRepository;
+import auca.ac.rw.food.delivery.management.repository.CustomerRepository;
+import auca.ac.rw.food.delivery.management.repository.DeliveryDriverRepository;
+import auca.ac.rw.food.delivery.management.repository.ItemRepository;
+import auca.ac.rw.food.delivery.management.repository.OrderRepository;
+import auca.ac.rw.food.delivery.management.repository.VendorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// A crash loses what was never flushed, never what a committed flush or checkout wrote.
+// The crash is a fresh engine over the same database: nothing carries over but the rows.
+@SpringBootTest
+@Import(H2UpsertConfig.class)
+class CartEngineTest {
+
+    @Autowired
+    private CartEngine cartEngine;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CartPricing cartPricing;
+
+    @Autowired
+    private CartBatchWriter cartBatchWriter;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private DeliveryDriverRepository driverRepository;
+
+    @Autowired
+    private VendorRepository vendorRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private UUID customerId;
+    private UUID driverId;
+    private List<UUID> itemIds;
+
+    @BeforeEach
+    void setUp() {
+        String tag = UUID.randomUUID().toString().substring(0, 8);
+        customerId = customerRepository.save(new Customer("Ann", tag + "@mail.test", tag, "Kigali", "secret", tag)).getId();
+        driverId = driverRepository.save(new DeliveryDriver("Bo", tag, "RAB" + tag, DriverStatus.values()[0])).getId();
+        Vendor vendor = new Vendor("Vendor " + tag, "Kigali", tag, tag + "@vendor.test",
+                VendorType.values()[0], VendorStatus.values()[0], "", "");
+        vendor.setVendorId("V" + tag);
+        vendor.setPassword("secret");
+        vendor = vendorRepository.save(vendor);
+        itemIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            itemIds.add(itemRepository.save(new Item("Item " + i, 5.0 + i, new HashSet<>(), "", vendor)).getId());
+        }
+    }
+
+    @Test
+    void flushedLinesSurviveACrash() {
+        cartEngine.addQuantity(customerId, itemIds.get(0), 2);
+        cartEngine.addQuantity(customerId, itemIds.get(1), 1);
+        cartEngine.flushDirty();
+
+        assertEquals(Map.of(itemIds.get(0), 2, itemIds.get(1), 1), quantities(restarted().view(customerId)));
+    }
+
+    @Test
+    void committedCheckoutKeepsEveryItem() {
+        // Never flushed by the timer: checkout alone has to write these lines
+        cartEngine.addQuantity(customerId, itemIds.get(0), 2);
+        cartEngine.addQuantity(customerId, itemIds.get(1), 3);
+        UUID orderId = orderService.createOrder(customerId, driverId).getId();
+
+        Map<UUID, Integer> ordered = transactionTemplate.execute(status ->
+                orderRepository.findById(orderId).orElseThrow().getItems().stream()
+                        .collect(Collectors.toMap(ItemSummary::getProductId, ItemSummary::getQuantity)));
+        assertEquals(Map.of(itemIds.get(0), 2, itemIds.get(1), 3), ordered);
+        assertEquals(Map.of(), quantities(restarted().view(customerId)));
+    }
+
+    @Test
+    void editsAfterCheckoutFlushOutliveTheCheckout() {
+        cartEngine.addQuantity(customerId, itemIds.get(0), 2);
+        transactionTemplate.executeWithoutResult(status -> {
+            orderService.createOrder(customerId, driverId);
+            // Lands between checkout's flush and its commit, so it is not part of the order
+            cartEngine.addQuantity(customerId, itemIds.get(2), 1);
+        });
+
+        assertEquals(Map.of(itemIds.get(2), 1), quantities(cartEngine.view(customerId)));
+        cartEngine.flushDirty();
+        assertEquals(Map.of(itemIds.get(2), 1), quantities(restarted().view(customerId)));
+    }
+
+    @Test
+    void quantityAddedToAnOrderedLineKeepsOnlyTheAddition() {
+        cartEngine.addQuantity(customerId, itemIds.get(0), 2);
+        UUID orderId = transactionTemplate.execute(status -> {
+            UUID id = orderService.createOrder(customerId, driverId).getId();
+            // Same line, topped up after checkout flushed it: the order has 2, the cart keeps 1
+            cartEngine.addQuantity(customerId, itemIds.get(0), 1);
+            return id;
+        });
+
+        Map<UUID, Integer> ordered = transactionTemplate.execute(status ->
+                orderRepository.findById(orderId).orElseThrow().getItems().stream()
+                        .collect(Collectors.toMap(ItemSummary::getProductId, ItemSummary::getQuantity)));
+        assertEquals(Map.of(itemIds.get(0), 2), ordered);
+        assertEquals(Map.of(itemIds.get(0), 1), quantities(cartEngine.view(customerId)));
+        cartEngine.flushDirty();
+        assertEquals(Map.of(itemIds.get(0), 1), quantities(restarted().view(customerId)));
+    }
+
+    @Test
+    void racingFirstRequestsCreateOneCart() throws Exception {
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<UUID>> views = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                views.add(pool.submit(() -> {
+                    start.await();
+                    return cartEngine.view(customerId).getId();
+                }));
+            }
+            start.countDown();
+            UUID first = views.get(0).get(30, TimeUnit.SECONDS);
+            for (Future<UUID> view : views) {
+                assertEquals(first, view.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, cartRepository.findAll().stream()
+                .filter(cart -> cart.getCustomer().getId().equals(customerId))
+                .count());
+    }
+
+    private CartEngine restarted() {
+        return new CartEngine(cartRepository, cartItemRepository, customerRepository, itemRepository,
+                cartBatchWriter, cartPricing, transactionTemplate, 30);
+    }
+
+    private static Map<UUID, Integer> quantities(CartViewDTO view) {
+        return view.getCartItems().stream()
+                .collect(Collectors.toMap(line -> line.getItem().getId(), CartViewDTO.CartLineDTO::getQuantity));
+    }
+}
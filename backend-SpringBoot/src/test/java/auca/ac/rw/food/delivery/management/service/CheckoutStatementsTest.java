@@ -0,0 +1,104 @@
+package auca.ac.rw.food.delivery.management.service;
+
+import auca.ac.rw.food.delivery.management.model.Customer;
+import auca.ac.rw.food.delivery.management.model.DeliveryDriver;
+import auca.ac.rw.food.delivery.management.model.Item;
+import auca.ac.rw.food.delivery.management.model.Vendor;
+import auca.ac.rw.food.delivery.management.model.enums.DriverStatus;
+import auca.ac.rw.food.delivery.management.model.enums.VendorStatus;
+import auca.ac.rw.food.delivery.management.model.enums.VendorType;
+import auca.ac.rw.food.delivery.management.repository.CustomerRepository;
+import auca.ac.rw.food.delivery.management.repository.DeliveryDriverRepository;
+import auca.ac.rw.food.delivery.management.repository.ItemRepository;
+import auca.ac.rw.food.delivery.management.repository.OrderRepository;
+import auca.ac.rw.food.delivery.management.repository.VendorRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Checkout costs the same number of statements for a one-line cart as for a full one
+@SpringBootTest
+@Import(H2UpsertConfig.class)
+class CheckoutStatementsTest {
+
+    private static final int[] CART_SIZES = {1, 5, 25};
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CartEngine cartEngine;
+
+    // Statistics are global; outbox dispatch runs on its own threads after commit and is not part of checkout
+    @MockBean
+    private OrderEventDispatcher orderEventDispatcher;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private DeliveryDriverRepository driverRepository;
+
+    @Autowired
+    private VendorRepository vendorRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void statementsPerCheckoutDoNotGrowWithTheCart() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<Integer, Long> statementsBySize = new LinkedHashMap<>();
+
+        for (int size : CART_SIZES) {
+            String tag = UUID.randomUUID().toString().substring(0, 8);
+            UUID customerId = customerRepository.save(new Customer("Ann", tag + "@mail.test", tag, "Kigali", "secret", tag)).getId();
+            UUID driverId = driverRepository.save(new DeliveryDriver("Bo", tag, "RAB" + tag, DriverStatus.values()[0])).getId();
+            Vendor vendor = new Vendor("Vendor " + tag, "Kigali", tag, tag + "@vendor.test",
+                    VendorType.values()[0], VendorStatus.values()[0], "", "");
+            vendor.setVendorId("V" + tag);
+            vendor.setPassword("secret");
+            vendor = vendorRepository.save(vendor);
+            for (int i = 0; i < size; i++) {
+                UUID itemId = itemRepository.save(new Item("Item " + tag + " " + i, 5.0 + i, new HashSet<>(), "", vendor)).getId();
+                cartEngine.addQuantity(customerId, itemId, 1 + i % 3);
+            }
+            // Cart lines go out through JDBC batches, which Hibernate does not count; write them before measuring
+            cartEngine.flushDirty();
+
+            statistics.clear();
+            UUID orderId = orderService.createOrder(customerId, driverId).getId();
+            statementsBySize.put(size, statistics.getPrepareStatementCount());
+
+            int lines = transactionTemplate.execute(status ->
+                    orderRepository.findById(orderId).orElseThrow().getItems().size());
+            assertEquals(size, lines);
+        }
+
+        long expected = statementsBySize.get(CART_SIZES[0]);
+        statementsBySize.forEach((size, statements) ->
+                assertEquals(expected, statements, "statements for a cart of " + size + " lines: " + statementsBySize));
+    }
+}
@@ -0,0 +1,116 @@
+package auca.ac.rw.food.delivery.management.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Nearby search over 100k vendors gives the same answers as a full scan; timing the two is opt-in
+class GeoGridBenchmarkTest {
+
+    private static final int VENDORS = 100_000;
+    private static final int QUERIES = 2_000;
+    // The full scan is slow; a sample of the queries is enough to check and to time it
+    private static final int SCAN_QUERIES = 100;
+    private static final double RADIUS_KM = 5;
+    private static final int LIMIT = 20;
+    private static final double CELL_DEGREES = 0.01;
+
+    private record Vendor(UUID id, double lat, double lng, boolean open) {
+    }
+
+    private record Setup(List<Vendor> vendors, GeoGrid<Vendor> grid, double[][] points) {
+    }
+
+    @Test
+    void nearestMatchesAFullScanAt100kVendors() {
+        Setup setup = setUp();
+
+        // Same vendors, same order; distances may differ in the last bits from the grid's precomputed terms
+        for (int i = 0; i < SCAN_QUERIES; i++) {
+            double[] point = setup.points()[i];
+            List<UUID> expected = scan(setup.vendors(), point[0], point[1]).stream().map(Vendor::id).toList();
+            List<UUID> actual = setup.grid().nearest(point[0], point[1], RADIUS_KM, Vendor::open, LIMIT)
+                    .stream().map(hit -> hit.payload().id()).toList();
+            assertEquals(expected, actual, "query " + i);
+        }
+    }
+
+    // Wall-clock figures only mean something on a quiet machine: run with -Dbenchmarks=true, nothing is asserted
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    void timeNearestAgainstAFullScan() {
+        Setup setup = setUp();
+        double[][] points = setup.points();
+
+        long gridNanos = time(() -> {
+            for (double[] point : points) {
+                setup.grid().nearest(point[0], point[1], RADIUS_KM, Vendor::open, LIMIT);
+            }
+        });
+        long scanNanos = time(() -> {
+            for (int i = 0; i < SCAN_QUERIES; i++) {
+                scan(setup.vendors(), points[i][0], points[i][1]);
+            }
+        });
+        System.out.println("Nearby search over " + VENDORS + " vendors: grid " + gridNanos / QUERIES / 1000
+                + " us/query, full scan " + scanNanos / SCAN_QUERIES / 1000 + " us/query");
+    }
+
+    private static Setup setUp() {
+        Random random = new Random(42);
+        // Most vendors packed into one country-sized area, the rest spread over the globe
+        List<Vendor> vendors = new ArrayList<>(VENDORS);
+        for (int i = 0; i < VENDORS; i++) {
+            boolean local = i % 10 != 0;
+            double lat = local ? -3 + 2 * random.nextDouble() : -85 + 170 * random.nextDouble();
+            double lng = local ? 28.8 + 2.2 * random.nextDouble() : -180 + 360 * random.nextDouble();
+            vendors.add(new Vendor(UUID.randomUUID(), lat, lng, random.nextInt(4) != 0));
+        }
+        GeoGrid<Vendor> grid = new GeoGrid<>(CELL_DEGREES);
+        vendors.forEach(vendor -> grid.put(vendor.id(), vendor.lat(), vendor.lng(), vendor));
+
+        double[][] points = new double[QUERIES][];
+        for (int i = 0; i < QUERIES; i++) {
+            points[i] = new double[]{-3 + 2 * random.nextDouble(), 28.8 + 2.2 * random.nextDouble()};
+        }
+        return new Setup(vendors, grid, points);
+    }
+
+    // Best of three runs after a warm-up, so JIT compilation is not part of the figure
+    private static long time(Runnable run) {
+        run.run();
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            run.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    private static List<Vendor> scan(List<Vendor> vendors, double lat, double lng) {
+        List<Vendor> within = new ArrayList<>();
+        for (Vendor vendor : vendors) {
+            if (vendor.open() && distanceKm(lat, lng, vendor.lat(), vendor.lng()) <= RADIUS_KM) {
+                within.add(vendor);
+            }
+        }
+        within.sort(Comparator.comparingDouble(vendor -> distanceKm(lat, lng, vendor.lat(), vendor.lng())));
+        return within.subList(0, Math.min(LIMIT, within.size()));
+    }
+
+    private static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * GeoGrid.EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+}
@@ -0,0 +1,71 @@
+package auca.ac.rw.food.delivery.management.service;
+
+import auca.ac.rw.food.delivery.management.repository.CartBatchWriter;
+import auca.ac.rw.food.delivery.management.repository.RatingBatchWriter;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+// H2 has no INSERT ... ON CONFLICT DO UPDATE; tests that flush swap in the same upsert written as a MERGE
+@TestConfiguration
+public class H2UpsertConfig {
+
+    private static final String CART_LINE_MERGE_SQL =
+            "MERGE INTO cart_item t USING (VALUES (CAST(? AS UUID), CAST(? AS UUID), CAST(? AS UUID), ?, ?)) " +
+            "AS s (id, cart_id, item_id, quantity, total_price) " +
+            "ON t.cart_id = s.cart_id AND t.item_id = s.item_id " +
+            "WHEN MATCHED THEN UPDATE SET quantity = s.quantity, total_price = s.total_price " +
+            "WHEN NOT MATCHED THEN INSERT (id, cart_id, item_id, quantity, total_price) " +
+            "VALUES (s.id, s.cart_id, s.item_id, s.quantity, s.total_price)";
+
+    private static final String RATING_BUCKET_MERGE_SQL =
+            "MERGE INTO rating_bucket t USING (VALUES (?, CAST(? AS UUID), ?, CAST(? AS BIGINT))) " +
+            "AS s (subject_type, subject_id, stars, rating_count) " +
+            "ON t.subject_type = s.subject_type AND t.subject_id = s.subject_id AND t.stars = s.stars " +
+            "WHEN MATCHED THEN UPDATE SET rating_count = t.rating_count + s.rating_count " +
+            "WHEN NOT MATCHED THEN INSERT (subject_type, subject_id, stars, rating_count) " +
+            "VALUES (s.subject_type, s.subject_id, s.stars, s.rating_count)";
+
+    @Bean
+    @Primary
+    CartBatchWriter h2CartBatchWriter(JdbcTemplate jdbcTemplate) {
+        return new CartBatchWriter(jdbcTemplate) {
+            @Override
+            public void writeLines(List<LineRow> lines) {
+                if (lines.isEmpty()) {
+                    return;
+                }
+                jdbcTemplate.batchUpdate(CART_LINE_MERGE_SQL, lines, lines.size(), (ps, line) -> {
+                    ps.setObject(1, UUID.randomUUID());
+                    ps.setObject(2, line.cartId());
+                    ps.setObject(3, line.itemId());
+                    ps.setInt(4, line.quantity());
+                    ps.setDouble(5, line.totalPrice());
+                });
+            }
+        };
+    }
+
+    @Bean
+    @Primary
+    RatingBatchWriter h2RatingBatchWriter(JdbcTemplate jdbcTemplate) {
+        return new RatingBatchWriter(jdbcTemplate) {
+            @Override
+            public void addToBuckets(List<BucketDelta> deltas) {
+                if (deltas.isEmpty()) {
+                    return;
+                }
+                jdbcTemplate.batchUpdate(RATING_BUCKET_MERGE_SQL, deltas, deltas.size(), (ps, delta) -> {
+                    ps.setString(1, delta.subjectType());
+                    ps.setObject(2, delta.subjectId());
+                    ps.setInt(3, delta.stars());
+                    ps.setLong(4, delta.count());
+                });
+            }
+        };
+    }
+}
@@ -0,0 +1,116 @@
+package auca.ac.rw.food.delivery.management.service;
+
+import auca.ac.rw.food.delivery.management.model.Category;
+import auca.ac.rw.food.delivery.management.model.Item;
+import auca.ac.rw.food.delivery.management.model.Vendor;
+import auca.ac.rw.food.delivery.management.model.enums.ItemCategory;
+import auca.ac.rw.food.delivery.management.model.enums.VendorStatus;
+import auca.ac.rw.food.delivery.management.model.enums.VendorType;
+import auca.ac.rw.food.delivery.management.repository.CategoryRepository;
+import auca.ac.rw.food.delivery.management.repository.ItemRepository;
+import auca.ac.rw.food.delivery.management.repository.VendorRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Item views read the vendor name and category names; every /api/items read loads them in the same select
+@SpringBootTest
+@AutoConfigureMockMvc
+class ItemViewStatementsTest {
+
+    private static final int VENDORS = 4;
+    private static final int ITEMS_PER_VENDOR = 10;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private JsonSnapshotStore snapshots;
+
+    @Autowired
+    private VendorRepository vendorRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private UUID vendorId;
+    private UUID itemId;
+    private String itemName;
+
+    @BeforeEach
+    void createCatalog() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Category mains = category(ItemCategory.MAIN_COURSE);
+        Category fastFood = category(ItemCategory.FAST_FOOD);
+
+        List<Item> items = new ArrayList<>();
+        for (int v = 0; v < VENDORS; v++) {
+            String tag = UUID.randomUUID().toString().substring(0, 8);
+            Vendor vendor = new Vendor("Vendor " + tag, "Kigali", tag, tag + "@vendor.test",
+                    VendorType.values()[0], VendorStatus.values()[0], "", "");
+            vendor.setVendorId("V" + tag);
+            vendor.setPassword("secret");
+            vendor = vendorRepository.save(vendor);
+            vendorId = vendor.getId();
+            for (int i = 0; i < ITEMS_PER_VENDOR; i++) {
+                items.add(new Item("Item " + tag + " " + i, 1.0 + i, Set.of(mains, fastFood), "", vendor));
+            }
+        }
+        List<Item> saved = itemRepository.saveAll(items);
+        itemId = saved.get(0).getId();
+        itemName = saved.get(0).getName();
+    }
+
+    @Test
+    void everyItemReadIsOneStatement() throws Exception {
+        assertOneStatement("/api/items", VENDORS * ITEMS_PER_VENDOR);
+        assertOneStatement("/api/items/vendor/" + vendorId, ITEMS_PER_VENDOR);
+        assertOneStatement("/api/items/category/MAIN_COURSE", VENDORS * ITEMS_PER_VENDOR);
+        assertOneStatement("/api/items/cheaper-than/100", VENDORS * ITEMS_PER_VENDOR);
+        assertOneStatement("/api/items/more-expensive-than/0", VENDORS * ITEMS_PER_VENDOR);
+        assertOneStatement("/api/items/" + itemId, 1);
+        assertOneStatement("/api/items/name/" + itemName, 1);
+    }
+
+    // Category names are unique across the shared test database
+    private Category category(ItemCategory name) {
+        return categoryRepository.findByName(name).orElseGet(() -> categoryRepository.save(new Category(name)));
+    }
+
+    private void assertOneStatement(String path, int views) throws Exception {
+        // Cold read: nothing served from the catalog cache or a stored snapshot
+        catalogCache.invalidateAll();
+        snapshots.invalidateAll();
+        statistics.clear();
+
+        mockMvc.perform(get(path)).andExpect(status().isOk());
+
+        assertEquals(1, statistics.getPrepareStatementCount(), path);
+        assertEquals(views, statistics.getEntityStatistics(Item.class.getName()).getLoadCount(), path);
+    }
+}
@@ -0,0 +1,117 @@
+package auca.ac.rw.food.delivery.management.service;
+
+import auca.ac.rw.food.delivery.management.DTO.CursorPageDTO;
+import auca.ac.rw.food.delivery.management.DTO.OrderSummaryDTO;
+import auca.ac.rw.food.delivery.management.model.Customer;
+import auca.ac.rw.food.delivery.management.model.DeliveryDriver;
+import auca.ac.rw.food.delivery.management.model.ItemSummary;
+import auca.ac.rw.food.delivery.management.model.Order;
+import auca.ac.rw.food.delivery.management.model.VendorSummary;
+import auca.ac.rw.food.delivery.management.model.enums.DriverStatus;
+import auca.ac.rw.food.delivery.management.model.enums.OrderStatus;
+import auca.ac.rw.food.delivery.management.repository.CustomerRepository;
+import auca.ac.rw.food.delivery.management.repository.DeliveryDriverRepository;
+import auca.ac.rw.food.delivery.management.repository.OrderRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+// Order list pages are one select however many orders they hold; each order carries line and vendor snapshots
+@SpringBootTest
+class OrderListingStatementsTest {
+
+    private static final int ORDERS = 30;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private AdminDashboardService adminDashboardService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private DeliveryDriverRepository driverRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private UUID firstOrderId;
+
+    @BeforeEach
+    void createOrders() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        String tag = UUID.randomUUID().toString();
+        Customer customer = customerRepository.save(new Customer("Ann", tag + "@mail.test", tag, "Kigali", "secret", tag));
+        DeliveryDriver driver = driverRepository.save(new DeliveryDriver("Bo", tag, "RAB" + tag, DriverStatus.values()[0]));
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = new Order(customer, null, driver);
+            order.setTotal(10.0 + i);
+            order.setOrderDate(now.minusMinutes(i));
+            order.setDeliveryAddress("Street " + i);
+            UUID vendorId = UUID.randomUUID();
+            order.setVendors(new ArrayList<>(List.of(new VendorSummary(vendorId, "Vendor " + i, "FOOD"))));
+            order.setItems(new ArrayList<>(List.of(
+                    new ItemSummary(UUID.randomUUID(), "Item A", "a", 4.0, 1, vendorId, "Vendor " + i),
+                    new ItemSummary(UUID.randomUUID(), "Item B", "b", 6.0, 2, vendorId, "Vendor " + i))));
+            Order saved = orderRepository.save(order);
+            if (i == 0) {
+                firstOrderId = saved.getId();
+            }
+        }
+    }
+
+    @Test
+    void listPagesRunOneSelectWhateverTheirSize() {
+        assertEquals(1, statementsFor(() -> orderService.getOrders(null, 5)));
+        assertEquals(1, statementsFor(() -> orderService.getOrders(null, ORDERS)));
+
+        CursorPageDTO<OrderSummaryDTO> first = orderService.getOrders(null, 5);
+        assertNotNull(first.getNext());
+        assertEquals(1, statementsFor(() -> orderService.getOrders(first.getNext(), 20)));
+
+        assertEquals(1, statementsFor(() -> orderService.getOrdersByStatus(OrderStatus.PENDING, null, ORDERS)));
+        LocalDateTime now = LocalDateTime.now();
+        assertEquals(1, statementsFor(() -> orderService.getOrdersInDateRange(now.minusDays(1), now.plusDays(1), null, ORDERS)));
+        assertEquals(1, statementsFor(() -> adminDashboardService.getRecentOrders(5)));
+    }
+
+    @Test
+    void detailViewLoadsLinesAndVendorsWithTheOrder() {
+        long statements = statementsFor(() -> transactionTemplate.executeWithoutResult(status -> {
+            Order order = orderService.getOrderById(firstOrderId).orElseThrow();
+            assertEquals(2, order.getItems().size());
+            assertEquals(1, order.getVendors().size());
+        }));
+        // Order with its lines, the payment on the inverse side of its one-to-one, then the vendor snapshot
+        assertEquals(3, statements);
+    }
+
+    private long statementsFor(Runnable action) {
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
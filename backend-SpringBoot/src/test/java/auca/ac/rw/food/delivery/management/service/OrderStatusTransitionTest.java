@@ -0,0 +1,78 @@
+package auca.ac.rw.food.delivery.management.service;
+
+import auca.ac.rw.food.delivery.management.model.Order;
+import auca.ac.rw.food.delivery.management.model.enums.OrderStatus;
+import auca.ac.rw.food.delivery.management.repository.OrderEventOutboxRepository;
+import auca.ac.rw.food.delivery.management.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Status transitions are compare-and-set UPDATEs: of many writers racing one order, exactly one wins
+@SpringBootTest
+class OrderStatusTransitionTest {
+
+    private static final int THREADS = 16;
+    private static final int ROUNDS = 10;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderEventOutboxRepository outboxRepository;
+
+    @Test
+    void racingTransitionsHaveExactlyOneWinner() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                UUID orderId = orderRepository.save(new Order()).getId();
+                CountDownLatch start = new CountDownLatch(1);
+                ConcurrentLinkedQueue<OrderStatus> winners = new ConcurrentLinkedQueue<>();
+
+                List<Future<?>> racers = new ArrayList<>();
+                for (int i = 0; i < THREADS; i++) {
+                    // Half confirm, half cancel; both are valid from PENDING and neither from the other
+                    OrderStatus target = i % 2 == 0 ? OrderStatus.CONFIRMED : OrderStatus.CANCELLED_BY_CUSTOMER;
+                    racers.add(pool.submit(() -> {
+                        start.await();
+                        try {
+                            orderService.updateOrderStatus(orderId, target);
+                            winners.add(target);
+                        } catch (RuntimeException e) {
+                            // Lost the race: the transition is no longer valid, or the order kept changing
+                        }
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (Future<?> racer : racers) {
+                    racer.get(30, TimeUnit.SECONDS);
+                }
+
+                assertEquals(1, winners.size(), "winners in round " + round);
+                assertEquals(winners.peek(), orderRepository.findById(orderId).orElseThrow().getStatus());
+                assertEquals(1, outboxRepository.findAll().stream()
+                        .filter(row -> row.getOrderId().equals(orderId))
+                        .count());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
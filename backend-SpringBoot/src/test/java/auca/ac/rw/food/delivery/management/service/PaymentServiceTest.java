@@ -0,0 +1,107 @@
+package auca.ac.rw.food.delivery.management.service;
+
+import auca.ac.rw.food.delivery.management.config.OrderStatusConflictException;
+import auca.ac.rw.food.delivery.management.model.Order;
+import auca.ac.rw.food.delivery.management.model.Payment;
+import auca.ac.rw.food.delivery.management.model.enums.OrderStatus;
+import auca.ac.rw.food.delivery.management.model.enums.PaymentMethod;
+import auca.ac.rw.food.delivery.management.model.enums.PaymentStatus;
+import auca.ac.rw.food.delivery.management.repository.OrderRepository;
+import auca.ac.rw.food.delivery.management.repository.PaymentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doThrow;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest(properties = {
+        "app.payments.simulated.latency-ms=500",
+        "app.payments.max-in-flight-per-method=1",
+        "app.payments.max-queued-per-method=1",
+        "app.payments.order-retry-interval-ms=600000"
+})
+@AutoConfigureMockMvc
+class PaymentServiceTest {
+
+    private static final PaymentMethod METHOD = PaymentMethod.values()[0];
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @SpyBean
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void approvedPaymentStaysCompletedWhenTheOrderUpdateFails() throws Exception {
+        doThrow(new OrderStatusConflictException("Order kept changing"))
+                .doCallRealMethod()
+                .when(orderService).updateOrderStatus(any(UUID.class), eq(OrderStatus.PAYMENT_COMPLETED));
+
+        Payment payment = paymentService.createPayment(preparingOrder().getId(), METHOD);
+        paymentService.processPayment(payment.getId());
+
+        assertEquals(PaymentStatus.COMPLETED, awaitSettled(payment.getId()));
+        UUID orderId = payment.getOrder().getId();
+        assertEquals(OrderStatus.PAYMENT_PROCESSING, orderRepository.findById(orderId).orElseThrow().getStatus());
+
+        paymentService.advanceLaggingOrders();
+        assertEquals(OrderStatus.READY_FOR_PICKUP, orderRepository.findById(orderId).orElseThrow().getStatus());
+    }
+
+    @Test
+    void fullPaymentLaneAnswersRetryableUnavailable() throws Exception {
+        // One charge in flight and one waiting fill the lane
+        Payment inFlight = paymentService.createPayment(preparingOrder().getId(), METHOD);
+        Payment waiting = paymentService.createPayment(preparingOrder().getId(), METHOD);
+        Payment refused = paymentService.createPayment(preparingOrder().getId(), METHOD);
+        paymentService.processPayment(inFlight.getId());
+        paymentService.processPayment(waiting.getId());
+
+        MvcResult result = mockMvc.perform(post("/api/payments/" + refused.getId() + "/process")).andReturn();
+        assertEquals(503, result.getResponse().getStatus());
+        assertNotNull(result.getResponse().getHeader("Retry-After"));
+        assertEquals(PaymentStatus.PENDING, paymentRepository.findById(refused.getId()).orElseThrow().getStatus());
+
+        awaitSettled(inFlight.getId());
+        awaitSettled(waiting.getId());
+    }
+
+    private Order preparingOrder() {
+        Order order = new Order();
+        order.setTotal(20.0);
+        order.setStatus(OrderStatus.PREPARING);
+        return orderRepository.save(order);
+    }
+
+    private PaymentStatus awaitSettled(UUID paymentId) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            PaymentStatus status = paymentRepository.findById(paymentId).orElseThrow().getStatus();
+            if (status != PaymentStatus.PENDING && status != PaymentStatus.PROCESSING) {
+                return status;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Payment " + paymentId + " was not settled");
+    }
+}
@@ -0,0 +1,95 @@
+package auca.ac.rw.food.delivery.management.service;
+
+import auca.ac.rw.food.delivery.management.DTO.RatingHistogramDTO;
+import auca.ac.rw.food.delivery.management.model.Item;
+import auca.ac.rw.food.delivery.management.model.Vendor;
+import auca.ac.rw.food.delivery.management.model.enums.RatingSubject;
+import auca.ac.rw.food.delivery.management.model.enums.VendorStatus;
+import auca.ac.rw.food.delivery.management.model.enums.VendorType;
+import auca.ac.rw.food.delivery.management.repository.ItemRepository;
+import auca.ac.rw.food.delivery.management.repository.VendorRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Ratings counted in memory reach the rows as additive updates, and a vendor's rating leaves its item views cached
+@SpringBootTest
+@Import(H2UpsertConfig.class)
+class RatingAggregatorTest {
+
+    @Autowired
+    private RatingAggregator ratingAggregator;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private VendorRepository vendorRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private UUID vendorId;
+    private UUID itemId;
+
+    @BeforeEach
+    void createCatalog() {
+        String tag = UUID.randomUUID().toString().substring(0, 8);
+        Vendor vendor = new Vendor("Vendor " + tag, "Kigali", tag, tag + "@vendor.test",
+                VendorType.values()[0], VendorStatus.values()[0], "", "");
+        vendor.setVendorId("V" + tag);
+        vendor.setPassword("secret");
+        vendor = vendorRepository.save(vendor);
+        vendorId = vendor.getId();
+        itemId = itemRepository.save(new Item("Item " + tag, 5.0, new HashSet<>(), "", vendor)).getId();
+    }
+
+    @Test
+    void flushesAddToTotalsAndBuckets() {
+        ratingAggregator.rate(RatingSubject.VENDOR, vendorId, 5);
+        ratingAggregator.rate(RatingSubject.VENDOR, vendorId, 3);
+        ratingAggregator.flush();
+        // The second flush adds to the rows the first one wrote
+        ratingAggregator.rate(RatingSubject.VENDOR, vendorId, 5);
+        ratingAggregator.rate(RatingSubject.VENDOR, vendorId, 1);
+        ratingAggregator.rate(RatingSubject.ITEM, itemId, 4);
+        ratingAggregator.flush();
+
+        Vendor vendor = vendorRepository.findById(vendorId).orElseThrow();
+        assertEquals(4, vendor.getTotalRatings());
+        assertEquals(3.5, vendor.getAverageRating(), 1e-9);
+        Item item = itemRepository.findById(itemId).orElseThrow();
+        assertEquals(1, item.getTotalRatings());
+        assertEquals(4.0, item.getAverageRating(), 1e-9);
+
+        RatingHistogramDTO histogram = ratingAggregator.histogram(RatingSubject.VENDOR, vendorId);
+        assertEquals(Map.of(1, 1L, 2, 0L, 3, 1L, 4, 0L, 5, 2L), histogram.getCounts());
+        assertEquals(4, histogram.getTotalRatings());
+    }
+
+    @Test
+    void vendorRatingKeepsItemViewsCached() {
+        itemService.getItemViewsByVendorId(vendorId);
+        ratingAggregator.rate(RatingSubject.VENDOR, vendorId, 4);
+        ratingAggregator.flush();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        assertEquals(1, itemService.getItemViewsByVendorId(vendorId).size());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+}
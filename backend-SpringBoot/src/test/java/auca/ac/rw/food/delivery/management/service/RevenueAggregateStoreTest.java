@@ -0,0 +1,66 @@
+package auca.ac.rw.food.delivery.management.service;
+
+import auca.ac.rw.food.delivery.management.event.OrderStatusChangeEvent;
+import auca.ac.rw.food.delivery.management.model.Order;
+import auca.ac.rw.food.delivery.management.model.OrderEventOutbox;
+import auca.ac.rw.food.delivery.management.model.enums.OrderStatus;
+import auca.ac.rw.food.delivery.management.repository.OrderEventOutboxRepository;
+import auca.ac.rw.food.delivery.management.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class RevenueAggregateStoreTest {
+
+    @Autowired
+    private RevenueAggregateStore store;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderEventOutboxRepository outboxRepository;
+
+    @Test
+    void eventAlreadyInRebuildSnapshotIsNotCountedAgain() {
+        Order order = completedOrder(25.0);
+        OrderEventOutbox row = outboxRepository.save(
+                new OrderEventOutbox(order.getId(), OrderStatus.PENDING, OrderStatus.COMPLETED, true));
+
+        store.rebuild();
+        long count = store.getOrderCount(OrderStatus.COMPLETED);
+        double revenue = store.getCompletedRevenue();
+
+        store.onOrderStatusChange(new OrderStatusChangeEvent(this, row.getId(), order,
+                OrderStatus.PENDING, OrderStatus.COMPLETED, true));
+
+        assertEquals(count, store.getOrderCount(OrderStatus.COMPLETED));
+        assertEquals(revenue, store.getCompletedRevenue(), 0.001);
+    }
+
+    @Test
+    void eventCommittedAfterRebuildIsCounted() {
+        store.rebuild();
+        long count = store.getOrderCount(OrderStatus.COMPLETED);
+        double revenue = store.getCompletedRevenue();
+
+        Order order = completedOrder(10.0);
+        OrderEventOutbox row = outboxRepository.save(
+                new OrderEventOutbox(order.getId(), OrderStatus.PENDING, OrderStatus.COMPLETED, true));
+        store.onOrderStatusChange(new OrderStatusChangeEvent(this, row.getId(), order,
+                OrderStatus.PENDING, OrderStatus.COMPLETED, true));
+
+        assertEquals(count + 1, store.getOrderCount(OrderStatus.COMPLETED));
+        assertEquals(revenue + 10.0, store.getCompletedRevenue(), 0.001);
+    }
+
+    private Order completedOrder(double total) {
+        Order order = new Order();
+        order.setTotal(total);
+        order.setStatus(OrderStatus.COMPLETED);
+        return orderRepository.save(order);
+    }
+}
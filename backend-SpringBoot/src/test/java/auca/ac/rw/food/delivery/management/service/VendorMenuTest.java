@@ -0,0 +1,86 @@
+package auca.ac.rw.food.delivery.management.service;
+
+import auca.ac.rw.food.delivery.management.DTO.ItemResponseDTO;
+import auca.ac.rw.food.delivery.management.DTO.VendorMenuDTO;
+import auca.ac.rw.food.delivery.management.model.Category;
+import auca.ac.rw.food.delivery.management.model.Item;
+import auca.ac.rw.food.delivery.management.model.Vendor;
+import auca.ac.rw.food.delivery.management.model.enums.ItemCategory;
+import auca.ac.rw.food.delivery.management.model.enums.VendorStatus;
+import auca.ac.rw.food.delivery.management.model.enums.VendorType;
+import auca.ac.rw.food.delivery.management.repository.CategoryRepository;
+import auca.ac.rw.food.delivery.management.repository.ItemRepository;
+import auca.ac.rw.food.delivery.management.repository.VendorRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// An item in several categories shows once in each of their sections, and the menu costs two selects
+@SpringBootTest
+class VendorMenuTest {
+
+    @Autowired
+    private VendorService vendorService;
+
+    @Autowired
+    private VendorRepository vendorRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void multiCategoryItemIsListedOncePerSection() {
+        Category mains = category(ItemCategory.MAIN_COURSE);
+        Category fastFood = category(ItemCategory.FAST_FOOD);
+        Category salads = category(ItemCategory.SALAD);
+
+        String tag = UUID.randomUUID().toString().substring(0, 8);
+        Vendor vendor = new Vendor("Vendor " + tag, "Kigali", tag, tag + "@vendor.test",
+                VendorType.values()[0], VendorStatus.values()[0], "", "");
+        vendor.setVendorId("V" + tag);
+        vendor.setPassword("secret");
+        vendor = vendorRepository.save(vendor);
+        itemRepository.saveAll(List.of(
+                new Item("Burger", 8.0, Set.of(mains, fastFood, salads), "", vendor),
+                new Item("Fries", 3.0, Set.of(fastFood), "", vendor),
+                new Item("Water", 1.0, Set.of(), "", vendor)));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        VendorMenuDTO menu = vendorService.getVendorMenu(vendor.getId()).orElseThrow();
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        Map<ItemCategory, List<String>> sections = new LinkedHashMap<>();
+        for (VendorMenuDTO.MenuSectionDTO section : menu.getSections()) {
+            sections.put(section.getCategory(), section.getItems().stream().map(ItemResponseDTO::getName).toList());
+        }
+        Map<ItemCategory, List<String>> expected = new LinkedHashMap<>();
+        expected.put(ItemCategory.MAIN_COURSE, List.of("Burger"));
+        expected.put(ItemCategory.FAST_FOOD, List.of("Burger", "Fries"));
+        expected.put(ItemCategory.SALAD, List.of("Burger"));
+        expected.put(null, List.of("Water"));
+        assertEquals(expected, sections);
+    }
+
+    // Category names are unique across the shared test database
+    private Category category(ItemCategory name) {
+        return categoryRepository.findByName(name).orElseGet(() -> categoryRepository.save(new Category(name)));
+    }
+}
@@ -106,4 +106,18 @@ export const deleteCartItem = async (customerId, itemId) => {
     } catch (error) {
         throw error.response?.data || error;
     }
-}; 
\ No newline at end of file
+}; 
+/**
+ * Apply several quantity changes to customer's cart in one request
+ * @param {string} customerId - UUID of the customer
+ * @param {Array<{itemId: string, quantityDelta: number}>} changes - Positive deltas add, negative remove (0 or less drops the line)
+ * @returns {Promise<Object>} Updated cart object
+ */
+export const updateCartItems = async (customerId, changes) => {
+    try {
+        const response = await axios.patch(`/carts/customer/${customerId}`, changes);
+        return response.data;
+    } catch (error) {
+        throw error.response?.data || error;
+    }
+};
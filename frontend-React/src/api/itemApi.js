@@ -36,9 +36,11 @@ export const fetchItemsMoreExpensiveThan = async (price) => {
   return res.data;
 };
 
-// Search items by keyword
-export const searchItemsByKeyword = async (keyword) => {
-  const res = await api.get(`/items/search/${keyword}`);
+// Search items by keyword (name, description, category or vendor); filters are optional
+export const searchItemsByKeyword = async (keyword, filters = {}) => {
+  const res = await api.get('/items/search', {
+    params: { keyword, ...filters }
+  });
   return res.data;
 };
 
@@ -54,6 +56,17 @@ export const updateItem = async (id, itemData) => {
   return res.data;
 };
 
+// Rate an item from 1 to 5
+export const addItemRating = async (id, rating) => {
+  await api.post(`/items/${id}/rating?rating=${rating}`);
+};
+
+// Get an item's ratings counted by star value
+export const fetchItemRatings = async (id) => {
+  const res = await api.get(`/items/${id}/ratings`);
+  return res.data;
+};
+
 // Delete item by ID
 export const deleteItem = async (id) => {
   await api.delete(`/items/${id}`);
@@ -1,8 +1,11 @@
 import axios from './axios';
 
-export const createOrder = async (customerId, driverId, orderData) => {
+// idempotencyKey is optional; resending the same key returns the order the first attempt created
+export const createOrder = async (customerId, driverId, orderData, idempotencyKey) => {
     try {
-        const response = await axios.post(`/orders/customer/${customerId}/driver/${driverId}`, orderData);
+        const response = await axios.post(`/orders/customer/${customerId}/driver/${driverId}`, orderData, {
+            headers: idempotencyKey ? { 'Idempotency-Key': idempotencyKey } : {}
+        });
         return response.data;
     } catch (error) {
         throw error.response?.data || error;
@@ -1,9 +1,11 @@
 import axios from './axios';
 
-export const createPayment = async (orderId, paymentMethod) => {
+// idempotencyKey is optional; resending the same key returns the payment the first attempt created
+export const createPayment = async (orderId, paymentMethod, idempotencyKey) => {
     try {
         const response = await axios.post(`/payments/order/${orderId}`, null, {
-            params: { paymentMethod }
+            params: { paymentMethod },
+            headers: idempotencyKey ? { 'Idempotency-Key': idempotencyKey } : {}
         });
         return response.data;
     } catch (error) {
@@ -12,9 +12,25 @@ export const fetchVendorById = async (id) => {
   return response.data;
 };
 
+// Get a vendor with its items grouped by category, for the vendor page
+export const fetchVendorMenu = async (id) => {
+  const response = await api.get(`/vendors/${id}/menu`);
+  return response.data;
+};
+
+// Get the vendors nearest to a point (radius in km), optionally filtered by status and category
+export const fetchNearbyVendors = async (lat, lng, filters = {}) => {
+  const response = await api.get('/vendors/nearby', {
+    params: { lat, lng, ...filters }
+  });
+  return response.data;
+};
+
 // Search vendors by name
 export const searchVendorsByName = async (keyword) => {
-  const response = await api.get(`/vendors/search?keyword=${keyword}`);
+  const response = await api.get('/vendors/search', {
+    params: { keyword }
+  });
   return response.data;
 };
 
@@ -47,6 +63,12 @@ export const addVendorRating = async (id, rating) => {
   await api.post(`/vendors/${id}/rating?rating=${rating}`);
 };
 
+// Get a vendor's ratings counted by star value
+export const fetchVendorRatings = async (id) => {
+  const response = await api.get(`/vendors/${id}/ratings`);
+  return response.data;
+};
+
 // Delete vendor by ID
 export const deleteVendor = async (id) => {
   await api.delete(`/vendors/${id}`);
@@ -272,7 +272,7 @@ export default function AdminDashboard() {
                 
                 <tr key={order.id} className="border-t">
                   <td className="p-3">{order.id.substring(0, 8)}</td>
-                  <td className="p-3">{order.customer?.name || "N/A"}</td>
+                  <td className="p-3">{order.customerName || order.customer?.name || "N/A"}</td>
                   <td className="p-3">${(order.total || 0).toFixed(2)}</td>
                   <td className="p-3">
                     <span className={`px-2 py-1 rounded-full text-xs ${
@@ -1,5 +1,5 @@
 /* eslint-disable no-unused-vars */
-import { useState, useEffect } from 'react';
+import { useState, useEffect, useRef } from 'react';
 import { useNavigate } from 'react-router-dom';
 import { toast } from 'react-toastify';
 import { getCustomerCart, deleteCartItem, addItemToCart, removeItemFromCart } from '../api/cartApi';
@@ -10,6 +10,8 @@ import axios from '../api/axios';
 function Cart({ customerId }) {
   const navigate = useNavigate();
   const [cart, setCart] = useState(null);
+  // Kept across retries of the same checkout so the server can recognise them
+  const checkoutKey = useRef(null);
   const [deliveryAddress, setDeliveryAddress] = useState('');
   const [paymentMethod, setPaymentMethod] = useState('CASH');
   const [loading, setLoading] = useState(true);
@@ -19,6 +21,11 @@ function Cart({ customerId }) {
   const [orderStatus, setOrderStatus] = useState(null);
   const [paymentStatus, setPaymentStatus] = useState(null);
 
+  // A changed cart is a new checkout, not a retry of the last one
+  useEffect(() => {
+    checkoutKey.current = null;
+  }, [cart]);
+
   useEffect(() => {
     const loadCart = async () => {
       if (!customerId) {
@@ -177,6 +184,9 @@ function Cart({ customerId }) {
     }
 
     setCheckoutLoading(true);
+    if (!checkoutKey.current) {
+      checkoutKey.current = crypto.randomUUID();
+    }
     try {
       const orderData = {
         deliveryAddress: deliveryAddress,
@@ -186,11 +196,11 @@ function Cart({ customerId }) {
         }))
       };
       
-      const newOrder = await createOrder(customerId, '00000000-0000-0000-0000-000000000000', orderData);
+      const newOrder = await createOrder(customerId, '00000000-0000-0000-0000-000000000000', orderData, checkoutKey.current);
       setOrderId(newOrder.id);
       setOrderStatus('PENDING');
 
-      const payment = await createPayment(newOrder.id, paymentMethod);
+      const payment = await createPayment(newOrder.id, paymentMethod, `${checkoutKey.current}-payment`);
       setPaymentStatus(payment.status);
 
       if (payment.id) {
@@ -207,6 +217,7 @@ function Cart({ customerId }) {
       });
 
       toast.success('Order placed and payment processed successfully!');
+      checkoutKey.current = null;
       setCart(null);
       navigate('/orders');
     } catch (error) {